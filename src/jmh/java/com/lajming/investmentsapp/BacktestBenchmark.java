@@ -0,0 +1,75 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BacktestBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1995, 1, 1);
+    private static final int NUMBER_OF_DAYS = 30 * 365;
+
+    @Param({"30", "3000"})
+    private int numberOfFunds;
+
+    private Path file;
+    private NavHistory navHistory;
+    private BacktestEngine engine;
+    private List<BacktestScenario> scenarios;
+
+    @Setup
+    public void setUp() throws IOException {
+        val funds = BenchmarkData.funds(numberOfFunds);
+        val random = new Random(42);
+        file = Files.createTempFile("nav-history", ".dat");
+        try (NavHistoryWriter writer = NavHistoryWriter.create(file, FIRST_DAY, NUMBER_OF_DAYS)) {
+            val navs = new double[NUMBER_OF_DAYS];
+            for (val fund : funds) {
+                double nav = 100;
+                for (int day = 0; day < NUMBER_OF_DAYS; day++) {
+                    nav *= 1 + random.nextGaussian() * 0.01;
+                    navs[day] = FIRST_DAY.plusDays(day).getDayOfWeek().getValue() > 5 ? Double.NaN : nav;
+                }
+                writer.append(fund.getId(), navs);
+            }
+        }
+        navHistory = NavHistory.open(file);
+        engine = BacktestEngine.of(navHistory, funds);
+
+        scenarios = new ArrayList<>();
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            for (int startYear = 0; startYear < 20; startYear += 5) {
+                for (val rebalancingPeriod : new Period[] { Period.ofMonths(1), Period.ofMonths(3), Period.ofYears(1) }) {
+                    scenarios.add(BacktestScenario.of(investmentStrategy.compiled(), BenchmarkData.amountOfPLN(100000),
+                        FIRST_DAY.plusYears(startYear), navHistory.getLastDay(), rebalancingPeriod));
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        navHistory.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<BacktestResult> runAllScenarios() {
+        return engine.runAll(scenarios);
+    }
+}
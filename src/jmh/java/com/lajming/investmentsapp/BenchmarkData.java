@@ -0,0 +1,28 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BenchmarkData {
+
+    static final CurrencyUnit PLN = CurrencyUnit.of("PLN");
+
+    private static final FundType[] FUND_TYPES = FundType.values();
+
+    static List<Fund> funds(int numberOfFunds) {
+        val funds = new ArrayList<Fund>(numberOfFunds);
+        for (int i = 0; i < numberOfFunds; i++) {
+            val fundType = FUND_TYPES[i % FUND_TYPES.length];
+            funds.add(Fund.of(i, fundType, fundType.name() + " " + i));
+        }
+        return funds;
+    }
+
+    static Money amountOfPLN(long amount) {
+        return Money.of(PLN, amount);
+    }
+}
@@ -0,0 +1,43 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriftScannerBenchmark {
+
+    @Param({"1000000"})
+    private int numberOfClients;
+
+    private DriftScanner driftScanner;
+
+    @Setup
+    public void setUp() {
+        val random = new SplittableRandom(42);
+        val clientHoldings = ClientHoldings.create();
+        val investmentStrategies = InvestmentStrategy.values();
+        for (int clientId = 0; clientId < numberOfClients; clientId++) {
+            val investmentStrategy = investmentStrategies[clientId % investmentStrategies.length].compiled();
+            clientHoldings.addClient(clientId, investmentStrategy);
+            for (val fundType : FundType.values()) {
+                val target = investmentStrategy.getBasisPoints(fundType) * 100L;
+                clientHoldings.addPosition(clientId, fundType, target + random.nextLong(target / 5 + 1));
+            }
+        }
+        driftScanner = DriftScanner.of(clientHoldings);
+    }
+
+    @Benchmark
+    public List<ClientDrift> scan() {
+        return driftScanner.scan(2);
+    }
+}
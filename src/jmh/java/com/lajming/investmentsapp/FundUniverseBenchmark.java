@@ -0,0 +1,43 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FundUniverseBenchmark {
+
+    private static final int MONEY_MARKET_FUNDS = 10;
+
+    @Param({"100", "100000"})
+    private int numberOfOtherFunds;
+
+    private FundUniverse fundUniverse;
+    private Fund addedFund;
+
+    @Setup
+    public void setUp() {
+        val funds = new ArrayList<Fund>();
+        for (int i = 0; i < numberOfOtherFunds; i++) {
+            val fundType = i % 2 == 0 ? FundType.POLISH_INVESTMENT_FUND : FundType.FOREIGN_INVESTMENT_FUND;
+            funds.add(Fund.of(i, fundType, fundType.name() + " " + i));
+        }
+        for (int i = 0; i < MONEY_MARKET_FUNDS; i++) {
+            funds.add(Fund.of(numberOfOtherFunds + i, FundType.MONEY_MARKET_FUND, "MONEY_MARKET_FUND " + i));
+        }
+        fundUniverse = FundUniverse.of(funds);
+        addedFund = Fund.of(-1, FundType.MONEY_MARKET_FUND, "MONEY_MARKET_FUND added");
+    }
+
+    @Benchmark
+    public FundUniverse addAndRemoveFund() {
+        return fundUniverse.withFund(addedFund).withoutFund(addedFund.getId());
+    }
+}
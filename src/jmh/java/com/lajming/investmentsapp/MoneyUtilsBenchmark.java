@@ -0,0 +1,61 @@
+package com.lajming.investmentsapp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.lajming.investmentsapp.MoneyUtils.*;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyUtilsBenchmark {
+
+    @Param({"100", "10000", "100000000"})
+    private long amount;
+
+    @Param({"500", "2000", "7500"})
+    private int basisPoints;
+
+    private long amountMinor;
+    private long partMinor;
+    private long minorUnitsPerUnit;
+    private long[] groupAmounts;
+
+    @Setup
+    public void setUp() {
+        minorUnitsPerUnit = minorUnitsPerUnit(BenchmarkData.PLN);
+        amountMinor = amount * minorUnitsPerUnit;
+        partMinor = amountMinor * basisPoints / BASIS_POINTS_IN_WHOLE;
+        groupAmounts = new long[] { amountMinor / 5, amountMinor * 3 / 4, amountMinor / 20 };
+    }
+
+    @Benchmark
+    public long multiplyByBasisPoints() {
+        return MoneyUtils.multiplyByBasisPoints(amountMinor, basisPoints, minorUnitsPerUnit);
+    }
+
+    @Benchmark
+    public long divideAmount() {
+        return MoneyUtils.divideAmount(amountMinor, 3, minorUnitsPerUnit);
+    }
+
+    @Benchmark
+    public long sumAmounts() {
+        return MoneyUtils.sumAmounts(groupAmounts);
+    }
+
+    @Benchmark
+    public boolean isLessThanOneUnit() {
+        return MoneyUtils.isLessThanOneUnit(partMinor, minorUnitsPerUnit);
+    }
+
+    @Benchmark
+    public BigDecimal calculatePercentage() {
+        return MoneyUtils.calculatePercentage(amountMinor, partMinor);
+    }
+}
@@ -0,0 +1,43 @@
+package com.lajming.investmentsapp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloProjectionBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int numberOfPaths;
+
+    @Param({"10", "30"})
+    private int numberOfYears;
+
+    private Portfolio portfolio;
+    private MonteCarloProjection projection;
+
+    @Setup
+    public void setUp() {
+        portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, BenchmarkData.funds(30)).generatePortfolio(BenchmarkData.amountOfPLN(100000));
+        projection = MonteCarloProjection.of(ReturnModel.ofFundTypes(new double[] { 0.07, 0.06, 0.02 }, new double[][] {
+            { 0.0400, 0.0150, 0.0001 },
+            { 0.0150, 0.0225, 0.0001 },
+            { 0.0001, 0.0001, 0.0001 }
+        }));
+    }
+
+    @Benchmark
+    public ProjectionResult project() {
+        return projection.project(portfolio, ProjectionSettings.of(numberOfYears, numberOfPaths, 42L));
+    }
+
+    @Benchmark
+    public ProjectionResult projectWithEarlyStopping() {
+        return projection.project(portfolio, ProjectionSettings.of(numberOfYears, numberOfPaths, 42L).withPrecision(0.01, 0.95));
+    }
+}
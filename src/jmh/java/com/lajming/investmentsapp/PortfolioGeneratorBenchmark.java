@@ -0,0 +1,48 @@
+package com.lajming.investmentsapp;
+
+import org.joda.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioGeneratorBenchmark {
+
+    @Param({"3", "1000", "100000", "1000000"})
+    private int numberOfFunds;
+
+    @Param({"CONSERVATIVE", "BALANCED", "AGGRESSIVE"})
+    private String investmentStrategyName;
+
+    @Param({"100", "10000", "100000000"})
+    private long amount;
+
+    private InvestmentStrategy investmentStrategy;
+    private Collection<Fund> availableFunds;
+    private FundUniverse fundUniverse;
+    private Money availableMoney;
+
+    @Setup
+    public void setUp() {
+        investmentStrategy = InvestmentStrategy.valueOf(investmentStrategyName);
+        availableFunds = BenchmarkData.funds(numberOfFunds);
+        fundUniverse = FundUniverse.of(availableFunds);
+        availableMoney = BenchmarkData.amountOfPLN(amount);
+    }
+
+    @Benchmark
+    public Portfolio generatePortfolioFromFunds() {
+        return PortfolioGenerator.of(availableMoney, investmentStrategy, availableFunds).generatePortfolio();
+    }
+
+    @Benchmark
+    public Portfolio generatePortfolioFromFundUniverse() {
+        return PortfolioGenerator.ofFundUniverse(investmentStrategy, fundUniverse).generatePortfolio(availableMoney);
+    }
+}
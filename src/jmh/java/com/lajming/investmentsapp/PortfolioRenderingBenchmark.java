@@ -0,0 +1,71 @@
+package com.lajming.investmentsapp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioRenderingBenchmark {
+
+    @Param({"3", "1000", "100000", "1000000"})
+    private int numberOfFunds;
+
+    @Param({"CONSERVATIVE", "BALANCED", "AGGRESSIVE"})
+    private String investmentStrategyName;
+
+    @Param({"100000000"})
+    private long amount;
+
+    private static final OutputStream DISCARDING_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private InvestmentStrategy investmentStrategy;
+    private Portfolio portfolio;
+
+    @Setup
+    public void setUp() {
+        investmentStrategy = InvestmentStrategy.valueOf(investmentStrategyName);
+        portfolio = PortfolioGenerator
+            .of(BenchmarkData.amountOfPLN(amount), investmentStrategy, BenchmarkData.funds(numberOfFunds))
+            .generatePortfolio();
+    }
+
+    @Benchmark
+    public String toMultilineString() {
+        return portfolio.toMultilineString();
+    }
+
+    @Benchmark
+    public long writeTable() {
+        return write(PortfolioReportWriter.Format.TABLE);
+    }
+
+    @Benchmark
+    public long writeCsv() {
+        return write(PortfolioReportWriter.Format.CSV);
+    }
+
+    @Benchmark
+    public long writeJson() {
+        return write(PortfolioReportWriter.Format.JSON);
+    }
+
+    private long write(PortfolioReportWriter.Format format) {
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(format, DISCARDING_OUTPUT_STREAM)) {
+            return writer.write(portfolio).getNumberOfPortfolios();
+        }
+    }
+}
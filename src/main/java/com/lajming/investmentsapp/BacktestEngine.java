@@ -0,0 +1,284 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+
+public class BacktestEngine {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final double DAYS_IN_YEAR = 365.25;
+
+    private final NavHistory navHistory;
+    private final Fund[] funds;
+    private final int[] listingDays;
+    private final int[] delistingDays;
+    private final Executor executor;
+    private final int parallelism;
+
+    private BacktestEngine(NavHistory navHistory, Collection<Fund> availableFunds, Executor executor, int parallelism) {
+        checkNotNull(navHistory, "provided nav history should not be null");
+        checkNotNull(availableFunds, "provided funds should not be null");
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.navHistory = navHistory;
+        this.funds = availableFunds.toArray(new Fund[0]);
+        this.listingDays = new int[funds.length];
+        this.delistingDays = new int[funds.length];
+        this.executor = executor;
+        this.parallelism = parallelism;
+
+        for (int i = 0; i < funds.length; i++) {
+            checkNotNull(funds[i], "provided fund should not be null");
+            val column = navHistory.columnOf(funds[i].getId());
+            checkArgument(column != NavHistory.NOT_FOUND, "fund with id %s has no nav history", funds[i].getId());
+            listingDays[i] = listingDay(column);
+            delistingDays[i] = delistingDay(column);
+        }
+    }
+
+    public static BacktestEngine of(NavHistory navHistory, Collection<Fund> availableFunds) {
+        return of(navHistory, availableFunds, ForkJoinPool.commonPool());
+    }
+
+    public static BacktestEngine of(NavHistory navHistory, Collection<Fund> availableFunds, ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new BacktestEngine(navHistory, availableFunds, forkJoinPool, forkJoinPool.getParallelism());
+    }
+
+    public static BacktestEngine of(NavHistory navHistory, Collection<Fund> availableFunds, Executor executor, int parallelism) {
+        return new BacktestEngine(navHistory, availableFunds, executor, parallelism);
+    }
+
+    public BacktestResult run(BacktestScenario scenario) {
+        validate(scenario);
+
+        return new Simulation(scenario).run();
+    }
+
+    public List<BacktestResult> runAll(List<BacktestScenario> scenarios) {
+        checkNotNull(scenarios, "provided scenarios should not be null");
+        scenarios.forEach(this::validate);
+
+        val results = new BacktestResult[scenarios.size()];
+        val chunkSize = chunkSize(scenarios.size());
+        val chunks = new ArrayList<CompletableFuture<Void>>();
+
+        for (int from = 0; from < scenarios.size(); from += chunkSize) {
+            val chunkFrom = from;
+            val chunkTo = Math.min(from + chunkSize, scenarios.size());
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = chunkFrom; i < chunkTo; i++) {
+                    results[i] = new Simulation(scenarios.get(i)).run();
+                }
+            }, executor));
+        }
+
+        CompletableFutures.awaitAll(chunks);
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private void validate(BacktestScenario scenario) {
+        checkNotNull(scenario, "provided scenario should not be null");
+        checkNotNull(scenario.getInvestmentStrategy(), "provided investment strategy should not be null");
+        checkNotNull(scenario.getInitialMoney(), "provided money should not be null");
+        checkNotNull(scenario.getStartDate(), "provided start date should not be null");
+        checkNotNull(scenario.getEndDate(), "provided end date should not be null");
+        checkNotNull(scenario.getRebalancingPeriod(), "provided rebalancing period should not be null");
+        checkArgument(scenario.getInitialMoney().isPositive(), "initial money should be positive");
+        checkArgument(!scenario.getEndDate().isBefore(scenario.getStartDate()), "end date %s should not be before start date %s",
+            scenario.getEndDate(), scenario.getStartDate());
+        checkArgument(!scenario.getStartDate().isBefore(navHistory.getFirstDay()) && !scenario.getEndDate().isAfter(navHistory.getLastDay()),
+            "scenario from %s to %s is outside of nav history from %s to %s",
+            scenario.getStartDate(), scenario.getEndDate(), navHistory.getFirstDay(), navHistory.getLastDay());
+        checkArgument(!scenario.getRebalancingPeriod().isZero() && !scenario.getRebalancingPeriod().isNegative(), "rebalancing period should be positive");
+    }
+
+    private int listingDay(int column) {
+        for (int day = 0; day < navHistory.getNumberOfDays(); day++) {
+            if (!Double.isNaN(navHistory.nav(column, day))) {
+                return day;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private int delistingDay(int column) {
+        for (int day = navHistory.getNumberOfDays() - 1; day >= 0; day--) {
+            if (!Double.isNaN(navHistory.nav(column, day))) {
+                return day;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private double navOn(int column, int day) {
+        for (int previousDay = day; previousDay >= 0; previousDay--) {
+            val nav = navHistory.nav(column, previousDay);
+            if (!Double.isNaN(nav)) {
+                return nav;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private int chunkSize(int numberOfScenarios) {
+        val numberOfChunks = parallelism * CHUNKS_PER_WORKER;
+        return Math.max(1, (numberOfScenarios + numberOfChunks - 1) / numberOfChunks);
+    }
+
+    private final class Simulation {
+        private final BacktestScenario scenario;
+        private final int startDay;
+        private final int endDay;
+        private final double[] values;
+        private final double[] heldValuesByColumn;
+        private final double[] heldNavsByColumn;
+        private int[] heldColumns = new int[0];
+        private double[] heldUnits = new double[0];
+        private double[] heldNavs = new double[0];
+        private double cash;
+        private long[] availableFunds;
+        private PortfolioGenerator portfolioGenerator;
+        private double turnover;
+        private int numberOfRebalances;
+
+        private Simulation(BacktestScenario scenario) {
+            this.scenario = scenario;
+            this.startDay = (int) navHistory.dayOf(scenario.getStartDate());
+            this.endDay = (int) navHistory.dayOf(scenario.getEndDate());
+            this.values = new double[endDay - startDay + 1];
+            this.heldValuesByColumn = new double[navHistory.getNumberOfFunds()];
+            this.heldNavsByColumn = new double[navHistory.getNumberOfFunds()];
+        }
+
+        private BacktestResult run() {
+            int day = startDay;
+            values[0] = scenario.getInitialMoney().getAmountMinorLong();
+            for (int period = 1; ; period++) {
+                rebalance(day, values[day - startDay]);
+                val nextRebalancingDay = navHistory.dayOf(scenario.getStartDate().plus(scenario.getRebalancingPeriod().multipliedBy(period)));
+                if (nextRebalancingDay >= endDay) {
+                    accumulate(day, endDay);
+                    break;
+                }
+                accumulate(day, (int) nextRebalancingDay);
+                day = (int) nextRebalancingDay;
+            }
+            return result();
+        }
+
+        private void rebalance(int day, double value) {
+            for (int i = 0; i < heldColumns.length; i++) {
+                heldValuesByColumn[heldColumns[i]] = heldUnits[i] * heldNavs[i];
+                heldNavsByColumn[heldColumns[i]] = heldNavs[i];
+            }
+
+            val target = PortfolioItemColumns.of(portfolioGenerator(day)
+                .generateCompactPortfolio(toMoney(scenario.getInitialMoney().getCurrencyUnit(), (long) Math.floor(value))));
+            val targetColumns = new int[target.size()];
+            val targetUnits = new double[target.size()];
+            val targetNavs = new double[target.size()];
+            double traded = 0;
+            double invested = 0;
+            for (int i = 0; i < target.size(); i++) {
+                val column = navHistory.columnOf(target.fundAt(i).getId());
+                val amount = (double) target.amountAt(i);
+                targetColumns[i] = column;
+                targetNavs[i] = heldNavsByColumn[column] > 0 ? heldNavsByColumn[column] : navOn(column, day);
+                targetUnits[i] = amount / targetNavs[i];
+                traded += Math.abs(amount - heldValuesByColumn[column]);
+                heldValuesByColumn[column] = 0;
+                invested += amount;
+            }
+            for (val column : heldColumns) {
+                traded += heldValuesByColumn[column];
+                heldValuesByColumn[column] = 0;
+                heldNavsByColumn[column] = 0;
+            }
+
+            if (day != startDay && value > 0) {
+                turnover += traded / 2 / value;
+                numberOfRebalances++;
+            }
+            cash = value - invested;
+            heldColumns = targetColumns;
+            heldUnits = targetUnits;
+            heldNavs = targetNavs;
+        }
+
+        private void accumulate(int fromDay, int toDay) {
+            Arrays.fill(values, fromDay + 1 - startDay, toDay + 1 - startDay, cash);
+            for (int i = 0; i < heldColumns.length; i++) {
+                val navs = navHistory.chunkOf(heldColumns[i]);
+                val offset = navHistory.offsetOf(heldColumns[i]) + startDay;
+                val units = heldUnits[i];
+                double nav = heldNavs[i];
+                for (int day = fromDay + 1 - startDay; day <= toDay - startDay; day++) {
+                    val dayNav = navs.get(offset + day);
+                    if (!Double.isNaN(dayNav)) {
+                        nav = dayNav;
+                    }
+                    values[day] += units * nav;
+                }
+                heldNavs[i] = nav;
+            }
+        }
+
+        private PortfolioGenerator portfolioGenerator(int day) {
+            val available = new long[(funds.length + Long.SIZE - 1) / Long.SIZE];
+            for (int i = 0; i < funds.length; i++) {
+                if (listingDays[i] <= day && day <= delistingDays[i]) {
+                    available[i / Long.SIZE] |= 1L << i;
+                }
+            }
+            if (!Arrays.equals(available, availableFunds)) {
+                val availableFundList = new ArrayList<Fund>();
+                for (int i = 0; i < funds.length; i++) {
+                    if ((available[i / Long.SIZE] & 1L << i) != 0) {
+                        availableFundList.add(funds[i]);
+                    }
+                }
+                availableFunds = available;
+                portfolioGenerator = PortfolioGenerator.of(scenario.getInvestmentStrategy(), availableFundList);
+            }
+            return portfolioGenerator;
+        }
+
+        private BacktestResult result() {
+            val initialValue = values[0];
+            val finalValue = values[values.length - 1];
+            double peak = initialValue;
+            double maxDrawdown = 0;
+            for (val value : values) {
+                peak = Math.max(peak, value);
+                maxDrawdown = Math.max(maxDrawdown, 1 - value / peak);
+            }
+            val totalReturn = finalValue / initialValue - 1;
+            val years = (endDay - startDay) / DAYS_IN_YEAR;
+            val annualizedReturn = years > 0 ? Math.pow(finalValue / initialValue, 1 / years) - 1 : totalReturn;
+            return BacktestResult.of(
+                scenario,
+                toMoney(scenario.getInitialMoney().getCurrencyUnit(), (long) Math.floor(finalValue)),
+                totalReturn,
+                annualizedReturn,
+                maxDrawdown,
+                turnover,
+                numberOfRebalances
+            );
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+@Value(staticConstructor = "of")
+public class BacktestResult {
+    private final BacktestScenario scenario;
+    private final Money finalValue;
+    private final double totalReturn;
+    private final double annualizedReturn;
+    private final double maxDrawdown;
+    private final double turnover;
+    private final int numberOfRebalances;
+}
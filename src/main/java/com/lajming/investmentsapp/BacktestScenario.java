@@ -0,0 +1,16 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+@Value(staticConstructor = "of")
+public class BacktestScenario {
+    private final CompiledInvestmentStrategy investmentStrategy;
+    private final Money initialMoney;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Period rebalancingPeriod;
+}
@@ -0,0 +1,42 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Locale;
+
+@Value(staticConstructor = "of")
+public class BatchJobStats {
+    private final long numberOfRequests;
+    private final Duration elapsed;
+    private final Duration medianLatency;
+    private final Duration p99Latency;
+    private final Duration maxLatency;
+
+    static BatchJobStats of(long elapsedNanos, LatencyHistogram latencies) {
+        return of(
+            latencies.count(),
+            Duration.ofNanos(elapsedNanos),
+            Duration.ofNanos(latencies.percentile(50)),
+            Duration.ofNanos(latencies.percentile(99)),
+            Duration.ofNanos(latencies.max())
+        );
+    }
+
+    public double getThroughput() {
+        long elapsedNanos = elapsed.toNanos();
+        return elapsedNanos == 0 ? 0 : numberOfRequests * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "processed %d requests in %.3f s (%.0f requests/s), generation latency p50=%s p99=%s max=%s",
+            numberOfRequests, elapsed.toNanos() / 1e9, getThroughput(),
+            millis(medianLatency), millis(p99Latency), millis(maxLatency));
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.3f ms", duration.toNanos() / 1e6);
+    }
+}
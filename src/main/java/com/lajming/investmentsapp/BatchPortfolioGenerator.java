@@ -0,0 +1,96 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class BatchPortfolioGenerator {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final FundUniverse fundUniverse;
+    private final ConcurrentHashMap<CompiledInvestmentStrategy, PortfolioGenerator> portfolioGenerators = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int parallelism;
+
+    private BatchPortfolioGenerator(FundUniverse fundUniverse, Executor executor, int parallelism) {
+        checkNotNull(fundUniverse, "provided funds should not be null");
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.fundUniverse = fundUniverse;
+        this.executor = executor;
+        this.parallelism = parallelism;
+
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            portfolioGenerator(investmentStrategy.compiled());
+        }
+    }
+
+    public static BatchPortfolioGenerator of(Collection<Fund> availableFunds) {
+        return of(FundUniverse.of(availableFunds));
+    }
+
+    public static BatchPortfolioGenerator of(FundUniverse fundUniverse) {
+        return of(fundUniverse, ForkJoinPool.commonPool());
+    }
+
+    public static BatchPortfolioGenerator of(FundUniverse fundUniverse, ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new BatchPortfolioGenerator(fundUniverse, forkJoinPool, forkJoinPool.getParallelism());
+    }
+
+    public static BatchPortfolioGenerator of(FundUniverse fundUniverse, Executor executor, int parallelism) {
+        return new BatchPortfolioGenerator(fundUniverse, executor, parallelism);
+    }
+
+    public List<Portfolio> generatePortfolios(List<GenerationRequest> requests) {
+        checkNotNull(requests, "provided requests should not be null");
+        requests.forEach(request -> checkNotNull(request, "provided request should not be null"));
+
+        val portfolios = new Portfolio[requests.size()];
+        val chunkSize = chunkSize(requests.size());
+        val chunks = new ArrayList<CompletableFuture<Void>>();
+
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            val chunkFrom = from;
+            val chunkTo = Math.min(from + chunkSize, requests.size());
+            chunks.add(CompletableFuture.runAsync(() -> generateChunk(requests, portfolios, chunkFrom, chunkTo), executor));
+        }
+
+        CompletableFutures.awaitAll(chunks);
+
+        return Arrays.asList(portfolios);
+    }
+
+    private void generateChunk(List<GenerationRequest> requests, Portfolio[] portfolios, int from, int to) {
+        for (int i = from; i < to; i++) {
+            val request = requests.get(i);
+            portfolios[i] = portfolioGenerator(request.getInvestmentStrategy()).generatePortfolio(request.getAmount());
+        }
+    }
+
+    PortfolioGenerator portfolioGenerator(CompiledInvestmentStrategy investmentStrategy) {
+        val portfolioGenerator = portfolioGenerators.get(investmentStrategy);
+        if (portfolioGenerator != null) {
+            return portfolioGenerator;
+        }
+        return portfolioGenerators.computeIfAbsent(investmentStrategy, strategy -> PortfolioGenerator.ofFundUniverse(strategy, fundUniverse));
+    }
+
+    private int chunkSize(int numberOfRequests) {
+        val numberOfChunks = parallelism * CHUNKS_PER_WORKER;
+        return Math.max(1, (numberOfRequests + numberOfChunks - 1) / numberOfChunks);
+    }
+}
@@ -0,0 +1,12 @@
+package com.lajming.investmentsapp;
+
+import lombok.NonNull;
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class ClientDrift {
+    private final long clientId;
+    @NonNull private final CompiledInvestmentStrategy investmentStrategy;
+    @NonNull private final FundType fundType;
+    private final double drift;
+}
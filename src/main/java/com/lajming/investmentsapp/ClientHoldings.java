@@ -0,0 +1,166 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ClientHoldings {
+
+    private static final FundType[] FUND_TYPES = FundType.values();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<Partition> partitions = new ArrayList<>();
+    private final Map<CompiledInvestmentStrategy, Partition> partitionsByStrategy = new HashMap<>();
+    private long[] slotClientIds = new long[INITIAL_CAPACITY];
+    private int[] slotPartitions = new int[INITIAL_CAPACITY];
+    private int[] slotRows = new int[INITIAL_CAPACITY];
+    private int numberOfClients;
+
+    private ClientHoldings() {
+    }
+
+    public static ClientHoldings create() {
+        return new ClientHoldings();
+    }
+
+    public void addClient(long clientId, CompiledInvestmentStrategy investmentStrategy) {
+        checkNotNull(investmentStrategy, "provided investment strategy should not be null");
+        checkArgument(slotPartitions[slotOf(clientId)] == 0, "client %s already exists", clientId);
+
+        Partition partition = partitionsByStrategy.get(investmentStrategy);
+        if (partition == null) {
+            partition = new Partition(partitions.size() + 1, investmentStrategy);
+            partitions.add(partition);
+            partitionsByStrategy.put(investmentStrategy, partition);
+        }
+        if ((numberOfClients + 1) * 2 > slotClientIds.length) {
+            resize();
+        }
+        val slot = slotOf(clientId);
+        slotClientIds[slot] = clientId;
+        slotPartitions[slot] = partition.number;
+        slotRows[slot] = partition.add(clientId);
+        numberOfClients++;
+    }
+
+    public void addPosition(long clientId, FundType fundType, long amount) {
+        checkNotNull(fundType, "provided fund type should not be null");
+
+        addPosition(slotOf(clientId), clientId, fundType.ordinal(), amount);
+    }
+
+    public void addPositions(long[] clientIds, byte[] fundTypeOrdinals, long[] amounts) {
+        checkNotNull(clientIds, "provided client ids should not be null");
+        checkNotNull(fundTypeOrdinals, "provided fund type ordinals should not be null");
+        checkNotNull(amounts, "provided amounts should not be null");
+        checkArgument(clientIds.length == fundTypeOrdinals.length && clientIds.length == amounts.length,
+            "number of client ids %s, fund type ordinals %s and amounts %s should be the same", clientIds.length, fundTypeOrdinals.length, amounts.length);
+
+        for (int i = 0; i < clientIds.length; i++) {
+            checkArgument(fundTypeOrdinals[i] >= 0 && fundTypeOrdinals[i] < FUND_TYPES.length, "invalid fund type ordinal %s", fundTypeOrdinals[i]);
+            addPosition(slotOf(clientIds[i]), clientIds[i], fundTypeOrdinals[i], amounts[i]);
+        }
+    }
+
+    public int getNumberOfClients() {
+        return numberOfClients;
+    }
+
+    public boolean contains(long clientId) {
+        return slotPartitions[slotOf(clientId)] != 0;
+    }
+
+    public long amountOf(long clientId, FundType fundType) {
+        checkNotNull(fundType, "provided fund type should not be null");
+
+        val slot = slotOf(clientId);
+        checkArgument(slotPartitions[slot] != 0, "client %s not found", clientId);
+        return partitions.get(slotPartitions[slot] - 1).amounts[fundType.ordinal()][slotRows[slot]];
+    }
+
+    List<Partition> partitions() {
+        return partitions;
+    }
+
+    private void addPosition(int slot, long clientId, int fundTypeOrdinal, long amount) {
+        checkArgument(slotPartitions[slot] != 0, "client %s not found", clientId);
+        checkArgument(amount >= 0, "negative amount of money provided for client %s", clientId);
+
+        val column = partitions.get(slotPartitions[slot] - 1).amounts[fundTypeOrdinal];
+        column[slotRows[slot]] = Math.addExact(column[slotRows[slot]], amount);
+    }
+
+    private int slotOf(long clientId) {
+        val mask = slotClientIds.length - 1;
+        long mixed = clientId * 0x9E3779B97F4A7C15L;
+        int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+        while (slotPartitions[slot] != 0 && slotClientIds[slot] != clientId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        val oldClientIds = slotClientIds;
+        val oldPartitions = slotPartitions;
+        val oldRows = slotRows;
+        slotClientIds = new long[oldClientIds.length * 2];
+        slotPartitions = new int[oldClientIds.length * 2];
+        slotRows = new int[oldClientIds.length * 2];
+        for (int slot = 0; slot < oldClientIds.length; slot++) {
+            if (oldPartitions[slot] != 0) {
+                val newSlot = slotOf(oldClientIds[slot]);
+                slotClientIds[newSlot] = oldClientIds[slot];
+                slotPartitions[newSlot] = oldPartitions[slot];
+                slotRows[newSlot] = oldRows[slot];
+            }
+        }
+    }
+
+    static final class Partition {
+        private final int number;
+        private final CompiledInvestmentStrategy investmentStrategy;
+        private long[] clientIds = new long[INITIAL_CAPACITY];
+        private final long[][] amounts = new long[FUND_TYPES.length][INITIAL_CAPACITY];
+        private int size;
+
+        private Partition(int number, CompiledInvestmentStrategy investmentStrategy) {
+            this.number = number;
+            this.investmentStrategy = investmentStrategy;
+        }
+
+        CompiledInvestmentStrategy investmentStrategy() {
+            return investmentStrategy;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long clientId(int row) {
+            return clientIds[row];
+        }
+
+        long[][] amounts() {
+            return amounts;
+        }
+
+        private int add(long clientId) {
+            if (size == clientIds.length) {
+                clientIds = Arrays.copyOf(clientIds, size * 2);
+                for (int ordinal = 0; ordinal < amounts.length; ordinal++) {
+                    amounts[ordinal] = Arrays.copyOf(amounts[ordinal], size * 2);
+                }
+            }
+            clientIds[size] = clientId;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.lajming.investmentsapp;
+
+import lombok.NonNull;
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class ClientPortfolioUpdate {
+    @NonNull private final String clientId;
+    @NonNull private final FundChange change;
+    @NonNull private final Portfolio previousPortfolio;
+    @NonNull private final Portfolio portfolio;
+}
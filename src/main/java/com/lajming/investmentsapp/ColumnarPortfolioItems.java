@@ -0,0 +1,85 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+
+final class ColumnarPortfolioItems extends AbstractList<PortfolioItem> implements RandomAccess, PortfolioItemColumns {
+
+    private final FundUniverse fundUniverse;
+    private final CurrencyUnit currencyUnit;
+    private final long investedAmount;
+    private final long[] fundIds;
+    private final long[] amounts;
+
+    private ColumnarPortfolioItems(FundUniverse fundUniverse, CurrencyUnit currencyUnit, long investedAmount, long[] fundIds, long[] amounts) {
+        this.fundUniverse = fundUniverse;
+        this.currencyUnit = currencyUnit;
+        this.investedAmount = investedAmount;
+        this.fundIds = fundIds;
+        this.amounts = amounts;
+    }
+
+    static ColumnarPortfolioItems of(FundUniverse fundUniverse, CurrencyUnit currencyUnit, long investedAmount, long[] fundIds, long[] amounts) {
+        return new ColumnarPortfolioItems(fundUniverse, currencyUnit, investedAmount, fundIds, amounts);
+    }
+
+    static ColumnarPortfolioItems of(PortfolioItemColumns columns, FundUniverse fundUniverse) {
+        checkNotNull(fundUniverse, "provided funds should not be null");
+
+        val fundIds = new long[columns.size()];
+        val amounts = new long[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            checkArgument(fund.equals(fundUniverse.fund(fund.getId())), "fund with id %s not found", fund.getId());
+
+            fundIds[i] = fund.getId();
+            amounts[i] = columns.amountAt(i);
+        }
+        return new ColumnarPortfolioItems(fundUniverse, columns.currencyUnit(), columns.investedAmount(), fundIds, amounts);
+    }
+
+    @Override
+    public PortfolioItem get(int index) {
+        return PortfolioItem.of(
+            fundAt(index),
+            toMoney(currencyUnit, amounts[index]),
+            LazyPercentage.of(investedAmount, amounts[index])
+        );
+    }
+
+    @Override
+    public int size() {
+        return fundIds.length;
+    }
+
+    @Override
+    public CurrencyUnit currencyUnit() {
+        return currencyUnit;
+    }
+
+    @Override
+    public long investedAmount() {
+        return investedAmount;
+    }
+
+    @Override
+    public Fund fundAt(int index) {
+        return fundUniverse.fund(fundIds[index]);
+    }
+
+    @Override
+    public long amountAt(int index) {
+        return amounts[index];
+    }
+
+    long fundIdAt(int index) {
+        return fundIds[index];
+    }
+}
@@ -0,0 +1,101 @@
+package com.lajming.investmentsapp;
+
+import lombok.EqualsAndHashCode;
+import lombok.val;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.BASIS_POINTS_IN_WHOLE;
+
+@EqualsAndHashCode(of = {"name", "basisPointsPerFundType"})
+public final class CompiledInvestmentStrategy {
+
+    private static final FundType[] FUND_TYPES = FundType.values();
+
+    private final String name;
+    private final int[] basisPointsPerFundType;
+    private final FundType[] fundTypes;
+
+    private CompiledInvestmentStrategy(String name, int[] basisPointsPerFundType) {
+        this.name = name;
+        this.basisPointsPerFundType = basisPointsPerFundType;
+        this.fundTypes = Arrays.stream(FUND_TYPES)
+            .filter(fundType -> basisPointsPerFundType[fundType.ordinal()] > 0)
+            .toArray(FundType[]::new);
+    }
+
+    public static CompiledInvestmentStrategy compile(String name, Map<FundType, ? extends Number> percentages) {
+        checkNotNull(name, "provided strategy name should not be null");
+        checkArgument(!name.trim().isEmpty(), "provided strategy name should not be empty");
+        checkNotNull(percentages, "provided percentages should not be null");
+
+        val basisPointsPerFundType = new int[FUND_TYPES.length];
+        int sumOfBasisPoints = 0;
+        for (val percentage : percentages.entrySet()) {
+            checkNotNull(percentage.getKey(), "provided fund type should not be null");
+            checkNotNull(percentage.getValue(), "provided percentage should not be null");
+
+            val basisPoints = toBasisPoints(name, percentage.getKey(), percentage.getValue());
+            basisPointsPerFundType[percentage.getKey().ordinal()] = basisPoints;
+            sumOfBasisPoints += basisPoints;
+        }
+        checkArgument(sumOfBasisPoints == BASIS_POINTS_IN_WHOLE,
+            "percentages of strategy %s should sum up to 100% but sum up to %s%", name, BigDecimal.valueOf(sumOfBasisPoints, 2).stripTrailingZeros().toPlainString());
+
+        return new CompiledInvestmentStrategy(name, basisPointsPerFundType);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBasisPoints(FundType fundType) {
+        return basisPointsPerFundType[fundType.ordinal()];
+    }
+
+    public double getPercentage(FundType fundType) {
+        return basisPointsPerFundType[fundType.ordinal()] / 100d;
+    }
+
+    public Set<FundType> getFundTypes() {
+        return fundTypes.length == 0
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(Arrays.asList(fundTypes)));
+    }
+
+    int basisPoints(int fundTypeOrdinal) {
+        return basisPointsPerFundType[fundTypeOrdinal];
+    }
+
+    FundType[] fundTypes() {
+        return fundTypes;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int toBasisPoints(String name, FundType fundType, Number percentage) {
+        val decimalPercentage = percentage instanceof BigDecimal
+            ? (BigDecimal) percentage
+            : new BigDecimal(percentage.toString());
+        checkArgument(decimalPercentage.signum() >= 0,
+            "percentage of %s in strategy %s should not be negative", fundType, name);
+        checkArgument(decimalPercentage.movePointRight(2).compareTo(BigDecimal.valueOf(BASIS_POINTS_IN_WHOLE)) <= 0,
+            "percentage of %s in strategy %s should not exceed 100%", fundType, name);
+        try {
+            return decimalPercentage.movePointRight(2).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                "percentage of " + fundType + " in strategy " + name + " should have at most two decimal places", e);
+        }
+    }
+}
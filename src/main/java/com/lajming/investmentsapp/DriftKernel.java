@@ -0,0 +1,16 @@
+package com.lajming.investmentsapp;
+
+interface DriftKernel {
+
+    String VECTOR_DRIFT_KERNEL = "com.lajming.investmentsapp.VectorDriftKernel";
+
+    int scan(long[][] amounts, int from, int to, double[] targetWeights, double maximumDrift, int[] breachingRows);
+
+    static DriftKernel vectorizedOrScalar() {
+        try {
+            return (DriftKernel) Class.forName(VECTOR_DRIFT_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarDriftKernel.INSTANCE;
+        }
+    }
+}
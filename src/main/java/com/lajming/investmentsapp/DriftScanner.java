@@ -0,0 +1,115 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.BASIS_POINTS_IN_WHOLE;
+
+public final class DriftScanner {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CLIENTS_PER_CHUNK = 4096;
+    private static final FundType[] FUND_TYPES = FundType.values();
+
+    private final ClientHoldings clientHoldings;
+    private final Executor executor;
+    private final int parallelism;
+    private final DriftKernel driftKernel;
+
+    private DriftScanner(ClientHoldings clientHoldings, Executor executor, int parallelism, DriftKernel driftKernel) {
+        checkNotNull(clientHoldings, "provided client holdings should not be null");
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.clientHoldings = clientHoldings;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.driftKernel = driftKernel;
+    }
+
+    public static DriftScanner of(ClientHoldings clientHoldings) {
+        return of(clientHoldings, ForkJoinPool.commonPool());
+    }
+
+    public static DriftScanner of(ClientHoldings clientHoldings, ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new DriftScanner(clientHoldings, forkJoinPool, forkJoinPool.getParallelism(), DriftKernel.vectorizedOrScalar());
+    }
+
+    public static DriftScanner of(ClientHoldings clientHoldings, Executor executor, int parallelism) {
+        return new DriftScanner(clientHoldings, executor, parallelism, DriftKernel.vectorizedOrScalar());
+    }
+
+    static DriftScanner of(ClientHoldings clientHoldings, Executor executor, int parallelism, DriftKernel driftKernel) {
+        return new DriftScanner(clientHoldings, executor, parallelism, driftKernel);
+    }
+
+    public boolean isVectorized() {
+        return driftKernel != ScalarDriftKernel.INSTANCE;
+    }
+
+    public List<ClientDrift> scan(double maximumDrift) {
+        checkArgument(maximumDrift >= 0 && maximumDrift <= 100, "maximum drift should be between 0 and 100 percentage points");
+
+        val chunkSize = Math.max(MIN_CLIENTS_PER_CHUNK, clientHoldings.getNumberOfClients() / (parallelism * CHUNKS_PER_WORKER) + 1);
+        val chunks = new ArrayList<CompletableFuture<List<ClientDrift>>>();
+        for (val partition : clientHoldings.partitions()) {
+            val targetWeights = targetWeightsOf(partition.investmentStrategy());
+            for (int from = 0; from < partition.size(); from += chunkSize) {
+                val chunkFrom = from;
+                val chunkTo = Math.min(from + chunkSize, partition.size());
+                chunks.add(CompletableFuture.supplyAsync(() -> scan(partition, targetWeights, maximumDrift / 100, chunkFrom, chunkTo), executor));
+            }
+        }
+
+        CompletableFutures.awaitAll(chunks);
+        val clientDrifts = new ArrayList<ClientDrift>();
+        for (val chunk : chunks) {
+            clientDrifts.addAll(chunk.join());
+        }
+        return Collections.unmodifiableList(clientDrifts);
+    }
+
+    private List<ClientDrift> scan(ClientHoldings.Partition partition, double[] targetWeights, double maximumDrift, int from, int to) {
+        val amounts = partition.amounts();
+        val breachingRows = new int[to - from];
+        val numberOfBreaches = driftKernel.scan(amounts, from, to, targetWeights, maximumDrift, breachingRows);
+
+        val clientDrifts = new ArrayList<ClientDrift>(numberOfBreaches);
+        for (int i = 0; i < numberOfBreaches; i++) {
+            val row = breachingRows[i];
+            double total = 0;
+            for (val column : amounts) {
+                total += column[row];
+            }
+            int driftedOrdinal = 0;
+            double drift = 0;
+            for (int ordinal = 0; ordinal < FUND_TYPES.length; ordinal++) {
+                val deviation = amounts[ordinal][row] / total - targetWeights[ordinal];
+                if (Math.abs(deviation) > Math.abs(drift)) {
+                    driftedOrdinal = ordinal;
+                    drift = deviation;
+                }
+            }
+            clientDrifts.add(ClientDrift.of(partition.clientId(row), partition.investmentStrategy(), FUND_TYPES[driftedOrdinal], drift * 100));
+        }
+        return clientDrifts;
+    }
+
+    private static double[] targetWeightsOf(CompiledInvestmentStrategy investmentStrategy) {
+        val targetWeights = new double[FUND_TYPES.length];
+        for (int ordinal = 0; ordinal < FUND_TYPES.length; ordinal++) {
+            targetWeights[ordinal] = investmentStrategy.basisPoints(ordinal) / (double) BASIS_POINTS_IN_WHOLE;
+        }
+        return targetWeights;
+    }
+}
@@ -0,0 +1,7 @@
+package com.lajming.investmentsapp;
+
+public enum EmptyPortfolioReason {
+    NO_FUNDS,
+    MISSING_FUND_TYPE,
+    GROUP_UNDER_ONE_UNIT
+}
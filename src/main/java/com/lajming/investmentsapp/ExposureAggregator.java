@@ -0,0 +1,186 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ExposureAggregator {
+
+    private static final int STRIPES_PER_PROCESSOR = 2;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+    private static final FundType[] FUND_TYPES = FundType.values();
+
+    private final CurrencyUnit currencyUnit;
+    private final Stripe[] stripes;
+
+    private ExposureAggregator(CurrencyUnit currencyUnit, int numberOfStripes) {
+        checkNotNull(currencyUnit, "provided currency should not be null");
+        checkArgument(numberOfStripes > 0, "number of stripes should be positive");
+
+        this.currencyUnit = currencyUnit;
+        this.stripes = new Stripe[Integer.highestOneBit(numberOfStripes * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public static ExposureAggregator of(CurrencyUnit currencyUnit) {
+        return of(currencyUnit, Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR);
+    }
+
+    public static ExposureAggregator of(CurrencyUnit currencyUnit, int numberOfStripes) {
+        return new ExposureAggregator(currencyUnit, numberOfStripes);
+    }
+
+    public void add(InvestmentStrategy investmentStrategy, Portfolio portfolio) {
+        checkNotNull(investmentStrategy, "provided investment strategy should not be null");
+
+        add(investmentStrategy.name(), portfolio);
+    }
+
+    public void add(CompiledInvestmentStrategy investmentStrategy, Portfolio portfolio) {
+        checkNotNull(investmentStrategy, "provided investment strategy should not be null");
+
+        add(investmentStrategy.getName(), portfolio);
+    }
+
+    public void add(String investmentStrategyName, Portfolio portfolio) {
+        checkNotNull(investmentStrategyName, "provided investment strategy name should not be null");
+        checkNotNull(portfolio, "provided portfolio should not be null");
+
+        val columns = PortfolioItemColumns.of(portfolio);
+        checkArgument(currencyUnit.equals(columns.currencyUnit()),
+            "portfolio currency %s does not match aggregated currency %s", columns.currencyUnit(), currencyUnit);
+
+        val stripe = stripes[stripeIndex()];
+        stripe.lock.lock();
+        try {
+            stripe.add(investmentStrategyName, columns);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public ExposureSnapshot snapshot() {
+        for (val stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            val merged = new Stripe();
+            for (val stripe : stripes) {
+                merged.merge(stripe);
+            }
+            return merged.toSnapshot(currencyUnit);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    private int stripeIndex() {
+        long mixed = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (stripes.length - 1);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] fundIds = new long[INITIAL_STRIPE_CAPACITY];
+        private long[] amounts = new long[INITIAL_STRIPE_CAPACITY];
+        private Fund[] funds = new Fund[INITIAL_STRIPE_CAPACITY];
+        private int numberOfFunds;
+        private final long[] fundTypeTotals = new long[FUND_TYPES.length];
+        private final Map<String, long[]> strategyTotals = new HashMap<>();
+        private long numberOfPortfolios;
+
+        private void add(String investmentStrategyName, PortfolioItemColumns columns) {
+            for (int i = 0; i < columns.size(); i++) {
+                val fund = columns.fundAt(i);
+                val amount = columns.amountAt(i);
+                addToFund(fund, amount);
+                fundTypeTotals[fund.getType().ordinal()] = Math.addExact(fundTypeTotals[fund.getType().ordinal()], amount);
+            }
+            val strategyTotal = strategyTotals.computeIfAbsent(investmentStrategyName, name -> new long[1]);
+            strategyTotal[0] = Math.addExact(strategyTotal[0], columns.investedAmount());
+            numberOfPortfolios++;
+        }
+
+        private void merge(Stripe other) {
+            for (int slot = 0; slot < other.funds.length; slot++) {
+                if (other.funds[slot] != null) {
+                    addToFund(other.funds[slot], other.amounts[slot]);
+                }
+            }
+            for (int i = 0; i < fundTypeTotals.length; i++) {
+                fundTypeTotals[i] = Math.addExact(fundTypeTotals[i], other.fundTypeTotals[i]);
+            }
+            other.strategyTotals.forEach((name, total) -> {
+                val strategyTotal = strategyTotals.computeIfAbsent(name, key -> new long[1]);
+                strategyTotal[0] = Math.addExact(strategyTotal[0], total[0]);
+            });
+            numberOfPortfolios += other.numberOfPortfolios;
+        }
+
+        private ExposureSnapshot toSnapshot(CurrencyUnit currencyUnit) {
+            val snapshotFunds = new Fund[numberOfFunds];
+            val snapshotAmounts = new long[numberOfFunds];
+            int index = 0;
+            for (int slot = 0; slot < funds.length; slot++) {
+                if (funds[slot] != null) {
+                    snapshotFunds[index] = funds[slot];
+                    snapshotAmounts[index] = amounts[slot];
+                    index++;
+                }
+            }
+            val totals = new HashMap<String, Long>();
+            strategyTotals.forEach((name, total) -> totals.put(name, total[0]));
+            return ExposureSnapshot.of(currencyUnit, numberOfPortfolios, snapshotFunds, snapshotAmounts, fundTypeTotals.clone(), totals);
+        }
+
+        private void addToFund(Fund fund, long amount) {
+            if ((numberOfFunds + 1) * 2 > funds.length) {
+                resize();
+            }
+            val slot = slotOf(fund.getId());
+            if (funds[slot] == null) {
+                funds[slot] = fund;
+                fundIds[slot] = fund.getId();
+                numberOfFunds++;
+            }
+            amounts[slot] = Math.addExact(amounts[slot], amount);
+        }
+
+        private int slotOf(long fundId) {
+            val mask = funds.length - 1;
+            long mixed = fundId * 0x9E3779B97F4A7C15L;
+            int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+            while (funds[slot] != null && fundIds[slot] != fundId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            val oldFundIds = fundIds;
+            val oldAmounts = amounts;
+            val oldFunds = funds;
+            fundIds = new long[oldFunds.length * 2];
+            amounts = new long[oldFunds.length * 2];
+            funds = new Fund[oldFunds.length * 2];
+            for (int slot = 0; slot < oldFunds.length; slot++) {
+                if (oldFunds[slot] != null) {
+                    val newSlot = slotOf(oldFundIds[slot]);
+                    funds[newSlot] = oldFunds[slot];
+                    fundIds[newSlot] = oldFundIds[slot];
+                    amounts[newSlot] = oldAmounts[slot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+
+public final class ExposureSnapshot {
+
+    private final CurrencyUnit currencyUnit;
+    private final long numberOfPortfolios;
+    private final long[] fundIds;
+    private final long[] amounts;
+    private final Fund[] funds;
+    private final long[] fundTypeTotals;
+    private final Map<String, Long> strategyTotals;
+    private final long total;
+
+    private ExposureSnapshot(CurrencyUnit currencyUnit, long numberOfPortfolios, Fund[] funds, long[] amounts, long[] fundTypeTotals, Map<String, Long> strategyTotals) {
+        this.currencyUnit = currencyUnit;
+        this.numberOfPortfolios = numberOfPortfolios;
+        this.funds = funds;
+        this.amounts = amounts;
+        this.fundIds = new long[funds.length];
+        for (int i = 0; i < funds.length; i++) {
+            fundIds[i] = funds[i].getId();
+        }
+        this.fundTypeTotals = fundTypeTotals;
+        this.strategyTotals = Collections.unmodifiableMap(strategyTotals);
+        long total = 0;
+        for (val fundTypeTotal : fundTypeTotals) {
+            total = Math.addExact(total, fundTypeTotal);
+        }
+        this.total = total;
+    }
+
+    static ExposureSnapshot of(CurrencyUnit currencyUnit, long numberOfPortfolios, Fund[] funds, long[] amounts, long[] fundTypeTotals, Map<String, Long> strategyTotals) {
+        val order = new Integer[funds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(index -> funds[index].getId()));
+
+        val sortedFunds = new Fund[funds.length];
+        val sortedAmounts = new long[funds.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedFunds[i] = funds[order[i]];
+            sortedAmounts[i] = amounts[order[i]];
+        }
+        return new ExposureSnapshot(currencyUnit, numberOfPortfolios, sortedFunds, sortedAmounts, fundTypeTotals, strategyTotals);
+    }
+
+    public CurrencyUnit getCurrencyUnit() {
+        return currencyUnit;
+    }
+
+    public long getNumberOfPortfolios() {
+        return numberOfPortfolios;
+    }
+
+    public Money getTotal() {
+        return toMoney(currencyUnit, total);
+    }
+
+    public Money getFundExposure(long fundId) {
+        val index = Arrays.binarySearch(fundIds, fundId);
+        return toMoney(currencyUnit, index >= 0 ? amounts[index] : 0);
+    }
+
+    public List<FundExposure> getFundExposures() {
+        return new FundExposures();
+    }
+
+    public Money getFundTypeTotal(FundType fundType) {
+        checkNotNull(fundType, "provided fund type should not be null");
+
+        return toMoney(currencyUnit, fundTypeTotals[fundType.ordinal()]);
+    }
+
+    public Money getStrategyTotal(String investmentStrategyName) {
+        return toMoney(currencyUnit, strategyTotals.getOrDefault(investmentStrategyName, 0L));
+    }
+
+    public Set<String> getInvestmentStrategyNames() {
+        return strategyTotals.keySet();
+    }
+
+    private final class FundExposures extends AbstractList<FundExposure> implements RandomAccess {
+
+        @Override
+        public FundExposure get(int index) {
+            return FundExposure.of(funds[index], toMoney(currencyUnit, amounts[index]));
+        }
+
+        @Override
+        public int size() {
+            return funds.length;
+        }
+    }
+}
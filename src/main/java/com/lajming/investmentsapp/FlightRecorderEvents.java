@@ -0,0 +1,113 @@
+package com.lajming.investmentsapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.val;
+
+final class FlightRecorderEvents {
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    static FundGroupingEvent groupingStarted() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        val event = new FundGroupingEvent();
+        event.begin();
+        return event;
+    }
+
+    static void groupingFinished(FundGroupingEvent event, FundUniverse fundUniverse) {
+        if (event != null && event.shouldCommit()) {
+            event.numberOfFunds = fundUniverse.size();
+            event.numberOfFundTypes = fundUniverse.getFundTypes().size();
+            event.commit();
+        }
+    }
+
+    static PortfolioAllocationEvent allocationStarted() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        val event = new PortfolioAllocationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void allocationFinished(PortfolioAllocationEvent event, CompiledInvestmentStrategy investmentStrategy, FundUniverse fundUniverse, PortfolioAllocation allocation) {
+        if (event != null && event.shouldCommit()) {
+            event.investmentStrategy = investmentStrategy.getName();
+            event.numberOfFunds = fundUniverse.size();
+            event.numberOfItems = allocation.numberOfItems();
+            event.emptyPortfolioReason = allocation.emptyReason() == null ? null : allocation.emptyReason().name();
+            event.commit();
+        }
+    }
+
+    static PercentageEvent percentageStarted() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        val event = new PercentageEvent();
+        event.begin();
+        return event;
+    }
+
+    static void percentageFinished(PercentageEvent event, long allAmount, long partAmount) {
+        if (event != null && event.shouldCommit()) {
+            event.allAmount = allAmount;
+            event.partAmount = partAmount;
+            event.commit();
+        }
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Name("com.lajming.investmentsapp.FundGrouping")
+    @Label("Fund Grouping")
+    @Category("Investments App")
+    static class FundGroupingEvent extends Event {
+        @Label("Number of Funds")
+        int numberOfFunds;
+        @Label("Number of Fund Types")
+        int numberOfFundTypes;
+    }
+
+    @Name("com.lajming.investmentsapp.PortfolioAllocation")
+    @Label("Portfolio Allocation")
+    @Category("Investments App")
+    static class PortfolioAllocationEvent extends Event {
+        @Label("Investment Strategy")
+        String investmentStrategy;
+        @Label("Number of Funds")
+        int numberOfFunds;
+        @Label("Number of Items")
+        int numberOfItems;
+        @Label("Empty Portfolio Reason")
+        String emptyPortfolioReason;
+    }
+
+    @Name("com.lajming.investmentsapp.Percentage")
+    @Label("Percentage Calculation")
+    @Category("Investments App")
+    @Enabled(false)
+    static class PercentageEvent extends Event {
+        @Label("Invested Amount")
+        long allAmount;
+        @Label("Item Amount")
+        long partAmount;
+    }
+}
@@ -0,0 +1,390 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.System.lineSeparator;
+
+public class FundCatalogLoader {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+    private static final int BOUNDARY_WINDOW_SIZE = 64 << 10;
+    private static final int MAX_REPORTED_ERRORS = 10;
+    private static final String HEADER = "id,type,name";
+    private static final FundType[] FUND_TYPES = FundType.values();
+    private static final byte[][] FUND_TYPE_NAMES = fundTypeNames();
+
+    private final Executor executor;
+    private final int chunkSize;
+
+    private FundCatalogLoader(Executor executor, int chunkSize) {
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(chunkSize > 0, "chunk size should be positive");
+
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    public static FundCatalogLoader create() {
+        return of(ForkJoinPool.commonPool());
+    }
+
+    public static FundCatalogLoader of(Executor executor) {
+        return new FundCatalogLoader(executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    static FundCatalogLoader of(Executor executor, int chunkSize) {
+        return new FundCatalogLoader(executor, chunkSize);
+    }
+
+    public FundUniverse loadUniverse(Path path) {
+        return FundUniverse.of(load(path));
+    }
+
+    public List<Fund> load(Path path) {
+        checkNotNull(path, "provided path should not be null");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return load(path, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read fund catalog from " + path, e);
+        }
+    }
+
+    private List<Fund> load(Path path, FileChannel channel) throws IOException {
+        val chunkStarts = chunkStarts(channel);
+        val size = channel.size();
+        val names = Interners.<String>newStrongInterner();
+        val chunks = new ArrayList<CompletableFuture<ChunkResult>>();
+
+        for (int i = 0; i < chunkStarts.size(); i++) {
+            val from = chunkStarts.get(i);
+            val to = i + 1 < chunkStarts.size() ? chunkStarts.get(i + 1) : size;
+            val firstChunk = i == 0;
+            chunks.add(CompletableFuture.supplyAsync(() -> parseChunk(channel, from, to, firstChunk, names), executor));
+        }
+
+        return collect(path, awaitAll(chunks));
+    }
+
+    private List<Long> chunkStarts(FileChannel channel) throws IOException {
+        val size = channel.size();
+        val chunkStarts = new ArrayList<Long>();
+        if (size == 0) {
+            return chunkStarts;
+        }
+
+        chunkStarts.add(0L);
+        for (long nominalStart = chunkSize; nominalStart < size; nominalStart += chunkSize) {
+            val lineStart = nextLineStart(channel, Math.max(nominalStart, chunkStarts.get(chunkStarts.size() - 1) + 1), size);
+            if (lineStart >= size) {
+                break;
+            }
+            if (lineStart > chunkStarts.get(chunkStarts.size() - 1)) {
+                chunkStarts.add(lineStart);
+            }
+        }
+        return chunkStarts;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        for (long windowStart = from - 1; windowStart < size; windowStart += BOUNDARY_WINDOW_SIZE) {
+            val window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(BOUNDARY_WINDOW_SIZE, size - windowStart));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long from, long to, boolean firstChunk, Interner<String> names) {
+        checkArgument(to - from <= Integer.MAX_VALUE, "fund catalog line starting at byte %s is too long", from);
+
+        final ByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to map fund catalog chunk starting at byte " + from, e);
+        }
+        return new ChunkParser(buffer, firstChunk, names).parse();
+    }
+
+    private static List<Fund> collect(Path path, List<ChunkResult> chunks) {
+        val numberOfFunds = chunks.stream().mapToInt(chunk -> chunk.funds.size()).sum();
+        val funds = new ArrayList<Fund>(numberOfFunds);
+        val errors = new ArrayList<String>();
+        long firstLineOfChunk = 1;
+
+        for (val chunk : chunks) {
+            funds.addAll(chunk.funds);
+            for (val error : chunk.errors) {
+                errors.add("line " + (firstLineOfChunk + error.lineInChunk) + ": " + error.message);
+            }
+            firstLineOfChunk += chunk.numberOfLines;
+        }
+
+        checkMalformedRows(path, errors);
+        return Collections.unmodifiableList(funds);
+    }
+
+    private static void checkMalformedRows(Path path, List<String> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+
+        val message = new StringBuilder("malformed rows in fund catalog ").append(path);
+        errors.stream().limit(MAX_REPORTED_ERRORS).forEach(error -> message.append(lineSeparator()).append(error));
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            message.append(lineSeparator()).append("and ").append(errors.size() - MAX_REPORTED_ERRORS).append(" more");
+        }
+        throw new IllegalArgumentException(message.toString());
+    }
+
+    private static List<ChunkResult> awaitAll(List<CompletableFuture<ChunkResult>> chunks) {
+        CompletableFutures.awaitAll(chunks);
+
+        val results = new ArrayList<ChunkResult>(chunks.size());
+        chunks.forEach(chunk -> results.add(chunk.join()));
+        return results;
+    }
+
+    private static byte[][] fundTypeNames() {
+        val names = new byte[FUND_TYPES.length][];
+        for (int i = 0; i < FUND_TYPES.length; i++) {
+            names[i] = FUND_TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    private static final class ChunkResult {
+        private final List<Fund> funds;
+        private final List<RowError> errors;
+        private final long numberOfLines;
+
+        private ChunkResult(List<Fund> funds, List<RowError> errors, long numberOfLines) {
+            this.funds = funds;
+            this.errors = errors;
+            this.numberOfLines = numberOfLines;
+        }
+    }
+
+    private static final class RowError {
+        private final long lineInChunk;
+        private final String message;
+
+        private RowError(long lineInChunk, String message) {
+            this.lineInChunk = lineInChunk;
+            this.message = message;
+        }
+    }
+
+    private static final class ChunkParser {
+        private final ByteBuffer buffer;
+        private final boolean firstChunk;
+        private final Interner<String> names;
+        private final List<Fund> funds = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private byte[] scratch = new byte[256];
+
+        private ChunkParser(ByteBuffer buffer, boolean firstChunk, Interner<String> names) {
+            this.buffer = buffer;
+            this.firstChunk = firstChunk;
+            this.names = names;
+        }
+
+        private ChunkResult parse() {
+            val limit = buffer.limit();
+            long line = 0;
+            int lineStart = 0;
+
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                parseLine(line, lineStart, lineEnd);
+                line++;
+                lineStart = lineEnd + 1;
+            }
+            return new ChunkResult(funds, errors, line);
+        }
+
+        private void parseLine(long line, int from, int to) {
+            if (to > from && buffer.get(to - 1) == '\r') {
+                to--;
+            }
+            from = skipWhitespace(from, to);
+            to = trimWhitespace(from, to);
+            if (from == to || (firstChunk && line == 0 && isHeader(from, to))) {
+                return;
+            }
+
+            val firstComma = indexOf(',', from, to);
+            val secondComma = firstComma < 0 ? -1 : indexOf(',', firstComma + 1, to);
+            if (secondComma < 0) {
+                errors.add(new RowError(line, "expected " + HEADER + " but got '" + decode(from, to) + "'"));
+                return;
+            }
+
+            val idFrom = skipWhitespace(from, firstComma);
+            val idTo = trimWhitespace(idFrom, firstComma);
+            val id = parseId(idFrom, idTo);
+            if (id < 0) {
+                errors.add(new RowError(line, "invalid fund id '" + decode(idFrom, idTo) + "'"));
+                return;
+            }
+
+            val typeFrom = skipWhitespace(firstComma + 1, secondComma);
+            val typeTo = trimWhitespace(typeFrom, secondComma);
+            val type = parseType(typeFrom, typeTo);
+            if (type == null) {
+                errors.add(new RowError(line, "unknown fund type '" + decode(typeFrom, typeTo) + "'"));
+                return;
+            }
+
+            val nameFrom = skipWhitespace(secondComma + 1, to);
+            val name = parseName(nameFrom, to);
+            if (name == null) {
+                errors.add(new RowError(line, "malformed quoted fund name '" + decode(nameFrom, to) + "'"));
+                return;
+            }
+            if (name.isEmpty()) {
+                errors.add(new RowError(line, "missing fund name"));
+                return;
+            }
+
+            funds.add(Fund.of(id, type, names.intern(name)));
+        }
+
+        private long parseId(int from, int to) {
+            if (from == to) {
+                return -1;
+            }
+
+            long id = 0;
+            for (int i = from; i < to; i++) {
+                val digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9 || id > (Long.MAX_VALUE - digit) / 10) {
+                    return -1;
+                }
+                id = id * 10 + digit;
+            }
+            return id;
+        }
+
+        private FundType parseType(int from, int to) {
+            for (int i = 0; i < FUND_TYPE_NAMES.length; i++) {
+                if (matches(FUND_TYPE_NAMES[i], from, to)) {
+                    return FUND_TYPES[i];
+                }
+            }
+            return null;
+        }
+
+        private String parseName(int from, int to) {
+            if (to - from < 2 || buffer.get(from) != '"' || buffer.get(to - 1) != '"') {
+                return decode(from, to);
+            }
+
+            int length = 0;
+            for (int i = from + 1; i < to - 1; i++) {
+                val b = buffer.get(i);
+                if (b == '"') {
+                    if (i + 1 >= to - 1 || buffer.get(i + 1) != '"') {
+                        return null;
+                    }
+                    i++;
+                }
+                scratch(length + 1)[length++] = b;
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private boolean isHeader(int from, int to) {
+            if (to - from != HEADER.length()) {
+                return false;
+            }
+            for (int i = 0; i < HEADER.length(); i++) {
+                if (Character.toLowerCase((char) buffer.get(from + i)) != HEADER.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(byte[] expected, int from, int to) {
+            if (to - from != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (buffer.get(from + i) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(char character, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == character) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int skipWhitespace(int from, int to) {
+            while (from < to && isWhitespace(buffer.get(from))) {
+                from++;
+            }
+            return from;
+        }
+
+        private int trimWhitespace(int from, int to) {
+            while (to > from && isWhitespace(buffer.get(to - 1))) {
+                to--;
+            }
+            return to;
+        }
+
+        private String decode(int from, int to) {
+            val length = to - from;
+            val bytes = scratch(length);
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(from + i);
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private byte[] scratch(int length) {
+            if (scratch.length < length) {
+                scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+            }
+            return scratch;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.lajming.investmentsapp;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FundChange {
+
+    public enum Type {
+        FUND_ADDED,
+        FUND_CLOSED,
+        FUND_RECLASSIFIED
+    }
+
+    private final Type type;
+    private final Fund fund;
+
+    public static FundChange fundAdded(Fund fund) {
+        checkNotNull(fund, "provided fund should not be null");
+
+        return new FundChange(Type.FUND_ADDED, fund);
+    }
+
+    public static FundChange fundClosed(Fund fund) {
+        checkNotNull(fund, "provided fund should not be null");
+
+        return new FundChange(Type.FUND_CLOSED, fund);
+    }
+
+    public static FundChange fundReclassified(Fund reclassifiedFund) {
+        checkNotNull(reclassifiedFund, "provided fund should not be null");
+
+        return new FundChange(Type.FUND_RECLASSIFIED, reclassifiedFund);
+    }
+}
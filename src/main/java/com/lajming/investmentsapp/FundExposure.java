@@ -0,0 +1,10 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+@Value(staticConstructor = "of")
+public class FundExposure {
+    private final Fund fund;
+    private final Money amount;
+}
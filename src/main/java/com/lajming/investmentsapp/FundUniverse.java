@@ -0,0 +1,239 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class FundUniverse {
+
+    private static final FundType[] FUND_TYPES = FundType.values();
+    private static final Fund[] NO_FUNDS = new Fund[0];
+
+    private final Fund[][] fundsByType;
+    private final Fund[] firstFundByType;
+    private final int[] fundCountByType;
+    private final FundType[] fundTypes;
+    private final List<ImmutableMap<Long, Fund>> fundsByIdPerType;
+    private final long[] fingerprintByType;
+    private final int size;
+    private final long fingerprint;
+
+    private FundUniverse(Fund[][] fundsByType, FundType[] fundTypes, List<ImmutableMap<Long, Fund>> fundsByIdPerType, long[] fingerprintByType) {
+        this.fundsByType = fundsByType;
+        this.firstFundByType = new Fund[FUND_TYPES.length];
+        this.fundCountByType = new int[FUND_TYPES.length];
+        this.fundTypes = fundTypes;
+        this.fundsByIdPerType = fundsByIdPerType;
+        this.fingerprintByType = fingerprintByType;
+
+        int size = 0;
+        for (int ordinal = 0; ordinal < FUND_TYPES.length; ordinal++) {
+            fundCountByType[ordinal] = fundsByType[ordinal].length;
+            firstFundByType[ordinal] = fundsByType[ordinal].length > 0 ? fundsByType[ordinal][0] : null;
+            size += fundsByType[ordinal].length;
+        }
+        this.size = size;
+        this.fingerprint = fingerprintOf(fundTypes, fingerprintByType);
+    }
+
+    public static FundUniverse of(Collection<Fund> availableFunds) {
+        checkNotNull(availableFunds, "provided funds should not be null");
+
+        val event = FlightRecorderEvents.groupingStarted();
+        val fundUniverse = group(availableFunds);
+        FlightRecorderEvents.groupingFinished(event, fundUniverse);
+        return fundUniverse;
+    }
+
+    private static FundUniverse group(Collection<Fund> availableFunds) {
+        val fundsById = new HashMap<Long, Fund>();
+        val groups = new ArrayList<List<Fund>>(FUND_TYPES.length);
+        val fundTypes = new ArrayList<FundType>(FUND_TYPES.length);
+        for (int ordinal = 0; ordinal < FUND_TYPES.length; ordinal++) {
+            groups.add(new ArrayList<>());
+        }
+
+        for (val fund : availableFunds) {
+            checkNotNull(fund, "provided fund should not be null");
+            val internedFund = intern(fundsById, fund);
+            val group = groups.get(internedFund.getType().ordinal());
+            if (group.isEmpty()) {
+                fundTypes.add(internedFund.getType());
+            }
+            group.add(internedFund);
+        }
+
+        val fundsByType = new Fund[FUND_TYPES.length][];
+        val fundsByIdPerType = new ArrayList<ImmutableMap<Long, Fund>>(FUND_TYPES.length);
+        val fingerprintByType = new long[FUND_TYPES.length];
+        for (int ordinal = 0; ordinal < FUND_TYPES.length; ordinal++) {
+            fundsByType[ordinal] = groups.get(ordinal).toArray(NO_FUNDS);
+            fundsByIdPerType.add(fundsByIdOf(fundsByType[ordinal]));
+            fingerprintByType[ordinal] = fingerprintOf(fundsByType[ordinal]);
+        }
+
+        return new FundUniverse(fundsByType, fundTypes.toArray(new FundType[0]), fundsByIdPerType, fingerprintByType);
+    }
+
+    public FundUniverse withFund(Fund fund) {
+        checkNotNull(fund, "provided fund should not be null");
+
+        val existingFund = fund(fund.getId());
+        checkArgument(existingFund == null || existingFund.equals(fund), "conflicting funds provided for id %s", fund.getId());
+        val internedFund = existingFund == null ? fund : existingFund;
+        val ordinal = internedFund.getType().ordinal();
+
+        val fundsByType = this.fundsByType.clone();
+        fundsByType[ordinal] = Arrays.copyOf(this.fundsByType[ordinal], this.fundsByType[ordinal].length + 1);
+        fundsByType[ordinal][this.fundsByType[ordinal].length] = internedFund;
+
+        val fundTypes = contains(internedFund.getType())
+            ? this.fundTypes
+            : appended(this.fundTypes, internedFund.getType());
+
+        return withGroup(ordinal, fundsByType, fundTypes);
+    }
+
+    public FundUniverse withoutFund(long id) {
+        val removedFund = fund(id);
+        checkArgument(removedFund != null, "fund with id %s not found", id);
+
+        val ordinal = removedFund.getType().ordinal();
+        val fundsByType = this.fundsByType.clone();
+        fundsByType[ordinal] = Arrays.stream(this.fundsByType[ordinal])
+            .filter(fund -> fund.getId() != id)
+            .toArray(Fund[]::new);
+
+        val fundTypes = fundsByType[ordinal].length > 0
+            ? this.fundTypes
+            : Arrays.stream(this.fundTypes).filter(fundType -> fundType != removedFund.getType()).toArray(FundType[]::new);
+
+        return withGroup(ordinal, fundsByType, fundTypes);
+    }
+
+    private FundUniverse withGroup(int ordinal, Fund[][] fundsByType, FundType[] fundTypes) {
+        val fundsByIdPerType = new ArrayList<ImmutableMap<Long, Fund>>(this.fundsByIdPerType);
+        fundsByIdPerType.set(ordinal, fundsByIdOf(fundsByType[ordinal]));
+        val fingerprintByType = this.fingerprintByType.clone();
+        fingerprintByType[ordinal] = fingerprintOf(fundsByType[ordinal]);
+
+        return new FundUniverse(fundsByType, fundTypes, fundsByIdPerType, fingerprintByType);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(FundType fundType) {
+        return fundCountByType[fundType.ordinal()] > 0;
+    }
+
+    public int countOf(FundType fundType) {
+        return fundCountByType[fundType.ordinal()];
+    }
+
+    public Optional<Fund> firstFundOf(FundType fundType) {
+        return Optional.ofNullable(firstFundByType[fundType.ordinal()]);
+    }
+
+    public List<Fund> fundsOf(FundType fundType) {
+        return ImmutableList.copyOf(fundsByType[fundType.ordinal()]);
+    }
+
+    public List<FundType> getFundTypes() {
+        return ImmutableList.copyOf(fundTypes);
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public Optional<Fund> fundById(long id) {
+        return Optional.ofNullable(fund(id));
+    }
+
+    Fund fund(long id) {
+        for (val fundType : fundTypes) {
+            val fund = fundsByIdPerType.get(fundType.ordinal()).get(id);
+            if (fund != null) {
+                return fund;
+            }
+        }
+        return null;
+    }
+
+    Fund[] fundGroup(int ordinal) {
+        return fundsByType[ordinal];
+    }
+
+    Fund firstFund(int ordinal) {
+        return firstFundByType[ordinal];
+    }
+
+    int fundCount(int ordinal) {
+        return fundCountByType[ordinal];
+    }
+
+    FundType[] fundTypesInEncounterOrder() {
+        return fundTypes;
+    }
+
+    @Override
+    public String toString() {
+        return FundUniverse.class.getSimpleName() + "(size=" + size + ", fingerprint=" + fingerprint + ", fundTypes=" + Arrays.toString(fundTypes) + ")";
+    }
+
+    private static FundType[] appended(FundType[] fundTypes, FundType fundType) {
+        val appended = Arrays.copyOf(fundTypes, fundTypes.length + 1);
+        appended[fundTypes.length] = fundType;
+        return appended;
+    }
+
+    private static long fingerprintOf(FundType[] fundTypes, long[] fingerprintByType) {
+        val hasher = Hashing.murmur3_128().newHasher();
+        for (val fundType : fundTypes) {
+            hasher.putInt(fundType.ordinal()).putLong(fingerprintByType[fundType.ordinal()]);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static long fingerprintOf(Fund[] funds) {
+        val hasher = Hashing.murmur3_128().newHasher();
+        for (val fund : funds) {
+            hasher.putLong(fund.getId()).putUnencodedChars(fund.getName()).putInt(0);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static ImmutableMap<Long, Fund> fundsByIdOf(Fund[] funds) {
+        val fundsById = new HashMap<Long, Fund>(funds.length * 2);
+        for (val fund : funds) {
+            fundsById.putIfAbsent(fund.getId(), fund);
+        }
+        return ImmutableMap.copyOf(fundsById);
+    }
+
+    private static Fund intern(HashMap<Long, Fund> fundsById, Fund fund) {
+        val internedFund = fundsById.putIfAbsent(fund.getId(), fund);
+        if (internedFund == null) {
+            return fund;
+        }
+        checkArgument(internedFund.equals(fund), "conflicting funds provided for id %s", fund.getId());
+        return internedFund;
+    }
+}
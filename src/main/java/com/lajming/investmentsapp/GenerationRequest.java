@@ -0,0 +1,15 @@
+package com.lajming.investmentsapp;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.joda.money.Money;
+
+@Value(staticConstructor = "of")
+public class GenerationRequest {
+    @NonNull private final Money amount;
+    @NonNull private final CompiledInvestmentStrategy investmentStrategy;
+
+    public static GenerationRequest of(Money amount, InvestmentStrategy investmentStrategy) {
+        return of(amount, investmentStrategy == null ? null : investmentStrategy.compiled());
+    }
+}
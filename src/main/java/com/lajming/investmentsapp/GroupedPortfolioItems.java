@@ -0,0 +1,97 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableList;
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+final class GroupedPortfolioItems extends AbstractList<PortfolioItem> implements RandomAccess, PortfolioItemColumns {
+
+    private final CurrencyUnit currencyUnit;
+    private final long investedAmount;
+    private final Fund[][] fundsOfGroup;
+    private final long[] amountOfGroup;
+    private final ImmutableList<List<PortfolioItem>> itemsOfGroup;
+    private final int[] firstItemIndexOfGroup;
+    private final long[] firstItemAmountOfGroup;
+    private final long[] averageAmountOfGroup;
+
+    GroupedPortfolioItems(CurrencyUnit currencyUnit, long investedAmount, Fund[][] fundsOfGroup, long[] amountOfGroup, ImmutableList<List<PortfolioItem>> itemsOfGroup) {
+        this.currencyUnit = currencyUnit;
+        this.investedAmount = investedAmount;
+        this.fundsOfGroup = fundsOfGroup;
+        this.amountOfGroup = amountOfGroup;
+        this.itemsOfGroup = itemsOfGroup;
+        this.firstItemIndexOfGroup = new int[itemsOfGroup.size() + 1];
+        this.firstItemAmountOfGroup = new long[itemsOfGroup.size()];
+        this.averageAmountOfGroup = new long[itemsOfGroup.size()];
+
+        for (int group = 0; group < itemsOfGroup.size(); group++) {
+            val groupItems = itemsOfGroup.get(group);
+            firstItemIndexOfGroup[group + 1] = firstItemIndexOfGroup[group] + groupItems.size();
+            firstItemAmountOfGroup[group] = groupItems.get(0).getAmount().getAmountMinorLong();
+            averageAmountOfGroup[group] = groupItems.size() > 1
+                ? groupItems.get(1).getAmount().getAmountMinorLong()
+                : firstItemAmountOfGroup[group];
+        }
+    }
+
+    @Override
+    public PortfolioItem get(int index) {
+        val group = groupOf(index);
+        return itemsOfGroup.get(group).get(index - firstItemIndexOfGroup[group]);
+    }
+
+    @Override
+    public int size() {
+        return firstItemIndexOfGroup[itemsOfGroup.size()];
+    }
+
+    @Override
+    public CurrencyUnit currencyUnit() {
+        return currencyUnit;
+    }
+
+    @Override
+    public long investedAmount() {
+        return investedAmount;
+    }
+
+    @Override
+    public Fund fundAt(int index) {
+        val group = groupOf(index);
+        return fundsOfGroup[group][index - firstItemIndexOfGroup[group]];
+    }
+
+    @Override
+    public long amountAt(int index) {
+        val group = groupOf(index);
+        return index == firstItemIndexOfGroup[group] ? firstItemAmountOfGroup[group] : averageAmountOfGroup[group];
+    }
+
+    List<PortfolioItem> reusableGroup(CurrencyUnit currencyUnit, long investedAmount, Fund[] funds, long groupAmount) {
+        if (!this.currencyUnit.equals(currencyUnit) || this.investedAmount != investedAmount) {
+            return null;
+        }
+        for (int group = 0; group < fundsOfGroup.length; group++) {
+            if (fundsOfGroup[group] == funds && amountOfGroup[group] == groupAmount) {
+                return itemsOfGroup.get(group);
+            }
+        }
+        return null;
+    }
+
+    private int groupOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size());
+        }
+        int group = 0;
+        while (index >= firstItemIndexOfGroup[group + 1]) {
+            group++;
+        }
+        return group;
+    }
+}
@@ -1,13 +1,10 @@
 package com.lajming.investmentsapp;
 
 import com.google.common.collect.ImmutableMap;
-import lombok.AllArgsConstructor;
 import lombok.ToString;
 
-import java.util.Map;
 import java.util.Set;
 
-@AllArgsConstructor
 @ToString
 enum InvestmentStrategy {
     CONSERVATIVE(ImmutableMap.of(
@@ -26,14 +23,26 @@ enum InvestmentStrategy {
         FundType.MONEY_MARKET_FUND, 40d
     ));
 
-    private final Map<FundType, Double> investmentStrategy;
+    private final CompiledInvestmentStrategy investmentStrategy;
+
+    InvestmentStrategy(ImmutableMap<FundType, Double> percentages) {
+        this.investmentStrategy = CompiledInvestmentStrategy.compile(name(), percentages);
+    }
 
     public double getPercentage(FundType fundType) {
-        return investmentStrategy.getOrDefault(fundType, 0.0d);
+        return investmentStrategy.getPercentage(fundType);
+    }
+
+    public int getBasisPoints(FundType fundType) {
+        return investmentStrategy.getBasisPoints(fundType);
     }
 
     public Set<FundType> getFundTypes() {
-        return investmentStrategy.keySet();
+        return investmentStrategy.getFundTypes();
+    }
+
+    public CompiledInvestmentStrategy compiled() {
+        return investmentStrategy;
     }
 
 }
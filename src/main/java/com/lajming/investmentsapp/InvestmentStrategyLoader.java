@@ -0,0 +1,82 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class InvestmentStrategyLoader {
+
+    public static Map<String, CompiledInvestmentStrategy> builtInStrategies() {
+        val strategies = ImmutableMap.<String, CompiledInvestmentStrategy>builder();
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            strategies.put(investmentStrategy.name(), investmentStrategy.compiled());
+        }
+        return strategies.build();
+    }
+
+    public static Map<String, CompiledInvestmentStrategy> load(Path path) {
+        checkNotNull(path, "provided path should not be null");
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            val properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read investment strategies from " + path, e);
+        }
+    }
+
+    public static Map<String, CompiledInvestmentStrategy> fromProperties(Properties properties) {
+        checkNotNull(properties, "provided properties should not be null");
+
+        val percentagesPerStrategy = new TreeMap<String, Map<FundType, BigDecimal>>();
+        for (val key : properties.stringPropertyNames()) {
+            val separator = key.lastIndexOf('.');
+            checkArgument(separator > 0 && separator < key.length() - 1,
+                "invalid strategy property %s, expected <strategy>.<fund type>", key);
+
+            val strategyName = key.substring(0, separator);
+            val fundType = parseFundType(key, key.substring(separator + 1));
+            val percentage = parsePercentage(key, properties.getProperty(key));
+
+            percentagesPerStrategy
+                .computeIfAbsent(strategyName, name -> new EnumMap<>(FundType.class))
+                .put(fundType, percentage);
+        }
+
+        val strategies = ImmutableMap.<String, CompiledInvestmentStrategy>builder();
+        percentagesPerStrategy.forEach((name, percentages) ->
+            strategies.put(name, CompiledInvestmentStrategy.compile(name, percentages)));
+        return strategies.build();
+    }
+
+    private static FundType parseFundType(String key, String fundType) {
+        try {
+            return FundType.valueOf(fundType.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown fund type in strategy property " + key, e);
+        }
+    }
+
+    private static BigDecimal parsePercentage(String key, String percentage) {
+        try {
+            return new BigDecimal(percentage.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid percentage in strategy property " + key, e);
+        }
+    }
+}
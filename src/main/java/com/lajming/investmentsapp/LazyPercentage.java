@@ -0,0 +1,39 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.math.BigDecimal;
+
+import static com.lajming.investmentsapp.MoneyUtils.calculatePercentage;
+
+final class LazyPercentage {
+
+    private final long allAmount;
+    private final long partAmount;
+    private volatile BigDecimal percentage;
+
+    private LazyPercentage(long allAmount, long partAmount, BigDecimal percentage) {
+        this.allAmount = allAmount;
+        this.partAmount = partAmount;
+        this.percentage = percentage;
+    }
+
+    static LazyPercentage of(BigDecimal percentage) {
+        return new LazyPercentage(0, 0, percentage);
+    }
+
+    static LazyPercentage of(long allAmount, long partAmount) {
+        return new LazyPercentage(allAmount, partAmount, null);
+    }
+
+    BigDecimal get() {
+        BigDecimal percentage = this.percentage;
+        if (percentage == null) {
+            val event = FlightRecorderEvents.percentageStarted();
+            percentage = calculatePercentage(allAmount, partAmount);
+            FlightRecorderEvents.percentageFinished(event, allAmount, partAmount);
+            this.percentage = percentage;
+        }
+        return percentage;
+    }
+}
@@ -1,49 +1,59 @@
 package com.lajming.investmentsapp;
 
-import com.google.common.base.Preconditions;
-import lombok.val;
+import com.google.common.math.LongMath;
+import org.joda.money.CurrencyUnit;
 import org.joda.money.Money;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 class MoneyUtils {
 
+    static final int BASIS_POINTS_IN_WHOLE = 10_000;
+    static final int PERCENTAGE_SCALE = 10;
+
     private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
 
-    static BigDecimal calculatePercentage(Money all, Money part) {
-        return part.getAmount()
-            .divide(all.getAmount())
-            .multiply(ONE_HUNDRED)
-            .stripTrailingZeros();
+    static long minorUnitsPerUnit(CurrencyUnit currencyUnit) {
+        return LongMath.pow(10, Math.max(0, currencyUnit.getDecimalPlaces()));
     }
 
-    static Money multiplyByPercentage(Money money, double percentage) {
-        return money
-            .multipliedBy(percentage/100, RoundingMode.DOWN)
-            .rounded(0, RoundingMode.DOWN);
+    static Money toMoney(CurrencyUnit currencyUnit, long amountMinor) {
+        return Money.ofMinor(currencyUnit, amountMinor);
     }
 
-    static boolean anyAmountLessThanOne(Collection<Money> amounts) {
-        return amounts.stream().anyMatch(MoneyUtils::isLessThanOneUnit);
+    static BigDecimal calculatePercentage(long allMinor, long partMinor) {
+        return BigDecimal.valueOf(partMinor)
+            .multiply(ONE_HUNDRED)
+            .divide(BigDecimal.valueOf(allMinor), PERCENTAGE_SCALE, RoundingMode.DOWN)
+            .stripTrailingZeros();
     }
 
-    static Money divideMoney(Money amount, double divider) {
-        return amount.dividedBy(divider, RoundingMode.DOWN).rounded(0, RoundingMode.DOWN);
+    static long multiplyByBasisPoints(long amountMinor, int basisPoints, long minorUnitsPerUnit) {
+        return roundDownToUnit(Math.multiplyExact(amountMinor, basisPoints) / BASIS_POINTS_IN_WHOLE, minorUnitsPerUnit);
     }
 
-    static Money sumMoney(Collection<Money> amounts) {
-        Preconditions.checkArgument(!amounts.isEmpty());
+    static long divideAmount(long amountMinor, int divider, long minorUnitsPerUnit) {
+        checkArgument(divider > 0, "divider should be positive");
+        return roundDownToUnit(amountMinor / divider, minorUnitsPerUnit);
+    }
 
-        val currencyUnit = amounts.iterator().next().getCurrencyUnit();
-        val sum = amounts.stream().map(Money::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    static long sumAmounts(long[] amountsMinor) {
+        long sum = 0;
+        for (long amountMinor : amountsMinor) {
+            sum = Math.addExact(sum, amountMinor);
+        }
+        return sum;
+    }
 
-        return Money.of(currencyUnit, sum);
+    static boolean isLessThanOneUnit(long amountMinor, long minorUnitsPerUnit) {
+        return amountMinor < minorUnitsPerUnit;
     }
 
-    private static boolean isLessThanOneUnit(Money amount) {
-        return amount.getAmount().compareTo(BigDecimal.ONE) < 0;
+    private static long roundDownToUnit(long amountMinor, long minorUnitsPerUnit) {
+        return amountMinor - amountMinor % minorUnitsPerUnit;
     }
 
 }
@@ -0,0 +1,244 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class MonteCarloProjection {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int RANDOM_STREAMS = 64;
+    private static final int ROUNDS = 16;
+    private static final int MIN_PATHS_PER_STREAM_AND_ROUND = 512;
+    private static final double[] CONVERGENCE_PERCENTILES = {5, 50, 95};
+
+    private final ReturnModel returnModel;
+    private final Executor executor;
+    private final int parallelism;
+
+    private MonteCarloProjection(ReturnModel returnModel, Executor executor, int parallelism) {
+        checkNotNull(returnModel, "provided return model should not be null");
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.returnModel = returnModel;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public static MonteCarloProjection of(ReturnModel returnModel) {
+        return of(returnModel, ForkJoinPool.commonPool());
+    }
+
+    public static MonteCarloProjection of(ReturnModel returnModel, ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new MonteCarloProjection(returnModel, forkJoinPool, forkJoinPool.getParallelism());
+    }
+
+    public static MonteCarloProjection of(ReturnModel returnModel, Executor executor, int parallelism) {
+        return new MonteCarloProjection(returnModel, executor, parallelism);
+    }
+
+    public ProjectionResult project(Portfolio portfolio, ProjectionSettings settings) {
+        checkNotNull(portfolio, "provided portfolio should not be null");
+        validate(settings);
+
+        val columns = PortfolioItemColumns.of(portfolio);
+        val localAssets = new int[returnModel.getNumberOfAssets()];
+        Arrays.fill(localAssets, ReturnModel.NOT_FOUND);
+        val assets = new int[Math.min(columns.size(), returnModel.getNumberOfAssets())];
+        val initialValues = new double[assets.length];
+        int numberOfAssets = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            val asset = returnModel.assetOf(fund);
+            checkArgument(asset != ReturnModel.NOT_FOUND, "fund with id %s has no return parameters", fund.getId());
+            if (localAssets[asset] == ReturnModel.NOT_FOUND) {
+                localAssets[asset] = numberOfAssets;
+                assets[numberOfAssets++] = asset;
+            }
+            initialValues[localAssets[asset]] += columns.amountAt(i);
+        }
+
+        val heldAssets = Arrays.copyOf(assets, numberOfAssets);
+        val drifts = new double[numberOfAssets];
+        for (int i = 0; i < numberOfAssets; i++) {
+            drifts[i] = returnModel.logDrift(heldAssets[i]);
+        }
+        val cholesky = returnModel.cholesky(heldAssets);
+        val investedAmount = (double) columns.investedAmount();
+
+        val random = new SplittableRandom(settings.getSeed());
+        val simulators = new PathSimulator[RANDOM_STREAMS];
+        for (int i = 0; i < simulators.length; i++) {
+            simulators[i] = new PathSimulator(random.split(), drifts, cholesky, Arrays.copyOf(initialValues, numberOfAssets),
+                investedAmount > 0 ? investedAmount : 1, settings.getNumberOfYears());
+        }
+
+        val pathsPerRound = settings.isStoppingEarly()
+            ? Math.max((settings.getNumberOfPaths() + ROUNDS - 1) / ROUNDS, RANDOM_STREAMS * MIN_PATHS_PER_STREAM_AND_ROUND)
+            : settings.getNumberOfPaths();
+        val z = settings.isStoppingEarly() ? inverseStandardNormal((1 + settings.getConfidenceLevel()) / 2) : 0;
+        int simulatedPaths = 0;
+        long[] counts;
+        boolean converged;
+        do {
+            val roundPaths = Math.min(pathsPerRound, settings.getNumberOfPaths() - simulatedPaths);
+            simulateRound(simulators, roundPaths);
+            simulatedPaths += roundPaths;
+            counts = mergedCounts(simulators, settings.getNumberOfYears());
+            converged = settings.isStoppingEarly() && isConverged(result(portfolio, settings, simulatedPaths, false, counts), settings.getRelativeError(), z);
+        } while (!converged && simulatedPaths < settings.getNumberOfPaths());
+
+        return result(portfolio, settings, simulatedPaths, converged, counts);
+    }
+
+    private static ProjectionResult result(Portfolio portfolio, ProjectionSettings settings, int numberOfPaths, boolean converged, long[] counts) {
+        val reminder = portfolio.getReminder();
+        val columns = PortfolioItemColumns.of(portfolio);
+        return ProjectionResult.of(reminder.getCurrencyUnit(), columns.investedAmount(), reminder.getAmountMinorLong(),
+            settings.getNumberOfYears(), numberOfPaths, converged, counts);
+    }
+
+    private static void validate(ProjectionSettings settings) {
+        checkNotNull(settings, "provided settings should not be null");
+        checkArgument(settings.getNumberOfYears() > 0, "number of years should be positive");
+        checkArgument(settings.getNumberOfPaths() > 0, "number of paths should be positive");
+        checkArgument(settings.getRelativeError() >= 0, "relative error should not be negative");
+        checkArgument(!settings.isStoppingEarly() || settings.getConfidenceLevel() > 0 && settings.getConfidenceLevel() < 1,
+            "confidence level should be between 0 and 1");
+    }
+
+    private void simulateRound(PathSimulator[] simulators, int numberOfPaths) {
+        val numberOfChunks = Math.min(simulators.length, parallelism * CHUNKS_PER_WORKER);
+        val chunks = new ArrayList<CompletableFuture<Void>>(numberOfChunks);
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            val from = simulators.length * chunk / numberOfChunks;
+            val to = simulators.length * (chunk + 1) / numberOfChunks;
+            chunks.add(CompletableFuture.runAsync(() -> simulateStreams(simulators, numberOfPaths, from, to), executor));
+        }
+        CompletableFutures.awaitAll(chunks);
+    }
+
+    private static void simulateStreams(PathSimulator[] simulators, int numberOfPaths, int from, int to) {
+        for (int i = from; i < to; i++) {
+            val streamPaths = numberOfPaths / simulators.length + (i < numberOfPaths % simulators.length ? 1 : 0);
+            if (streamPaths > 0) {
+                simulators[i].simulate(streamPaths);
+            }
+        }
+    }
+
+    private static long[] mergedCounts(PathSimulator[] simulators, int numberOfYears) {
+        val counts = new long[numberOfYears * ProjectionResult.BINS];
+        for (val simulator : simulators) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += simulator.counts[i];
+            }
+        }
+        return counts;
+    }
+
+    private static boolean isConverged(ProjectionResult result, double relativeError, double z) {
+        for (val percentile : CONVERGENCE_PERCENTILES) {
+            if (result.relativeHalfWidth(percentile, z) > relativeError) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static double inverseStandardNormal(double probability) {
+        val q = probability < 0.5 ? probability : 1 - probability;
+        double x;
+        if (q < 0.02425) {
+            val r = Math.sqrt(-2 * Math.log(q));
+            x = (((((-7.784894002430293e-03 * r - 3.223964580411365e-01) * r - 2.400758277161838e+00) * r - 2.549732539343734e+00) * r + 4.374664141464968e+00) * r + 2.938163982698783e+00)
+                / ((((7.784695709041462e-03 * r + 3.224671290700398e-01) * r + 2.445134137142996e+00) * r + 3.754408661907416e+00) * r + 1);
+        } else {
+            val r = q - 0.5;
+            val s = r * r;
+            x = (((((-3.969683028665376e+01 * s + 2.209460984245205e+02) * s - 2.759285104469687e+02) * s + 1.383577518672690e+02) * s - 3.066479806614716e+01) * s + 2.506628277459239e+00) * r
+                / (((((-5.447609879822406e+01 * s + 1.615858368580409e+02) * s - 1.556989798598866e+02) * s + 6.680131188771972e+01) * s - 1.328068155288572e+01) * s + 1);
+        }
+        return probability < 0.5 ? x : -x;
+    }
+
+    private static final class PathSimulator {
+        private final SplittableRandom random;
+        private final double[] drifts;
+        private final double[] cholesky;
+        private final double[] initialValues;
+        private final double[] values;
+        private final double[] gaussians;
+        private final double investedAmount;
+        private final int numberOfYears;
+        private final int[] counts;
+        private double spareGaussian;
+        private boolean hasSpareGaussian;
+
+        private PathSimulator(SplittableRandom random, double[] drifts, double[] cholesky, double[] initialValues, double investedAmount, int numberOfYears) {
+            this.random = random;
+            this.drifts = drifts;
+            this.cholesky = cholesky;
+            this.initialValues = initialValues;
+            this.values = new double[initialValues.length];
+            this.gaussians = new double[initialValues.length];
+            this.investedAmount = investedAmount;
+            this.numberOfYears = numberOfYears;
+            this.counts = new int[numberOfYears * ProjectionResult.BINS];
+        }
+
+        private void simulate(int numberOfPaths) {
+            val numberOfAssets = values.length;
+            for (int path = 0; path < numberOfPaths; path++) {
+                System.arraycopy(initialValues, 0, values, 0, numberOfAssets);
+                for (int year = 0; year < numberOfYears; year++) {
+                    for (int asset = 0; asset < numberOfAssets; asset++) {
+                        gaussians[asset] = nextGaussian();
+                    }
+                    double total = 0;
+                    for (int asset = 0; asset < numberOfAssets; asset++) {
+                        val row = asset * numberOfAssets;
+                        double logReturn = drifts[asset];
+                        for (int factor = 0; factor <= asset; factor++) {
+                            logReturn += cholesky[row + factor] * gaussians[factor];
+                        }
+                        values[asset] *= Math.exp(logReturn);
+                        total += values[asset];
+                    }
+                    counts[year * ProjectionResult.BINS + ProjectionResult.binOf(total / investedAmount)]++;
+                }
+            }
+        }
+
+        private double nextGaussian() {
+            if (hasSpareGaussian) {
+                hasSpareGaussian = false;
+                return spareGaussian;
+            }
+            double u;
+            double v;
+            double s;
+            do {
+                u = random.nextDouble() * 2 - 1;
+                v = random.nextDouble() * 2 - 1;
+                s = u * u + v * v;
+            } while (s >= 1 || s == 0);
+            val multiplier = Math.sqrt(-2 * Math.log(s) / s);
+            spareGaussian = v * multiplier;
+            hasSpareGaussian = true;
+            return u * multiplier;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.OptionalDouble;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class NavHistory implements Closeable {
+
+    static final int MAGIC = 0x4E415648;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int MAX_NUMBER_OF_DAYS = Integer.MAX_VALUE / Double.BYTES;
+    static final int NOT_FOUND = -1;
+
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final LocalDate firstDay;
+    private final int numberOfDays;
+    private final int columnsPerChunk;
+    private final DoubleBuffer[] chunks;
+    private final long[] sortedFundIds;
+    private final int[] sortedColumns;
+
+    private NavHistory(Path path, FileChannel channel, LocalDate firstDay, int numberOfDays, int columnsPerChunk, DoubleBuffer[] chunks, long[] fundIds) {
+        this.path = path;
+        this.channel = channel;
+        this.firstDay = firstDay;
+        this.numberOfDays = numberOfDays;
+        this.columnsPerChunk = columnsPerChunk;
+        this.chunks = chunks;
+
+        val order = new Integer[fundIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(column -> fundIds[column]));
+        this.sortedFundIds = new long[fundIds.length];
+        this.sortedColumns = new int[fundIds.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedFundIds[i] = fundIds[order[i]];
+            sortedColumns[i] = order[i];
+        }
+    }
+
+    public static NavHistory open(Path path) {
+        checkNotNull(path, "provided path should not be null");
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            if (channel.size() < HEADER_SIZE) {
+                throw invalidFile(path);
+            }
+            val header = read(channel, 0, HEADER_SIZE);
+            val numberOfFunds = header.getInt(8);
+            val numberOfDays = header.getInt(12);
+            val columnSize = (long) numberOfDays * Double.BYTES;
+            val idsPosition = HEADER_SIZE + numberOfFunds * columnSize;
+            if (header.getInt(0) != MAGIC
+                || header.getInt(4) != VERSION
+                || numberOfFunds < 0
+                || numberOfDays <= 0
+                || numberOfDays > MAX_NUMBER_OF_DAYS
+                || channel.size() != idsPosition + (long) numberOfFunds * Long.BYTES) {
+                throw invalidFile(path);
+            }
+
+            val fundIds = new long[numberOfFunds];
+            read(channel, idsPosition, numberOfFunds * Long.BYTES).asLongBuffer().get(fundIds);
+
+            val columnsPerChunk = (int) Math.max(1, Math.min(Integer.MAX_VALUE, MAX_CHUNK_SIZE / columnSize));
+            val chunks = new DoubleBuffer[(numberOfFunds + columnsPerChunk - 1) / columnsPerChunk];
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                val columns = Math.min(columnsPerChunk, numberOfFunds - chunk * columnsPerChunk);
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + chunk * columnsPerChunk * columnSize, columns * columnSize)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer();
+            }
+            return new NavHistory(path, channel, LocalDate.ofEpochDay(header.getLong(16)), numberOfDays, columnsPerChunk, chunks, fundIds);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("unable to open nav history " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public LocalDate getLastDay() {
+        return firstDay.plusDays(numberOfDays - 1);
+    }
+
+    public int getNumberOfDays() {
+        return numberOfDays;
+    }
+
+    public int getNumberOfFunds() {
+        return sortedFundIds.length;
+    }
+
+    public boolean contains(long fundId) {
+        return columnOf(fundId) != NOT_FOUND;
+    }
+
+    public OptionalDouble navOf(long fundId, LocalDate date) {
+        checkNotNull(date, "provided date should not be null");
+
+        val column = columnOf(fundId);
+        val day = dayOf(date);
+        if (column == NOT_FOUND || day < 0 || day >= numberOfDays) {
+            return OptionalDouble.empty();
+        }
+        val nav = nav(column, (int) day);
+        return Double.isNaN(nav) ? OptionalDouble.empty() : OptionalDouble.of(nav);
+    }
+
+    int columnOf(long fundId) {
+        val index = Arrays.binarySearch(sortedFundIds, fundId);
+        return index >= 0 ? sortedColumns[index] : NOT_FOUND;
+    }
+
+    long dayOf(LocalDate date) {
+        return date.toEpochDay() - firstDay.toEpochDay();
+    }
+
+    double nav(int column, int day) {
+        return chunkOf(column).get(offsetOf(column) + day);
+    }
+
+    DoubleBuffer chunkOf(int column) {
+        return chunks[column / columnsPerChunk];
+    }
+
+    int offsetOf(int column) {
+        return (column % columnsPerChunk) * numberOfDays;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to close nav history " + path, e);
+        }
+    }
+
+    private static IllegalArgumentException invalidFile(Path path) {
+        return new IllegalArgumentException("invalid nav history file " + path);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        val buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException suppressed) {
+        }
+    }
+}
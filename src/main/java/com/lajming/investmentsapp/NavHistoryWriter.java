@@ -0,0 +1,126 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+public final class NavHistoryWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final LocalDate firstDay;
+    private final int numberOfDays;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Set<Long> appendedFundIds = new HashSet<>();
+    private long[] fundIds = new long[64];
+    private int numberOfFunds;
+    private boolean closed;
+
+    private NavHistoryWriter(Path path, FileChannel channel, LocalDate firstDay, int numberOfDays) {
+        this.path = path;
+        this.channel = channel;
+        this.firstDay = firstDay;
+        this.numberOfDays = numberOfDays;
+    }
+
+    public static NavHistoryWriter create(Path path, LocalDate firstDay, int numberOfDays) {
+        checkNotNull(path, "provided path should not be null");
+        checkNotNull(firstDay, "provided first day should not be null");
+        checkArgument(numberOfDays > 0, "number of days should be positive");
+        checkArgument(numberOfDays <= NavHistory.MAX_NUMBER_OF_DAYS, "number of days should not exceed %s", NavHistory.MAX_NUMBER_OF_DAYS);
+
+        try {
+            val channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            channel.position(NavHistory.HEADER_SIZE);
+            return new NavHistoryWriter(path, channel, firstDay, numberOfDays);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to create nav history " + path, e);
+        }
+    }
+
+    public NavHistoryWriter append(long fundId, double[] navs) {
+        checkState(!closed, "nav history writer is already closed");
+        checkNotNull(navs, "provided navs should not be null");
+        checkArgument(navs.length == numberOfDays, "nav series should have %s days but has %s", numberOfDays, navs.length);
+        checkArgument(appendedFundIds.add(fundId), "fund with id %s appears more than once in nav history", fundId);
+
+        try {
+            for (val nav : navs) {
+                if (buffer.remaining() < Double.BYTES) {
+                    drain();
+                }
+                buffer.putDouble(nav);
+            }
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write nav history " + path, e);
+        }
+        if (numberOfFunds == fundIds.length) {
+            fundIds = Arrays.copyOf(fundIds, fundIds.length * 2);
+        }
+        fundIds[numberOfFunds++] = fundId;
+        return this;
+    }
+
+    public int getNumberOfFunds() {
+        return numberOfFunds;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel channel = this.channel) {
+            for (int i = 0; i < numberOfFunds; i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    drain();
+                }
+                buffer.putLong(fundIds[i]);
+            }
+            drain();
+
+            buffer.putInt(NavHistory.MAGIC)
+                .putInt(NavHistory.VERSION)
+                .putInt(numberOfFunds)
+                .putInt(numberOfDays)
+                .putLong(firstDay.toEpochDay())
+                .putLong(0L);
+            ((Buffer) buffer).flip();
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write nav history " + path, e);
+        }
+    }
+
+    private void drain() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+}
@@ -6,9 +6,8 @@ import org.joda.money.Money;
 
 import java.util.Collection;
 
-import static com.google.common.base.Joiner.on;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
 import static java.lang.System.lineSeparator;
-import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 
 @Value(staticConstructor = "of")
@@ -20,11 +19,19 @@ public class Portfolio {
         return Portfolio.of(emptyList(), reminder);
     }
 
-    public String toMultilineString() {
-        val classNameString = Portfolio.class.getSimpleName();
-        val portfolioItemsString = on(lineSeparator()).join(portfolioItems);
-        val reminderString = "reminder="+reminder;
+    public Portfolio compact(FundUniverse fundUniverse) {
+        return Portfolio.of(ColumnarPortfolioItems.of(PortfolioItemColumns.of(this), fundUniverse), reminder);
+    }
 
-        return on(lineSeparator()).join(asList(classNameString+"(", portfolioItemsString, reminderString+")"));
+    Money totalMoney() {
+        return reminder.plus(toMoney(reminder.getCurrencyUnit(), PortfolioItemColumns.of(this).investedAmount()));
+    }
+
+    public String toMultilineString() {
+        val multilineString = new StringBuilder();
+        val output = ReportOutput.of(multilineString);
+        PortfolioReportWriter.appendTable(output, this, lineSeparator());
+        output.flush();
+        return multilineString.toString();
     }
 }
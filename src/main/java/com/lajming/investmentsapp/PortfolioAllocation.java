@@ -0,0 +1,234 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableList;
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.lajming.investmentsapp.MoneyUtils.*;
+import static com.lajming.investmentsapp.Portfolio.emptyPortfolioWithReminder;
+import static java.util.Collections.unmodifiableList;
+
+final class PortfolioAllocation {
+
+    private static final FundType[] NO_FUND_TYPES = new FundType[0];
+
+    private final FundUniverse fundUniverse;
+    private final CurrencyUnit currencyUnit;
+    private final long allAvailableAmount;
+    private final long investedAmount;
+    private final long minorUnitsPerUnit;
+    private final long[] amountPerEachFundGroup;
+    private final FundType[] fundTypes;
+    private final int[] firstItemIndexOfGroup;
+    private final EmptyPortfolioReason emptyReason;
+
+    private PortfolioAllocation(FundUniverse fundUniverse, Money allAvailableMoney, FundType[] fundTypes, long[] amountPerEachFundGroup, EmptyPortfolioReason emptyReason) {
+        this.fundUniverse = fundUniverse;
+        this.currencyUnit = allAvailableMoney.getCurrencyUnit();
+        this.allAvailableAmount = allAvailableMoney.getAmountMinorLong();
+        this.investedAmount = sumAmounts(amountPerEachFundGroup);
+        this.minorUnitsPerUnit = minorUnitsPerUnit(currencyUnit);
+        this.amountPerEachFundGroup = amountPerEachFundGroup;
+        this.fundTypes = fundTypes;
+        this.firstItemIndexOfGroup = new int[fundTypes.length + 1];
+        this.emptyReason = emptyReason;
+
+        for (int group = 0; group < fundTypes.length; group++) {
+            firstItemIndexOfGroup[group + 1] = firstItemIndexOfGroup[group] + fundUniverse.fundCount(fundTypes[group].ordinal());
+        }
+    }
+
+    static PortfolioAllocation of(FundUniverse fundUniverse, Money allAvailableMoney, FundType[] fundTypes, long[] amountPerEachFundGroup) {
+        return new PortfolioAllocation(fundUniverse, allAvailableMoney, fundTypes, amountPerEachFundGroup, null);
+    }
+
+    static PortfolioAllocation notInvested(FundUniverse fundUniverse, Money allAvailableMoney, EmptyPortfolioReason reason) {
+        return new PortfolioAllocation(fundUniverse, allAvailableMoney, NO_FUND_TYPES, new long[FundType.values().length], reason);
+    }
+
+    boolean isEmpty() {
+        return fundTypes.length == 0;
+    }
+
+    EmptyPortfolioReason emptyReason() {
+        return emptyReason;
+    }
+
+    int numberOfItems() {
+        return firstItemIndexOfGroup[fundTypes.length];
+    }
+
+    Money reminder() {
+        return toMoney(currencyUnit, allAvailableAmount - investedAmount);
+    }
+
+    Portfolio toPortfolio() {
+        return toPortfolio(null);
+    }
+
+    Portfolio toPortfolio(GroupedPortfolioItems previousItems) {
+        if (isEmpty()) {
+            return emptyPortfolioWithReminder(reminder());
+        }
+
+        val fundsOfGroup = new Fund[fundTypes.length][];
+        val amountOfGroup = new long[fundTypes.length];
+        val itemsOfGroup = ImmutableList.<List<PortfolioItem>>builder();
+        for (int group = 0; group < fundTypes.length; group++) {
+            fundsOfGroup[group] = fundUniverse.fundGroup(fundTypes[group].ordinal());
+            amountOfGroup[group] = amountPerEachFundGroup[fundTypes[group].ordinal()];
+            itemsOfGroup.add(itemsOfGroup(group, fundsOfGroup[group], amountOfGroup[group], previousItems));
+        }
+
+        val portfolioItems = new GroupedPortfolioItems(currencyUnit, investedAmount, fundsOfGroup, amountOfGroup, itemsOfGroup.build());
+        return Portfolio.of(portfolioItems, reminder());
+    }
+
+    Portfolio toCompactPortfolio() {
+        if (isEmpty()) {
+            return emptyPortfolioWithReminder(reminder());
+        }
+
+        val fundIds = new long[numberOfItems()];
+        val amounts = new long[numberOfItems()];
+        for (int group = 0; group < fundTypes.length; group++) {
+            val fundTypeOrdinal = fundTypes[group].ordinal();
+            val funds = fundUniverse.fundGroup(fundTypeOrdinal);
+            val amountForGroup = amountPerEachFundGroup[fundTypeOrdinal];
+            val averageAmount = divideAmount(amountForGroup, funds.length, minorUnitsPerUnit);
+            val firstItemIndex = firstItemIndexOfGroup[group];
+
+            for (int i = 0; i < funds.length; i++) {
+                fundIds[firstItemIndex + i] = funds[i].getId();
+                amounts[firstItemIndex + i] = averageAmount;
+            }
+            amounts[firstItemIndex] = amountForGroup - averageAmount * (funds.length - 1);
+        }
+
+        val portfolioItems = ColumnarPortfolioItems.of(fundUniverse, currencyUnit, investedAmount, fundIds, amounts);
+        return Portfolio.of(portfolioItems, reminder());
+    }
+
+    Spliterator<PortfolioItem> spliterator() {
+        return new PortfolioItemSpliterator(0, numberOfItems());
+    }
+
+    private List<PortfolioItem> itemsOfGroup(int group, Fund[] funds, long groupAmount, GroupedPortfolioItems previousItems) {
+        val reusableItems = previousItems == null
+            ? null
+            : previousItems.reusableGroup(currencyUnit, investedAmount, funds, groupAmount);
+        if (reusableItems != null) {
+            return reusableItems;
+        }
+
+        val groupItems = groupItems(group);
+        val portfolioItems = new ArrayList<PortfolioItem>(funds.length);
+        for (int i = 0; i < funds.length; i++) {
+            portfolioItems.add(groupItems.item(i));
+        }
+        return unmodifiableList(portfolioItems);
+    }
+
+    private FundGroupItems groupItems(int group) {
+        val fundTypeOrdinal = fundTypes[group].ordinal();
+        val funds = fundUniverse.fundGroup(fundTypeOrdinal);
+        val amountForGroup = amountPerEachFundGroup[fundTypeOrdinal];
+        val averageAmount = divideAmount(amountForGroup, funds.length, minorUnitsPerUnit);
+        val firstItemAmount = amountForGroup - averageAmount * (funds.length - 1);
+
+        return new FundGroupItems(funds, averageAmount, firstItemAmount);
+    }
+
+    private final class FundGroupItems {
+        private final Fund[] funds;
+        private final Money averageMoney;
+        private final Money firstItemMoney;
+        private final LazyPercentage averagePercentage;
+        private final LazyPercentage firstItemPercentage;
+
+        private FundGroupItems(Fund[] funds, long averageAmount, long firstItemAmount) {
+            this.funds = funds;
+            this.averageMoney = toMoney(currencyUnit, averageAmount);
+            this.firstItemMoney = toMoney(currencyUnit, firstItemAmount);
+            this.averagePercentage = LazyPercentage.of(investedAmount, averageAmount);
+            this.firstItemPercentage = LazyPercentage.of(investedAmount, firstItemAmount);
+        }
+
+        private PortfolioItem item(int indexInGroup) {
+            return indexInGroup == 0
+                ? PortfolioItem.of(funds[0], firstItemMoney, firstItemPercentage)
+                : PortfolioItem.of(funds[indexInGroup], averageMoney, averagePercentage);
+        }
+    }
+
+    private final class PortfolioItemSpliterator implements Spliterator<PortfolioItem> {
+        private int index;
+        private final int fence;
+        private int group = -1;
+        private FundGroupItems groupItems;
+
+        private PortfolioItemSpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PortfolioItem> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(itemAt(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super PortfolioItem> action) {
+            while (index < fence) {
+                action.accept(itemAt(index++));
+            }
+        }
+
+        @Override
+        public Spliterator<PortfolioItem> trySplit() {
+            val middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            val prefix = new PortfolioItemSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        private PortfolioItem itemAt(int itemIndex) {
+            if (group < 0 || itemIndex >= firstItemIndexOfGroup[group + 1]) {
+                group = groupOf(itemIndex);
+                groupItems = groupItems(group);
+            }
+            return groupItems.item(itemIndex - firstItemIndexOfGroup[group]);
+        }
+
+        private int groupOf(int itemIndex) {
+            int group = 0;
+            while (itemIndex >= firstItemIndexOfGroup[group + 1]) {
+                group++;
+            }
+            return group;
+        }
+    }
+}
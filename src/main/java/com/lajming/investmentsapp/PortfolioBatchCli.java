@@ -0,0 +1,30 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+
+public class PortfolioBatchCli {
+
+    private static final String USAGE = "usage: PortfolioBatchCli <fund catalog> <requests> <output> [<strategies.properties>]";
+
+    public static void main(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        val investmentStrategies = new LinkedHashMap<String, CompiledInvestmentStrategy>(InvestmentStrategyLoader.builtInStrategies());
+        if (args.length == 4) {
+            investmentStrategies.putAll(InvestmentStrategyLoader.load(Paths.get(args[3])));
+        }
+        val fundUniverse = FundCatalogLoader.create().loadUniverse(Paths.get(args[0]));
+
+        val stats = PortfolioBatchJob
+            .of(fundUniverse, investmentStrategies)
+            .run(Paths.get(args[1]), Paths.get(args[2]));
+
+        System.out.println(stats);
+    }
+}
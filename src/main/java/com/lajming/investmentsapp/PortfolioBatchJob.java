@@ -0,0 +1,278 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+public class PortfolioBatchJob {
+
+    private static final int DEFAULT_QUEUE_CAPACITY_PER_WORKER = 256;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final String HEADER = "clientId,amount,currency,strategy";
+
+    private final Map<String, PortfolioGenerator> portfolioGenerators;
+    private final int parallelism;
+    private final int queueCapacity;
+
+    private PortfolioBatchJob(FundUniverse fundUniverse, Map<String, CompiledInvestmentStrategy> investmentStrategies, int parallelism, int queueCapacity) {
+        checkNotNull(fundUniverse, "provided funds should not be null");
+        checkNotNull(investmentStrategies, "provided investment strategies should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+        checkArgument(queueCapacity > 0, "queue capacity should be positive");
+
+        this.portfolioGenerators = PortfolioGeneratorFactory.portfolioGenerators(investmentStrategies, fundUniverse);
+        this.parallelism = parallelism;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public static PortfolioBatchJob of(FundUniverse fundUniverse, Map<String, CompiledInvestmentStrategy> investmentStrategies) {
+        val parallelism = Runtime.getRuntime().availableProcessors();
+        return of(fundUniverse, investmentStrategies, parallelism, parallelism * DEFAULT_QUEUE_CAPACITY_PER_WORKER);
+    }
+
+    public static PortfolioBatchJob of(FundUniverse fundUniverse, Map<String, CompiledInvestmentStrategy> investmentStrategies, int parallelism, int queueCapacity) {
+        return new PortfolioBatchJob(fundUniverse, investmentStrategies, parallelism, queueCapacity);
+    }
+
+    public BatchJobStats run(Path requests, Path output) {
+        checkNotNull(requests, "provided requests path should not be null");
+        checkNotNull(output, "provided output path should not be null");
+
+        try (BufferedReader reader = Files.newBufferedReader(requests, StandardCharsets.UTF_8);
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return run(reader, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to run batch job from " + requests + " to " + output, e);
+        }
+    }
+
+    public BatchJobStats run(BufferedReader requests, Writer output) {
+        checkNotNull(requests, "provided requests should not be null");
+        checkNotNull(output, "provided output should not be null");
+
+        return new Run(requests, output).execute();
+    }
+
+    static String renderLine(String clientId, Portfolio portfolio) {
+        val columns = PortfolioItemColumns.of(portfolio);
+        val reminder = portfolio.getReminder();
+        val scale = reminder.getCurrencyUnit().getDecimalPlaces();
+        val line = new StringBuilder(32 + columns.size() * 24)
+            .append(clientId).append(',')
+            .append(reminder.getCurrencyUnit().getCode()).append(',')
+            .append(reminder.getAmount().toPlainString()).append(',');
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append(';');
+            }
+            line.append(columns.fundAt(i).getId()).append(':')
+                .append(BigDecimal.valueOf(columns.amountAt(i), scale).toPlainString());
+        }
+        return line.toString();
+    }
+
+    private final class Run {
+        private final BufferedReader requests;
+        private final Writer output;
+        private final Semaphore inFlight = new Semaphore(queueCapacity);
+        private final BlockingQueue<ParsedRequest> parsedRequests = new ArrayBlockingQueue<>(queueCapacity + parallelism);
+        private final BlockingQueue<GeneratedPortfolio> generatedPortfolios = new ArrayBlockingQueue<>(queueCapacity + parallelism);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final ExecutorService executor = Executors.newFixedThreadPool(parallelism + 1);
+        private volatile long requestsRead = -1;
+
+        private Run(BufferedReader requests, Writer output) {
+            this.requests = requests;
+            this.output = output;
+        }
+
+        private BatchJobStats execute() {
+            val start = System.nanoTime();
+            try {
+                executor.execute(this::readRequests);
+                for (int i = 0; i < parallelism; i++) {
+                    executor.execute(this::generatePortfolios);
+                }
+                writePortfolios();
+            } finally {
+                executor.shutdownNow();
+            }
+            return BatchJobStats.of(System.nanoTime() - start, latencies);
+        }
+
+        private void readRequests() {
+            try {
+                long lineNumber = 0;
+                long sequence = 0;
+                String line;
+                while ((line = requests.readLine()) != null) {
+                    lineNumber++;
+                    val request = parseRequest(line.trim(), lineNumber, sequence);
+                    if (request != null) {
+                        inFlight.acquire();
+                        parsedRequests.put(request);
+                        sequence++;
+                    }
+                }
+                requestsRead = sequence;
+            } catch (IOException e) {
+                fail(new UncheckedIOException("unable to read generation requests", e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                for (int i = 0; i < parallelism; i++) {
+                    parsedRequests.offer(ParsedRequest.END);
+                }
+            }
+        }
+
+        private ParsedRequest parseRequest(String line, long lineNumber, long sequence) {
+            if (line.isEmpty() || (lineNumber == 1 && line.equalsIgnoreCase(HEADER))) {
+                return null;
+            }
+
+            val columns = line.split(",", -1);
+            checkArgument(columns.length == 4, "malformed request at line %s, expected %s", lineNumber, HEADER);
+
+            val clientId = columns[0].trim();
+            val strategyName = columns[3].trim();
+            checkArgument(!clientId.isEmpty(), "missing client id at line %s", lineNumber);
+            val portfolioGenerator = portfolioGenerators.get(strategyName);
+            checkArgument(portfolioGenerator != null, "unknown investment strategy %s at line %s", strategyName, lineNumber);
+
+            try {
+                val amount = Money.of(CurrencyUnit.of(columns[2].trim()), new BigDecimal(columns[1].trim()));
+                return new ParsedRequest(sequence, clientId, amount, portfolioGenerator);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException("invalid amount or currency at line " + lineNumber, e);
+            }
+        }
+
+        private void generatePortfolios() {
+            try {
+                while (true) {
+                    val request = parsedRequests.take();
+                    if (request == ParsedRequest.END) {
+                        break;
+                    }
+                    val start = System.nanoTime();
+                    val portfolio = request.portfolioGenerator.generatePortfolio(request.amount);
+                    val line = renderLine(request.clientId, portfolio);
+                    latencies.record(System.nanoTime() - start);
+                    generatedPortfolios.put(new GeneratedPortfolio(request.sequence, line));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                generatedPortfolios.offer(GeneratedPortfolio.END);
+            }
+        }
+
+        private void writePortfolios() {
+            val pending = new HashMap<Long, String>();
+            long nextSequence = 0;
+            int finishedWorkers = 0;
+
+            try {
+                while (finishedWorkers < parallelism) {
+                    checkFailure();
+                    val generated = generatedPortfolios.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (generated == null) {
+                        continue;
+                    }
+                    if (generated == GeneratedPortfolio.END) {
+                        finishedWorkers++;
+                        continue;
+                    }
+
+                    pending.put(generated.sequence, generated.line);
+                    String line;
+                    while ((line = pending.remove(nextSequence)) != null) {
+                        output.write(line);
+                        output.write('\n');
+                        inFlight.release();
+                        nextSequence++;
+                    }
+                }
+                checkFailure();
+                checkState(pending.isEmpty() && nextSequence == requestsRead,
+                    "batch job finished with %s portfolios written out of %s requests read", nextSequence, requestsRead);
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("unable to write portfolios", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("batch job interrupted", e);
+            }
+        }
+
+        private void fail(Throwable e) {
+            failure.compareAndSet(null, e instanceof RuntimeException
+                ? (RuntimeException) e
+                : new IllegalStateException("batch job failed with " + e, e));
+        }
+
+        private void checkFailure() {
+            val e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+    }
+
+    private static final class ParsedRequest {
+        private static final ParsedRequest END = new ParsedRequest(-1, null, null, null);
+
+        private final long sequence;
+        private final String clientId;
+        private final Money amount;
+        private final PortfolioGenerator portfolioGenerator;
+
+        private ParsedRequest(long sequence, String clientId, Money amount, PortfolioGenerator portfolioGenerator) {
+            this.sequence = sequence;
+            this.clientId = clientId;
+            this.amount = amount;
+            this.portfolioGenerator = portfolioGenerator;
+        }
+    }
+
+    private static final class GeneratedPortfolio {
+        private static final GeneratedPortfolio END = new GeneratedPortfolio(-1, null);
+
+        private final long sequence;
+        private final String line;
+
+        private GeneratedPortfolio(long sequence, String line) {
+            this.sequence = sequence;
+            this.line = line;
+        }
+    }
+}
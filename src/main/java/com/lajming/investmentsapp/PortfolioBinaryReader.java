@@ -0,0 +1,197 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+import static com.lajming.investmentsapp.PortfolioBinaryWriter.CURRENCY_CODE_LENGTH;
+import static com.lajming.investmentsapp.PortfolioBinaryWriter.VERSION;
+import static com.lajming.investmentsapp.Varints.readUnsigned;
+import static com.lajming.investmentsapp.Varints.skip;
+import static com.lajming.investmentsapp.Varints.unZigZag;
+
+public final class PortfolioBinaryReader {
+
+    private static final FundType[] FUND_TYPES = FundType.values();
+
+    private final ByteBuffer buffer;
+    private final CurrencyUnit currencyUnit;
+    private final long reminder;
+    private final int[] itemOffsets;
+    private final long investedAmount;
+
+    private PortfolioBinaryReader(ByteBuffer buffer, CurrencyUnit currencyUnit, long reminder, int[] itemOffsets, long investedAmount) {
+        this.buffer = buffer;
+        this.currencyUnit = currencyUnit;
+        this.reminder = reminder;
+        this.itemOffsets = itemOffsets;
+        this.investedAmount = investedAmount;
+    }
+
+    public static PortfolioBinaryReader of(byte[] bytes) {
+        checkNotNull(bytes, "provided bytes should not be null");
+
+        return of(ByteBuffer.wrap(bytes));
+    }
+
+    public static PortfolioBinaryReader of(ByteBuffer buffer) {
+        checkNotNull(buffer, "provided buffer should not be null");
+
+        try {
+            return index(buffer.slice());
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("truncated portfolio payload", e);
+        }
+    }
+
+    private static PortfolioBinaryReader index(ByteBuffer buffer) {
+        val version = buffer.get(0);
+        checkArgument(version == VERSION, "unsupported portfolio format version %s", version);
+
+        val currencyCode = new byte[CURRENCY_CODE_LENGTH];
+        for (int i = 0; i < CURRENCY_CODE_LENGTH; i++) {
+            currencyCode[i] = buffer.get(1 + i);
+        }
+        val currencyUnit = CurrencyUnit.of(new String(currencyCode, StandardCharsets.US_ASCII));
+
+        int position = 1 + CURRENCY_CODE_LENGTH;
+        val reminder = readUnsigned(buffer, position);
+        checkArgument(reminder >= 0, "malformed portfolio reminder %s", reminder);
+        position = skip(buffer, position);
+        val numberOfItems = readUnsigned(buffer, position);
+        checkArgument(numberOfItems >= 0 && numberOfItems <= buffer.limit(), "malformed number of portfolio items %s", numberOfItems);
+        position = skip(buffer, position);
+
+        val itemOffsets = new int[(int) numberOfItems];
+        long investedAmount = 0;
+        for (int i = 0; i < itemOffsets.length; i++) {
+            itemOffsets[i] = position;
+            position = skip(buffer, position) + 1;
+            val nameLength = readUnsigned(buffer, position);
+            position = skip(buffer, position);
+            checkArgument(nameLength >= 0 && nameLength <= buffer.limit() - position, "truncated portfolio payload");
+            position += (int) nameLength;
+            val amount = readUnsigned(buffer, position);
+            checkArgument(amount >= 0, "malformed amount of portfolio item %s", amount);
+            investedAmount = Math.addExact(investedAmount, amount);
+            position = skip(buffer, position);
+        }
+        checkArgument(position <= buffer.limit(), "truncated portfolio payload");
+
+        return new PortfolioBinaryReader(buffer, currencyUnit, reminder, itemOffsets, investedAmount);
+    }
+
+    public CurrencyUnit getCurrencyUnit() {
+        return currencyUnit;
+    }
+
+    public Money getReminder() {
+        return toMoney(currencyUnit, reminder);
+    }
+
+    public int size() {
+        return itemOffsets.length;
+    }
+
+    public long getFundId(int index) {
+        return unZigZag(readUnsigned(buffer, itemOffsets[index]));
+    }
+
+    public FundType getFundType(int index) {
+        return fundType(typePosition(index));
+    }
+
+    public Fund getFund(int index) {
+        val typePosition = typePosition(index);
+        val namePosition = typePosition + 1;
+        val nameLength = (int) readUnsigned(buffer, namePosition);
+        val nameBytesPosition = skip(buffer, namePosition);
+        return Fund.of(getFundId(index), fundType(typePosition), decodeName(nameBytesPosition, nameLength));
+    }
+
+    public Money getAmount(int index) {
+        return toMoney(currencyUnit, amount(index));
+    }
+
+    public BigDecimal getPercentage(int index) {
+        return LazyPercentage.of(investedAmount, amount(index)).get();
+    }
+
+    public PortfolioItem getItem(int index) {
+        val amount = amount(index);
+        return PortfolioItem.of(getFund(index), toMoney(currencyUnit, amount), LazyPercentage.of(investedAmount, amount));
+    }
+
+    public Portfolio toPortfolio() {
+        return Portfolio.of(new BinaryPortfolioItems(), getReminder());
+    }
+
+    private long amount(int index) {
+        val namePosition = typePosition(index) + 1;
+        val nameLength = (int) readUnsigned(buffer, namePosition);
+        return readUnsigned(buffer, skip(buffer, namePosition) + nameLength);
+    }
+
+    private int typePosition(int index) {
+        return skip(buffer, itemOffsets[index]);
+    }
+
+    private FundType fundType(int typePosition) {
+        val ordinal = buffer.get(typePosition);
+        checkArgument(ordinal >= 0 && ordinal < FUND_TYPES.length, "unknown fund type ordinal %s", ordinal);
+        return FUND_TYPES[ordinal];
+    }
+
+    private String decodeName(int position, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        }
+        val bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class BinaryPortfolioItems extends AbstractList<PortfolioItem> implements RandomAccess, PortfolioItemColumns {
+
+        @Override
+        public PortfolioItem get(int index) {
+            return getItem(index);
+        }
+
+        @Override
+        public int size() {
+            return itemOffsets.length;
+        }
+
+        @Override
+        public CurrencyUnit currencyUnit() {
+            return currencyUnit;
+        }
+
+        @Override
+        public long investedAmount() {
+            return investedAmount;
+        }
+
+        @Override
+        public Fund fundAt(int index) {
+            return getFund(index);
+        }
+
+        @Override
+        public long amountAt(int index) {
+            return amount(index);
+        }
+    }
+}
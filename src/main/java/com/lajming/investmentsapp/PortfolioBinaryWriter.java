@@ -0,0 +1,57 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.Varints.checkNonNegative;
+import static com.lajming.investmentsapp.Varints.sizeOfUnsigned;
+import static com.lajming.investmentsapp.Varints.writeUnsigned;
+import static com.lajming.investmentsapp.Varints.zigZag;
+
+public final class PortfolioBinaryWriter {
+
+    static final byte VERSION = 1;
+    static final int CURRENCY_CODE_LENGTH = 3;
+
+    private PortfolioBinaryWriter() {
+    }
+
+    public static byte[] write(Portfolio portfolio) {
+        checkNotNull(portfolio, "provided portfolio should not be null");
+
+        val columns = PortfolioItemColumns.of(portfolio);
+        val reminder = portfolio.getReminder().getAmountMinorLong();
+        checkNonNegative(reminder, "reminder");
+
+        val names = new byte[columns.size()][];
+        int size = 1 + CURRENCY_CODE_LENGTH + sizeOfUnsigned(reminder) + sizeOfUnsigned(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            val amount = columns.amountAt(i);
+            checkNonNegative(amount, "amount");
+
+            names[i] = fund.getName().getBytes(StandardCharsets.UTF_8);
+            size += sizeOfUnsigned(zigZag(fund.getId())) + 1 + sizeOfUnsigned(names[i].length) + names[i].length + sizeOfUnsigned(amount);
+        }
+
+        val bytes = new byte[size];
+        bytes[0] = VERSION;
+        val currencyCode = portfolio.getReminder().getCurrencyUnit().getCode().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(currencyCode, 0, bytes, 1, CURRENCY_CODE_LENGTH);
+
+        int position = writeUnsigned(bytes, 1 + CURRENCY_CODE_LENGTH, reminder);
+        position = writeUnsigned(bytes, position, columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            position = writeUnsigned(bytes, position, zigZag(fund.getId()));
+            bytes[position++] = (byte) fund.getType().ordinal();
+            position = writeUnsigned(bytes, position, names[i].length);
+            System.arraycopy(names[i], 0, bytes, position, names[i].length);
+            position += names[i].length;
+            position = writeUnsigned(bytes, position, columns.amountAt(i));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,86 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.Value;
+import lombok.val;
+import org.joda.money.Money;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class PortfolioCache {
+
+    private final Cache<CacheKey, Portfolio> cache;
+
+    private PortfolioCache(CacheBuilder<Object, Object> cacheBuilder) {
+        this.cache = cacheBuilder.recordStats().build();
+    }
+
+    public static PortfolioCache withMaximumSize(long maximumSize) {
+        checkArgument(maximumSize >= 0, "maximum size should not be negative");
+
+        return new PortfolioCache(CacheBuilder.newBuilder().maximumSize(maximumSize));
+    }
+
+    public static PortfolioCache withMaximumSizeAndExpiry(long maximumSize, Duration expireAfterWrite) {
+        checkArgument(maximumSize >= 0, "maximum size should not be negative");
+        checkNotNull(expireAfterWrite, "provided expiry should not be null");
+
+        return new PortfolioCache(CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    public static PortfolioCache fromSpec(String cacheBuilderSpec) {
+        checkNotNull(cacheBuilderSpec, "provided cache specification should not be null");
+
+        return new PortfolioCache(CacheBuilder.from(cacheBuilderSpec));
+    }
+
+    public Portfolio generatePortfolio(PortfolioGenerator portfolioGenerator, Money allAvailableMoney) {
+        checkNotNull(portfolioGenerator, "provided generator should not be null");
+        checkNotNull(allAvailableMoney, "provided money should not be null");
+        checkArgument(allAvailableMoney.isPositiveOrZero(), "negative amount of money provided");
+
+        val cacheKey = CacheKey.of(
+            portfolioGenerator.getInvestmentStrategy(),
+            allAvailableMoney,
+            portfolioGenerator.getFundUniverse().getFingerprint()
+        );
+
+        try {
+            return cache.get(cacheKey, () -> portfolioGenerator.generatePortfolio(allAvailableMoney));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Value(staticConstructor = "of")
+    private static class CacheKey {
+        private final CompiledInvestmentStrategy investmentStrategy;
+        private final Money allAvailableMoney;
+        private final long fundUniverseFingerprint;
+    }
+}
@@ -0,0 +1,363 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.Money;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+public final class PortfolioChangeFeed implements Closeable {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    private final Map<CompiledInvestmentStrategy, StrategyBook> strategyBooks = new LinkedHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextSubscriptionId = new AtomicInteger(1);
+    private final Object publications = new Object();
+    private long startedPublications;
+    private long completedPublications;
+    private FundUniverse fundUniverse;
+    private volatile boolean closed;
+
+    private PortfolioChangeFeed(FundUniverse fundUniverse, Executor executor, int parallelism) {
+        checkNotNull(fundUniverse, "provided fund universe should not be null");
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.fundUniverse = fundUniverse;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public static PortfolioChangeFeed of(FundUniverse fundUniverse) {
+        return of(fundUniverse, ForkJoinPool.commonPool());
+    }
+
+    public static PortfolioChangeFeed of(FundUniverse fundUniverse, ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new PortfolioChangeFeed(fundUniverse, forkJoinPool, forkJoinPool.getParallelism());
+    }
+
+    public static PortfolioChangeFeed of(FundUniverse fundUniverse, Executor executor, int parallelism) {
+        return new PortfolioChangeFeed(fundUniverse, executor, parallelism);
+    }
+
+    public synchronized Portfolio register(String clientId, CompiledInvestmentStrategy investmentStrategy, Money allAvailableMoney) {
+        checkNotNull(clientId, "provided client id should not be null");
+        checkArgument(!clientId.isEmpty(), "client id should not be empty");
+        checkNotNull(investmentStrategy, "provided investment strategy should not be null");
+        checkState(!closed, "change feed is already closed");
+        checkArgument(!clients.containsKey(clientId), "client %s is already registered", clientId);
+
+        StrategyBook strategyBook = strategyBooks.get(investmentStrategy);
+        if (strategyBook == null) {
+            strategyBook = new StrategyBook(PortfolioGenerator.ofFundUniverse(investmentStrategy, fundUniverse));
+            strategyBooks.put(investmentStrategy, strategyBook);
+        }
+        val portfolio = strategyBook.portfolioGenerator.generatePortfolio(allAvailableMoney);
+        strategyBook.clientIds.add(clientId);
+        clients.put(clientId, new Client(strategyBook, portfolio));
+        return portfolio;
+    }
+
+    public synchronized boolean unregister(String clientId) {
+        checkNotNull(clientId, "provided client id should not be null");
+
+        val client = clients.remove(clientId);
+        if (client == null) {
+            return false;
+        }
+        client.strategyBook.clientIds.remove(clientId);
+        return true;
+    }
+
+    public Optional<Portfolio> portfolioOf(String clientId) {
+        checkNotNull(clientId, "provided client id should not be null");
+
+        val client = clients.get(clientId);
+        return client == null ? Optional.empty() : Optional.of(client.portfolio);
+    }
+
+    public int getNumberOfClients() {
+        return clients.size();
+    }
+
+    public synchronized FundUniverse getFundUniverse() {
+        return fundUniverse;
+    }
+
+    public Subscription subscribe(Consumer<? super ClientPortfolioUpdate> subscriber, int bufferSize) {
+        checkNotNull(subscriber, "provided subscriber should not be null");
+        checkArgument(bufferSize > 0, "buffer size should be positive");
+
+        synchronized (this) {
+            checkState(!closed, "change feed is already closed");
+            val subscription = new Subscription(subscriber, bufferSize, nextSubscriptionId.getAndIncrement());
+            subscriptions.add(subscription);
+            subscription.deliverer.start();
+            return subscription;
+        }
+    }
+
+    public int apply(FundChange fundChange) {
+        checkNotNull(fundChange, "provided fund change should not be null");
+
+        final ClientPortfolioUpdate[] updates;
+        final long publication;
+        synchronized (this) {
+            checkState(!closed, "change feed is already closed");
+            updates = regenerate(fundChange);
+            publication = startedPublications++;
+        }
+
+        awaitCompletedPublications(publication);
+        try {
+            for (val update : updates) {
+                publish(update);
+            }
+        } finally {
+            completePublication();
+        }
+        return updates.length;
+    }
+
+    @Override
+    public void close() {
+        final long publicationsToComplete;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            publicationsToComplete = startedPublications;
+        }
+        awaitCompletedPublications(publicationsToComplete);
+        for (val subscription : subscriptions) {
+            try {
+                subscription.deliverer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static FundUniverse changed(FundUniverse fundUniverse, FundChange fundChange, Set<FundType> affectedFundTypes) {
+        val fund = fundChange.getFund();
+        val existingFund = fundUniverse.fund(fund.getId());
+        switch (fundChange.getType()) {
+            case FUND_ADDED:
+                checkArgument(existingFund == null, "fund with id %s already exists", fund.getId());
+                affectedFundTypes.add(fund.getType());
+                return fundUniverse.withFund(fund);
+            case FUND_CLOSED:
+                checkArgument(existingFund != null, "fund with id %s not found", fund.getId());
+                affectedFundTypes.add(existingFund.getType());
+                return fundUniverse.withoutFund(fund.getId());
+            case FUND_RECLASSIFIED:
+                checkArgument(existingFund != null, "fund with id %s not found", fund.getId());
+                checkArgument(existingFund.getType() != fund.getType(), "fund with id %s is already of type %s", fund.getId(), fund.getType());
+                affectedFundTypes.add(existingFund.getType());
+                affectedFundTypes.add(fund.getType());
+                return fundUniverse.withoutFund(fund.getId()).withFund(fund);
+            default:
+                throw new IllegalArgumentException("unsupported fund change " + fundChange.getType());
+        }
+    }
+
+    private static boolean investsInAnyOf(CompiledInvestmentStrategy investmentStrategy, Set<FundType> fundTypes) {
+        for (val fundType : fundTypes) {
+            if (investmentStrategy.getBasisPoints(fundType) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ClientPortfolioUpdate[] regenerate(FundChange fundChange) {
+        val affectedFundTypes = EnumSet.noneOf(FundType.class);
+        val changedFundUniverse = changed(fundUniverse, fundChange, affectedFundTypes);
+
+        val clientIds = new ArrayList<String>();
+        val portfolioGenerators = new ArrayList<PortfolioGenerator>();
+        for (val strategyBook : strategyBooks.values()) {
+            strategyBook.portfolioGenerator = PortfolioGenerator.ofFundUniverse(strategyBook.portfolioGenerator.getInvestmentStrategy(), changedFundUniverse);
+            if (investsInAnyOf(strategyBook.portfolioGenerator.getInvestmentStrategy(), affectedFundTypes)) {
+                for (val clientId : strategyBook.clientIds) {
+                    clientIds.add(clientId);
+                    portfolioGenerators.add(strategyBook.portfolioGenerator);
+                }
+            }
+        }
+        fundUniverse = changedFundUniverse;
+
+        val updates = new ClientPortfolioUpdate[clientIds.size()];
+        val numberOfChunks = Math.min(clientIds.size(), parallelism * CHUNKS_PER_WORKER);
+        val chunks = new ArrayList<CompletableFuture<Void>>(numberOfChunks);
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            val from = (int) ((long) clientIds.size() * chunk / numberOfChunks);
+            val to = (int) ((long) clientIds.size() * (chunk + 1) / numberOfChunks);
+            chunks.add(CompletableFuture.runAsync(() -> regenerate(fundChange, clientIds, portfolioGenerators, updates, from, to), executor));
+        }
+        CompletableFutures.awaitAll(chunks);
+        return updates;
+    }
+
+    private void regenerate(FundChange fundChange, List<String> clientIds, List<PortfolioGenerator> portfolioGenerators,
+                            ClientPortfolioUpdate[] updates, int from, int to) {
+        for (int i = from; i < to; i++) {
+            val clientId = clientIds.get(i);
+            val client = clients.get(clientId);
+            val previousPortfolio = client.portfolio;
+            val portfolio = portfolioGenerators.get(i).regenerate(previousPortfolio, previousPortfolio.totalMoney());
+            client.portfolio = portfolio;
+            updates[i] = ClientPortfolioUpdate.of(clientId, fundChange, previousPortfolio, portfolio);
+        }
+    }
+
+    private void awaitCompletedPublications(long numberOfPublications) {
+        boolean interrupted = false;
+        synchronized (publications) {
+            while (completedPublications != numberOfPublications) {
+                try {
+                    publications.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void completePublication() {
+        synchronized (publications) {
+            completedPublications++;
+            publications.notifyAll();
+        }
+    }
+
+    private void publish(ClientPortfolioUpdate update) {
+        try {
+            for (val subscription : subscriptions) {
+                subscription.offer(update);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while publishing update of client " + update.getClientId(), e);
+        }
+    }
+
+    public final class Subscription {
+        private final Consumer<? super ClientPortfolioUpdate> subscriber;
+        private final ArrayBlockingQueue<ClientPortfolioUpdate> buffer;
+        private final Thread deliverer;
+        private final AtomicLong deliveredUpdates = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile RuntimeException failure;
+
+        private Subscription(Consumer<? super ClientPortfolioUpdate> subscriber, int bufferSize, int id) {
+            this.subscriber = subscriber;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.deliverer = new Thread(this::deliver, "portfolio-change-feed-subscriber-" + id);
+            this.deliverer.setDaemon(true);
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public int getBufferedUpdates() {
+            return buffer.size();
+        }
+
+        public long getDeliveredUpdates() {
+            return deliveredUpdates.get();
+        }
+
+        public Optional<RuntimeException> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+
+        private void offer(ClientPortfolioUpdate update) throws InterruptedException {
+            while (!cancelled) {
+                if (buffer.offer(update, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        private void deliver() {
+            try {
+                while (!cancelled) {
+                    val update = buffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (update == null) {
+                        if (closed) {
+                            return;
+                        }
+                        continue;
+                    }
+                    subscriber.accept(update);
+                    deliveredUpdates.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                failure = e;
+                cancel();
+            }
+        }
+    }
+
+    private static final class StrategyBook {
+        private final Set<String> clientIds = new LinkedHashSet<>();
+        private PortfolioGenerator portfolioGenerator;
+
+        private StrategyBook(PortfolioGenerator portfolioGenerator) {
+            this.portfolioGenerator = portfolioGenerator;
+        }
+    }
+
+    private static final class Client {
+        private final StrategyBook strategyBook;
+        private volatile Portfolio portfolio;
+
+        private Client(StrategyBook strategyBook, Portfolio portfolio) {
+            this.strategyBook = strategyBook;
+            this.portfolio = portfolio;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.lajming.investmentsapp;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.joda.money.Money;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PortfolioDelta {
+
+    public enum Type {
+        MONEY_CHANGE,
+        FUND_ADDED,
+        FUND_REMOVED
+    }
+
+    private final Type type;
+    private final Money moneyChange;
+    private final Fund fund;
+
+    public static PortfolioDelta deposit(Money amount) {
+        checkNotNull(amount, "provided money should not be null");
+        checkArgument(amount.isPositiveOrZero(), "negative amount of money provided");
+
+        return new PortfolioDelta(Type.MONEY_CHANGE, amount, null);
+    }
+
+    public static PortfolioDelta withdrawal(Money amount) {
+        checkNotNull(amount, "provided money should not be null");
+        checkArgument(amount.isPositiveOrZero(), "negative amount of money provided");
+
+        return new PortfolioDelta(Type.MONEY_CHANGE, amount.negated(), null);
+    }
+
+    public static PortfolioDelta fundAdded(Fund fund) {
+        checkNotNull(fund, "provided fund should not be null");
+
+        return new PortfolioDelta(Type.FUND_ADDED, null, fund);
+    }
+
+    public static PortfolioDelta fundRemoved(Fund fund) {
+        checkNotNull(fund, "provided fund should not be null");
+
+        return new PortfolioDelta(Type.FUND_REMOVED, null, fund);
+    }
+}
@@ -0,0 +1,198 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+
+public class PortfolioDiff {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    private PortfolioDiff(Executor executor, int parallelism) {
+        checkNotNull(executor, "provided executor should not be null");
+        checkArgument(parallelism > 0, "parallelism should be positive");
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public static PortfolioDiff create() {
+        return of(ForkJoinPool.commonPool());
+    }
+
+    public static PortfolioDiff of(ForkJoinPool forkJoinPool) {
+        checkNotNull(forkJoinPool, "provided executor should not be null");
+
+        return new PortfolioDiff(forkJoinPool, forkJoinPool.getParallelism());
+    }
+
+    public static PortfolioDiff of(Executor executor, int parallelism) {
+        return new PortfolioDiff(executor, parallelism);
+    }
+
+    public static RebalancingPlan diff(Portfolio current, Portfolio target) {
+        checkNotNull(current, "provided current portfolio should not be null");
+        checkNotNull(target, "provided target portfolio should not be null");
+
+        val currentColumns = PortfolioItemColumns.of(current);
+        val targetColumns = PortfolioItemColumns.of(target);
+        val currencyUnit = currentColumns.currencyUnit();
+        checkArgument(currencyUnit.equals(targetColumns.currencyUnit()),
+            "portfolios should have the same currency but got %s and %s", currencyUnit, targetColumns.currencyUnit());
+
+        val currentIndex = FundIdIndex.of(currentColumns);
+        val matched = new boolean[currentColumns.size()];
+        val orders = new ArrayList<RebalancingOrder>(currentColumns.size() + targetColumns.size());
+        long netCash = 0;
+
+        for (int i = 0; i < targetColumns.size(); i++) {
+            val fund = targetColumns.fundAt(i);
+            val currentPosition = currentIndex.indexOf(fund.getId());
+            long currentAmount = 0;
+            if (currentPosition >= 0) {
+                checkArgument(!matched[currentPosition], "fund with id %s appears more than once in target portfolio", fund.getId());
+                matched[currentPosition] = true;
+                currentAmount = currentColumns.amountAt(currentPosition);
+            }
+            val delta = Math.subtractExact(targetColumns.amountAt(i), currentAmount);
+            netCash = Math.subtractExact(netCash, delta);
+            orders.add(RebalancingOrder.of(typeOf(delta), fund, toMoney(currencyUnit, delta)));
+        }
+
+        for (int i = 0; i < currentColumns.size(); i++) {
+            if (!matched[i]) {
+                val delta = Math.negateExact(currentColumns.amountAt(i));
+                netCash = Math.subtractExact(netCash, delta);
+                orders.add(RebalancingOrder.of(typeOf(delta), currentColumns.fundAt(i), toMoney(currencyUnit, delta)));
+            }
+        }
+
+        return RebalancingPlan.of(Collections.unmodifiableList(orders), toMoney(currencyUnit, netCash));
+    }
+
+    public static RebalancingPlan rebalance(Portfolio current, PortfolioGenerator portfolioGenerator) {
+        checkNotNull(current, "provided current portfolio should not be null");
+        checkNotNull(portfolioGenerator, "provided portfolio generator should not be null");
+
+        return diff(current, portfolioGenerator.generatePortfolio(current.totalMoney()));
+    }
+
+    public <K> Map<K, RebalancingPlan> diffBook(Map<K, Portfolio> currentBook, Map<K, Portfolio> targetBook) {
+        checkNotNull(currentBook, "provided current book should not be null");
+        checkNotNull(targetBook, "provided target book should not be null");
+
+        val clients = new LinkedHashSet<K>(currentBook.keySet());
+        clients.addAll(targetBook.keySet());
+        val clientList = new ArrayList<K>(clients);
+        val plans = new RebalancingPlan[clientList.size()];
+        val chunkSize = chunkSize(clientList.size());
+        val chunks = new ArrayList<CompletableFuture<Void>>();
+
+        for (int from = 0; from < clientList.size(); from += chunkSize) {
+            val chunkFrom = from;
+            val chunkTo = Math.min(from + chunkSize, clientList.size());
+            chunks.add(CompletableFuture.runAsync(() -> diffChunk(clientList, currentBook, targetBook, plans, chunkFrom, chunkTo), executor));
+        }
+
+        CompletableFutures.awaitAll(chunks);
+
+        val result = new LinkedHashMap<K, RebalancingPlan>(clientList.size() * 2);
+        for (int i = 0; i < plans.length; i++) {
+            result.put(clientList.get(i), plans[i]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static <K> void diffChunk(List<K> clients, Map<K, Portfolio> currentBook, Map<K, Portfolio> targetBook, RebalancingPlan[] plans, int from, int to) {
+        for (int i = from; i < to; i++) {
+            val client = clients.get(i);
+            Portfolio current = currentBook.get(client);
+            Portfolio target = targetBook.get(client);
+            if (current == null) {
+                current = Portfolio.emptyPortfolioWithReminder(Money.zero(target.getReminder().getCurrencyUnit()));
+            }
+            if (target == null) {
+                target = Portfolio.emptyPortfolioWithReminder(Money.zero(current.getReminder().getCurrencyUnit()));
+            }
+            plans[i] = diff(current, target);
+        }
+    }
+
+    private static RebalancingOrder.Type typeOf(long delta) {
+        if (delta > 0) {
+            return RebalancingOrder.Type.BUY;
+        }
+        return delta < 0 ? RebalancingOrder.Type.SELL : RebalancingOrder.Type.HOLD;
+    }
+
+    private int chunkSize(int numberOfClients) {
+        val numberOfChunks = parallelism * CHUNKS_PER_WORKER;
+        return Math.max(1, (numberOfClients + numberOfChunks - 1) / numberOfChunks);
+    }
+
+    private static final class FundIdIndex {
+        private static final int EMPTY = -1;
+
+        private final long[] ids;
+        private final int[] positions;
+        private final int mask;
+
+        private FundIdIndex(int capacity) {
+            this.ids = new long[capacity];
+            this.positions = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(positions, EMPTY);
+        }
+
+        private static FundIdIndex of(PortfolioItemColumns columns) {
+            val index = new FundIdIndex(Integer.highestOneBit(Math.max(2, columns.size()) * 2 - 1) << 1);
+            for (int i = 0; i < columns.size(); i++) {
+                index.put(columns.fundAt(i).getId(), i);
+            }
+            return index;
+        }
+
+        private void put(long id, int position) {
+            int slot = slotOf(id);
+            while (positions[slot] != EMPTY) {
+                checkArgument(ids[slot] != id, "fund with id %s appears more than once in current portfolio", id);
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            positions[slot] = position;
+        }
+
+        private int indexOf(long id) {
+            int slot = slotOf(id);
+            while (positions[slot] != EMPTY) {
+                if (ids[slot] == id) {
+                    return positions[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return EMPTY;
+        }
+
+        private int slotOf(long id) {
+            long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PortfolioGenerationMetrics implements PortfolioMetricsSink {
+
+    private final Map<SeriesKey, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<EmptyPortfolioReason, LongAdder>> emptyPortfolios = new ConcurrentHashMap<>();
+
+    @Override
+    public void portfolioGenerated(CompiledInvestmentStrategy investmentStrategy, int numberOfFunds, long durationNanos) {
+        latencies
+            .computeIfAbsent(SeriesKey.of(investmentStrategy.getName(), fundCountBucket(numberOfFunds)), key -> new LatencyHistogram())
+            .record(durationNanos);
+    }
+
+    @Override
+    public void emptyPortfolioGenerated(CompiledInvestmentStrategy investmentStrategy, int numberOfFunds, EmptyPortfolioReason reason) {
+        emptyPortfolios
+            .computeIfAbsent(investmentStrategy.getName(), name -> emptyPortfolioCounters())
+            .get(reason)
+            .increment();
+    }
+
+    public long getGenerations(String investmentStrategyName, int numberOfFunds) {
+        val histogram = latencies.get(SeriesKey.of(investmentStrategyName, fundCountBucket(numberOfFunds)));
+        return histogram == null ? 0 : histogram.count();
+    }
+
+    public Duration getLatency(String investmentStrategyName, int numberOfFunds, double percentile) {
+        val histogram = latencies.get(SeriesKey.of(investmentStrategyName, fundCountBucket(numberOfFunds)));
+        return Duration.ofNanos(histogram == null ? 0 : histogram.percentile(percentile));
+    }
+
+    public long getEmptyPortfolios(String investmentStrategyName, EmptyPortfolioReason reason) {
+        val counters = emptyPortfolios.get(investmentStrategyName);
+        return counters == null ? 0 : counters.get(reason).sum();
+    }
+
+    public static int fundCountBucket(int numberOfFunds) {
+        int bucket = numberOfFunds > 0 ? 1 : 0;
+        while (bucket > 0 && bucket <= numberOfFunds / 10) {
+            bucket *= 10;
+        }
+        return bucket;
+    }
+
+    @Override
+    public String toString() {
+        val report = new StringBuilder(PortfolioGenerationMetrics.class.getSimpleName()).append('(');
+        latencies.forEach((key, histogram) -> report
+            .append(System.lineSeparator())
+            .append(key.getInvestmentStrategyName()).append(" funds>=").append(key.getFundCountBucket())
+            .append(": count=").append(histogram.count())
+            .append(", p50=").append(histogram.percentile(50)).append("ns")
+            .append(", p99=").append(histogram.percentile(99)).append("ns")
+            .append(", max=").append(histogram.max()).append("ns"));
+        emptyPortfolios.forEach((name, counters) -> counters.forEach((reason, counter) -> {
+            if (counter.sum() > 0) {
+                report.append(System.lineSeparator()).append(name).append(' ').append(reason).append(": ").append(counter.sum());
+            }
+        }));
+        return report.append(')').toString();
+    }
+
+    private static Map<EmptyPortfolioReason, LongAdder> emptyPortfolioCounters() {
+        val counters = new EnumMap<EmptyPortfolioReason, LongAdder>(EmptyPortfolioReason.class);
+        for (val reason : EmptyPortfolioReason.values()) {
+            counters.put(reason, new LongAdder());
+        }
+        return counters;
+    }
+
+    @Value(staticConstructor = "of")
+    private static class SeriesKey {
+        private final String investmentStrategyName;
+        private final int fundCountBucket;
+    }
+}
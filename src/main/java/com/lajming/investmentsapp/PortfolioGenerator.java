@@ -1,100 +1,265 @@
 package com.lajming.investmentsapp;
 
-import com.google.common.collect.Lists;
+import com.google.common.math.LongMath;
 import lombok.val;
+import org.joda.money.CurrencyUnit;
 import org.joda.money.Money;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Multimaps.index;
-import static com.lajming.investmentsapp.CollectionUtils.*;
+import static com.google.common.base.Preconditions.checkState;
 import static com.lajming.investmentsapp.MoneyUtils.*;
-import static com.lajming.investmentsapp.Portfolio.emptyPortfolioWithReminder;
-import static java.util.function.Function.identity;
 
 public class PortfolioGenerator {
 
-    private final Money allAvailableMoney;
-    private final InvestmentStrategy investmentStrategy;
-    private final Collection<Fund> availableFunds;
-    private final Collection<PortfolioItem> portfolioItems;
+    private static final int NUMBER_OF_FUND_TYPES = FundType.values().length;
 
-    private PortfolioGenerator(Money allAvailableMoney, InvestmentStrategy investmentStrategy, Collection<Fund> availableFunds) {
+    private final CompiledInvestmentStrategy investmentStrategy;
+    private final FundUniverse fundUniverse;
+    private final Money boundMoney;
+    private final FundType[] investedFundTypes;
+    private final EmptyPortfolioReason notAbleToInvestReason;
+
+    private PortfolioGenerator(CompiledInvestmentStrategy investmentStrategy, FundUniverse fundUniverse, Money boundMoney) {
         this.investmentStrategy = investmentStrategy;
-        this.availableFunds = availableFunds;
-        this.allAvailableMoney = allAvailableMoney;
-        this.portfolioItems = Lists.newLinkedList();
+        this.fundUniverse = fundUniverse;
+        this.boundMoney = boundMoney;
 
         validateInput();
+
+        this.investedFundTypes = investedFundTypes(investmentStrategy, fundUniverse);
+        this.notAbleToInvestReason = notAbleToInvestReason();
+    }
+
+    public static PortfolioGenerator of(InvestmentStrategy investmentStrategy, Collection<Fund> availableFunds) {
+        return new PortfolioGenerator(compiled(investmentStrategy), FundUniverse.of(availableFunds), null);
+    }
+
+    public static PortfolioGenerator of(CompiledInvestmentStrategy investmentStrategy, Collection<Fund> availableFunds) {
+        return new PortfolioGenerator(investmentStrategy, FundUniverse.of(availableFunds), null);
+    }
+
+    public static PortfolioGenerator ofFundUniverse(InvestmentStrategy investmentStrategy, FundUniverse fundUniverse) {
+        return new PortfolioGenerator(compiled(investmentStrategy), fundUniverse, null);
+    }
+
+    public static PortfolioGenerator ofFundUniverse(CompiledInvestmentStrategy investmentStrategy, FundUniverse fundUniverse) {
+        return new PortfolioGenerator(investmentStrategy, fundUniverse, null);
     }
 
     public static PortfolioGenerator of(Money allAvailableMoney, InvestmentStrategy investmentStrategy, Collection<Fund> availableFunds) {
-        return new PortfolioGenerator(allAvailableMoney, investmentStrategy, availableFunds);
+        checkNotNull(allAvailableMoney, "provided money should not be null");
+
+        return new PortfolioGenerator(compiled(investmentStrategy), FundUniverse.of(availableFunds), allAvailableMoney);
     }
 
     public Portfolio generatePortfolio() {
-        val fundTypesToFundsMap = index(availableFunds, Fund::getType);
-        val moneyAmountPerEachFundGroup = toMap(fundTypesToFundsMap.keySet(), identity(), amountForFundType());
+        checkState(boundMoney != null, "no money bound to the generator");
+
+        return generatePortfolio(boundMoney);
+    }
+
+    public Portfolio generatePortfolio(Money allAvailableMoney) {
+        return generate(allAvailableMoney, PortfolioAllocation::toPortfolio);
+    }
+
+    public Portfolio generateCompactPortfolio(Money allAvailableMoney) {
+        return generate(allAvailableMoney, PortfolioAllocation::toCompactPortfolio);
+    }
 
-        if (notAbleToGeneratePortfolio(moneyAmountPerEachFundGroup)) {
-            return emptyPortfolioWithReminder(allAvailableMoney);
+    public PortfolioStream streamPortfolio(Money allAvailableMoney) {
+        return new PortfolioStream(allocate(allAvailableMoney));
+    }
+
+    public Portfolio regenerate(Portfolio previousPortfolio, Money allAvailableMoney) {
+        checkNotNull(previousPortfolio, "provided portfolio should not be null");
+
+        val previousItems = previousPortfolio.getPortfolioItems() instanceof GroupedPortfolioItems
+            ? (GroupedPortfolioItems) previousPortfolio.getPortfolioItems()
+            : null;
+        return generate(allAvailableMoney, allocation -> allocation.toPortfolio(previousItems));
+    }
+
+    public PortfolioUpdate apply(Portfolio previousPortfolio, PortfolioDelta portfolioDelta) {
+        checkNotNull(previousPortfolio, "provided portfolio should not be null");
+        checkNotNull(portfolioDelta, "provided delta should not be null");
+
+        val previousMoney = previousPortfolio.totalMoney();
+        switch (portfolioDelta.getType()) {
+            case MONEY_CHANGE:
+                return PortfolioUpdate.of(this, regenerate(previousPortfolio, previousMoney.plus(portfolioDelta.getMoneyChange())));
+            case FUND_ADDED:
+                val generatorWithFund = withFundAdded(portfolioDelta.getFund());
+                return PortfolioUpdate.of(generatorWithFund, generatorWithFund.regenerate(previousPortfolio, previousMoney));
+            case FUND_REMOVED:
+                val generatorWithoutFund = withFundRemoved(portfolioDelta.getFund().getId());
+                return PortfolioUpdate.of(generatorWithoutFund, generatorWithoutFund.regenerate(previousPortfolio, previousMoney));
+            default:
+                throw new IllegalArgumentException("unsupported delta " + portfolioDelta.getType());
         }
+    }
+
+    public PortfolioGenerator withFundAdded(Fund fund) {
+        return new PortfolioGenerator(investmentStrategy, fundUniverse.withFund(fund), boundMoney);
+    }
 
-        val investedMoney = sumMoney(moneyAmountPerEachFundGroup.values());
-        val reminder = allAvailableMoney.minus(investedMoney);
+    public PortfolioGenerator withFundRemoved(long fundId) {
+        return new PortfolioGenerator(investmentStrategy, fundUniverse.withoutFund(fundId), boundMoney);
+    }
 
-        for (val fundType : fundTypesToFundsMap.keySet()) {
-            val funds = fundTypesToFundsMap.get(fundType);
-            val moneyAmountForGroup = moneyAmountPerEachFundGroup.get(fundType);
-            val averageAmount = divideMoney(moneyAmountForGroup, funds.size());
-            val predictedInvestment = averageAmount.multipliedBy(funds.size());
-            val groupReminder = moneyAmountForGroup.minus(predictedInvestment);
-            val firstItemAmount = averageAmount.plus(groupReminder);
+    public boolean isFeasible(Money allAvailableMoney) {
+        validateMoney(allAvailableMoney);
 
-            BigDecimal averagePercentage = calculatePercentage(investedMoney, averageAmount);
-            BigDecimal firstItemPercentage = calculatePercentage(investedMoney, firstItemAmount);
-            portfolioItems.add(PortfolioItem.of(firstElement(funds), firstItemAmount, firstItemPercentage));
+        return allAvailableMoney.getAmountMinorLong() >= minimumFeasibleAmount(minorUnitsPerUnit(allAvailableMoney.getCurrencyUnit()));
+    }
 
-            for (val fund : allElementsExceptFirst(funds)) {
-                portfolioItems.add(PortfolioItem.of(fund, averageAmount, averagePercentage));
-            }
+    public Optional<Money> minimumFeasibleAmount(CurrencyUnit currencyUnit) {
+        checkNotNull(currencyUnit, "provided currency should not be null");
+
+        val minimumFeasibleAmount = minimumFeasibleAmount(minorUnitsPerUnit(currencyUnit));
+        return minimumFeasibleAmount == Long.MAX_VALUE
+            ? Optional.empty()
+            : Optional.of(toMoney(currencyUnit, minimumFeasibleAmount));
+    }
+
+    public CompiledInvestmentStrategy getInvestmentStrategy() {
+        return investmentStrategy;
+    }
+
+    public FundUniverse getFundUniverse() {
+        return fundUniverse;
+    }
+
+    private Portfolio generate(Money allAvailableMoney, Function<PortfolioAllocation, Portfolio> materialization) {
+        val metricsSink = PortfolioMetrics.sink();
+        if (metricsSink == null) {
+            return materialization.apply(allocate(allAvailableMoney));
+        }
+
+        val start = System.nanoTime();
+        val allocation = allocate(allAvailableMoney);
+        val portfolio = materialization.apply(allocation);
+        metricsSink.portfolioGenerated(investmentStrategy, fundUniverse.size(), System.nanoTime() - start);
+        if (allocation.emptyReason() != null) {
+            metricsSink.emptyPortfolioGenerated(investmentStrategy, fundUniverse.size(), allocation.emptyReason());
+        }
+        return portfolio;
+    }
+
+    PortfolioAllocation allocate(Money allAvailableMoney) {
+        validateMoney(allAvailableMoney);
+
+        val event = FlightRecorderEvents.allocationStarted();
+        val allocation = allocateAmounts(allAvailableMoney);
+        FlightRecorderEvents.allocationFinished(event, investmentStrategy, fundUniverse, allocation);
+        return allocation;
+    }
+
+    private PortfolioAllocation allocateAmounts(Money allAvailableMoney) {
+        if (notAbleToInvestReason != null) {
+            return PortfolioAllocation.notInvested(fundUniverse, allAvailableMoney, notAbleToInvestReason);
         }
 
-        return Portfolio.of(portfolioItems, reminder);
+        val minorUnitsPerUnit = minorUnitsPerUnit(allAvailableMoney.getCurrencyUnit());
+        val allAvailableAmount = allAvailableMoney.getAmountMinorLong();
+
+        if (allAvailableAmount < minimumFeasibleAmount(minorUnitsPerUnit)) {
+            return PortfolioAllocation.notInvested(fundUniverse, allAvailableMoney, EmptyPortfolioReason.GROUP_UNDER_ONE_UNIT);
+        }
+
+        return allocation(allAvailableMoney, amountsPerEachFundGroup(allAvailableAmount, minorUnitsPerUnit));
+    }
+
+    PortfolioAllocation allocation(Money allAvailableMoney, long[] amountPerEachFundGroup) {
+        return PortfolioAllocation.of(fundUniverse, allAvailableMoney, investedFundTypes, amountPerEachFundGroup);
+    }
+
+    long[] amountsPerEachFundGroup(long allAvailableAmount, long minorUnitsPerUnit) {
+        val amountPerEachFundGroup = new long[NUMBER_OF_FUND_TYPES];
+        for (val fundType : investedFundTypes) {
+            amountPerEachFundGroup[fundType.ordinal()] = amountForFundType(allAvailableAmount, fundType, minorUnitsPerUnit);
+        }
+        return amountPerEachFundGroup;
+    }
+
+    long minimumFeasibleAmount(long minorUnitsPerUnit) {
+        if (notAbleToInvestReason != null) {
+            return Long.MAX_VALUE;
+        }
+
+        long minimumFeasibleAmount = 0;
+        for (val fundType : investedFundTypes) {
+            minimumFeasibleAmount = Math.max(minimumFeasibleAmount, amountReaching(minorUnitsPerUnit, fundType));
+        }
+        return minimumFeasibleAmount;
+    }
+
+    long amountReaching(long groupAmount, FundType fundType) {
+        return LongMath.divide(
+            Math.multiplyExact(groupAmount, BASIS_POINTS_IN_WHOLE),
+            investmentStrategy.basisPoints(fundType.ordinal()),
+            RoundingMode.CEILING
+        );
+    }
+
+    FundType[] investedFundTypes() {
+        return investedFundTypes;
     }
 
     private void validateInput() {
         checkNotNull(investmentStrategy, "provided investment strategy should not be null");
-        checkNotNull(availableFunds, "provided funds should not be null");
+        checkNotNull(fundUniverse, "provided funds should not be null");
+        if (boundMoney != null) {
+            validateMoney(boundMoney);
+        }
+    }
+
+    private static void validateMoney(Money allAvailableMoney) {
         checkNotNull(allAvailableMoney, "provided money should not be null");
         checkArgument(allAvailableMoney.isPositiveOrZero(), "negative amount of money provided");
     }
 
-    private boolean notAbleToGeneratePortfolio(Map<FundType, Money> amountPerEachFundGroup) {
-        return noFundsProvided()
-            || fundsMissingForAtLeastOneTypeOfFunds(amountPerEachFundGroup)
-            || anyGroupWillGetAmountLessThanOne(amountPerEachFundGroup);
+    private EmptyPortfolioReason notAbleToInvestReason() {
+        if (noFundsProvided()) {
+            return EmptyPortfolioReason.NO_FUNDS;
+        }
+        if (fundsMissingForAtLeastOneTypeOfFunds()) {
+            return EmptyPortfolioReason.MISSING_FUND_TYPE;
+        }
+        return null;
     }
 
     private boolean noFundsProvided() {
-        return availableFunds.isEmpty();
+        return fundUniverse.isEmpty();
+    }
+
+    private boolean fundsMissingForAtLeastOneTypeOfFunds() {
+        for (val fundType : investmentStrategy.fundTypes()) {
+            if (fundUniverse.fundCount(fundType.ordinal()) == 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean fundsMissingForAtLeastOneTypeOfFunds(Map<FundType, Money> amountPerEachFundGroup) {
-        return !amountPerEachFundGroup.keySet().containsAll(investmentStrategy.getFundTypes());
+    private long amountForFundType(long allAvailableAmount, FundType fundType, long minorUnitsPerUnit) {
+        return multiplyByBasisPoints(allAvailableAmount, investmentStrategy.basisPoints(fundType.ordinal()), minorUnitsPerUnit);
     }
 
-    private boolean anyGroupWillGetAmountLessThanOne(Map<FundType, Money> amountPerEachFundGroup) {
-        return anyAmountLessThanOne(amountPerEachFundGroup.values());
+    private static CompiledInvestmentStrategy compiled(InvestmentStrategy investmentStrategy) {
+        return investmentStrategy == null ? null : investmentStrategy.compiled();
     }
 
-    private Function<FundType, Money> amountForFundType() {
-        return fundType -> multiplyByPercentage(allAvailableMoney, investmentStrategy.getPercentage(fundType));
+    private static FundType[] investedFundTypes(CompiledInvestmentStrategy investmentStrategy, FundUniverse fundUniverse) {
+        return Arrays.stream(fundUniverse.fundTypesInEncounterOrder())
+            .filter(fundType -> investmentStrategy.basisPoints(fundType.ordinal()) > 0)
+            .toArray(FundType[]::new);
     }
 
 }
@@ -1,8 +1,10 @@
 package com.lajming.investmentsapp;
 
+import com.google.common.collect.ImmutableMap;
 import org.joda.money.Money;
 
 import java.util.Collection;
+import java.util.Map;
 
 class PortfolioGeneratorFactory {
     public static PortfolioGenerator conservativePortfolioGenerator(Money money, Collection<Fund> funds) {
@@ -16,4 +18,23 @@ class PortfolioGeneratorFactory {
     public static PortfolioGenerator aggressivePortfolioGenerator(Money money, Collection<Fund> funds) {
         return PortfolioGenerator.of(money, InvestmentStrategy.AGGRESSIVE, funds);
     }
+
+    public static PortfolioGenerator conservativePortfolioGenerator(FundUniverse fundUniverse) {
+        return PortfolioGenerator.ofFundUniverse(InvestmentStrategy.CONSERVATIVE, fundUniverse);
+    }
+
+    public static PortfolioGenerator balancedPortfolioGenerator(FundUniverse fundUniverse) {
+        return PortfolioGenerator.ofFundUniverse(InvestmentStrategy.BALANCED, fundUniverse);
+    }
+
+    public static PortfolioGenerator aggressivePortfolioGenerator(FundUniverse fundUniverse) {
+        return PortfolioGenerator.ofFundUniverse(InvestmentStrategy.AGGRESSIVE, fundUniverse);
+    }
+
+    public static Map<String, PortfolioGenerator> portfolioGenerators(Map<String, CompiledInvestmentStrategy> investmentStrategies, FundUniverse fundUniverse) {
+        ImmutableMap.Builder<String, PortfolioGenerator> portfolioGenerators = ImmutableMap.builder();
+        investmentStrategies.forEach((name, investmentStrategy) ->
+            portfolioGenerators.put(name, PortfolioGenerator.ofFundUniverse(investmentStrategy, fundUniverse)));
+        return portfolioGenerators.build();
+    }
 }
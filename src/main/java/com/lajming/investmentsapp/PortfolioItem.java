@@ -1,20 +1,65 @@
 package com.lajming.investmentsapp;
 
-import lombok.Value;
+import lombok.NonNull;
 import lombok.experimental.Delegate;
 import org.joda.money.Money;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
-@Value(staticConstructor = "of")
 class PortfolioItem {
     @Delegate
     private final Fund fund;
     private final Money amount;
-    private final BigDecimal percentage;
+    private final LazyPercentage percentage;
+
+    private PortfolioItem(@NonNull Fund fund, @NonNull Money amount, @NonNull LazyPercentage percentage) {
+        this.fund = fund;
+        this.amount = amount;
+        this.percentage = percentage;
+    }
+
+    static PortfolioItem of(Fund fund, Money amount, BigDecimal percentage) {
+        return new PortfolioItem(fund, amount, LazyPercentage.of(percentage));
+    }
+
+    static PortfolioItem of(Fund fund, Money amount, LazyPercentage percentage) {
+        return new PortfolioItem(fund, amount, percentage);
+    }
+
+    public Fund getFund() {
+        return fund;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public BigDecimal getPercentage() {
+        return percentage.get();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PortfolioItem)) {
+            return false;
+        }
+        PortfolioItem otherItem = (PortfolioItem) other;
+        return fund.equals(otherItem.fund)
+            && amount.equals(otherItem.amount)
+            && getPercentage().equals(otherItem.getPercentage());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fund, amount, getPercentage());
+    }
 
     @Override
     public String toString() {
-        return PortfolioItem.class.getSimpleName() + "(fund=" + fund + ", " + "amount=" + amount + ", percentage=" + percentage.toPlainString() + "%)";
+        return PortfolioItem.class.getSimpleName() + "(fund=" + fund + ", " + "amount=" + amount + ", percentage=" + getPercentage().toPlainString() + "%)";
     }
 }
@@ -0,0 +1,80 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+
+
+interface PortfolioItemColumns {
+
+    CurrencyUnit currencyUnit();
+
+    long investedAmount();
+
+    int size();
+
+    Fund fundAt(int index);
+
+    long amountAt(int index);
+
+    static PortfolioItemColumns of(Portfolio portfolio) {
+        val portfolioItems = portfolio.getPortfolioItems();
+        if (portfolioItems instanceof PortfolioItemColumns) {
+            return (PortfolioItemColumns) portfolioItems;
+        }
+        return ItemsAsColumns.of(portfolio);
+    }
+
+    final class ItemsAsColumns implements PortfolioItemColumns {
+        private final CurrencyUnit currencyUnit;
+        private final Fund[] funds;
+        private final long[] amounts;
+        private final long investedAmount;
+
+        private ItemsAsColumns(CurrencyUnit currencyUnit, Fund[] funds, long[] amounts, long investedAmount) {
+            this.currencyUnit = currencyUnit;
+            this.funds = funds;
+            this.amounts = amounts;
+            this.investedAmount = investedAmount;
+        }
+
+        private static ItemsAsColumns of(Portfolio portfolio) {
+            val portfolioItems = portfolio.getPortfolioItems();
+            val funds = new Fund[portfolioItems.size()];
+            val amounts = new long[portfolioItems.size()];
+            long investedAmount = 0;
+            int index = 0;
+            for (val portfolioItem : portfolioItems) {
+                funds[index] = portfolioItem.getFund();
+                amounts[index] = portfolioItem.getAmount().getAmountMinorLong();
+                investedAmount = Math.addExact(investedAmount, amounts[index]);
+                index++;
+            }
+            return new ItemsAsColumns(portfolio.getReminder().getCurrencyUnit(), funds, amounts, investedAmount);
+        }
+
+        @Override
+        public CurrencyUnit currencyUnit() {
+            return currencyUnit;
+        }
+
+        @Override
+        public long investedAmount() {
+            return investedAmount;
+        }
+
+        @Override
+        public int size() {
+            return funds.length;
+        }
+
+        @Override
+        public Fund fundAt(int index) {
+            return funds[index];
+        }
+
+        @Override
+        public long amountAt(int index) {
+            return amounts[index];
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+final class PortfolioJson {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private PortfolioJson() {
+    }
+
+    static byte[] render(Portfolio portfolio) {
+        val json = new ByteArrayOutputStream();
+        val output = ReportOutput.of(json);
+        append(output, portfolio);
+        output.flush();
+        return json.toByteArray();
+    }
+
+    static byte[] render(List<Portfolio> portfolios) {
+        val json = new ByteArrayOutputStream();
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.JSON, json)) {
+            portfolios.forEach(writer::write);
+        }
+        return json.toByteArray();
+    }
+
+    static String quote(String value) {
+        val quoted = new StringBuilder(value.length() + 2);
+        val output = ReportOutput.of(quoted);
+        appendQuoted(output, value);
+        output.flush();
+        return quoted.toString();
+    }
+
+    static void append(ReportOutput json, Portfolio portfolio) {
+        val columns = PortfolioItemColumns.of(portfolio);
+        val reminder = portfolio.getReminder();
+        val scale = reminder.getCurrencyUnit().getDecimalPlaces();
+
+        json.append("{\"currency\":\"").append(reminder.getCurrencyUnit().getCode())
+            .append("\",\"reminder\":\"").appendDecimal(reminder.getAmountMinorLong(), scale)
+            .append("\",\"items\":[");
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"fundId\":").append(fund.getId())
+                .append(",\"fundType\":\"").append(fund.getType().name())
+                .append("\",\"fundName\":");
+            appendQuoted(json, fund.getName());
+            json.append(",\"amount\":\"").appendDecimal(columns.amountAt(i), scale)
+                .append("\",\"percentage\":\"").appendPercentage(columns.investedAmount(), columns.amountAt(i))
+                .append("\"}");
+        }
+        json.append("]}");
+    }
+
+    private static void appendQuoted(ReportOutput json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            appendEscaped(json, value.charAt(i));
+        }
+        json.append('"');
+    }
+
+    private static void appendEscaped(ReportOutput json, char character) {
+        switch (character) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (character < 0x20) {
+                    json.append("\\u00").append(HEX_DIGITS[character >> 4]).append(HEX_DIGITS[character & 0xF]);
+                } else {
+                    json.append(character);
+                }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.lajming.investmentsapp;
+
+public final class PortfolioMetrics {
+
+    private static volatile PortfolioMetricsSink sink;
+
+    private PortfolioMetrics() {
+    }
+
+    public static void register(PortfolioMetricsSink metricsSink) {
+        sink = metricsSink;
+    }
+
+    public static void unregister() {
+        sink = null;
+    }
+
+    static PortfolioMetricsSink sink() {
+        return sink;
+    }
+}
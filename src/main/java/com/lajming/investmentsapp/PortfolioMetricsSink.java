@@ -0,0 +1,8 @@
+package com.lajming.investmentsapp;
+
+public interface PortfolioMetricsSink {
+
+    void portfolioGenerated(CompiledInvestmentStrategy investmentStrategy, int numberOfFunds, long durationNanos);
+
+    void emptyPortfolioGenerated(CompiledInvestmentStrategy investmentStrategy, int numberOfFunds, EmptyPortfolioReason reason);
+}
@@ -0,0 +1,168 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.OutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.System.lineSeparator;
+
+public final class PortfolioReportWriter implements Flushable, Closeable {
+
+    public enum Format {
+        TABLE,
+        CSV,
+        JSON
+    }
+
+    private static final String CSV_HEADER = "portfolio,fundId,fundType,fundName,currency,amount,percentage";
+    private static final String REMINDER = "REMINDER";
+
+    private final Format format;
+    private final ReportOutput output;
+    private final String lineSeparator;
+    private long numberOfPortfolios;
+    private boolean closed;
+
+    private PortfolioReportWriter(Format format, ReportOutput output, String lineSeparator) {
+        this.format = format;
+        this.output = output;
+        this.lineSeparator = lineSeparator;
+    }
+
+    public static PortfolioReportWriter of(Format format, Appendable appendable) {
+        checkNotNull(format, "provided format should not be null");
+        checkNotNull(appendable, "provided appendable should not be null");
+
+        return new PortfolioReportWriter(format, ReportOutput.of(appendable), lineSeparator());
+    }
+
+    public static PortfolioReportWriter of(Format format, OutputStream outputStream) {
+        checkNotNull(format, "provided format should not be null");
+        checkNotNull(outputStream, "provided output stream should not be null");
+
+        return new PortfolioReportWriter(format, ReportOutput.of(outputStream), lineSeparator());
+    }
+
+    public PortfolioReportWriter write(Portfolio portfolio) {
+        checkNotNull(portfolio, "provided portfolio should not be null");
+        checkState(!closed, "report writer is already closed");
+
+        switch (format) {
+            case TABLE:
+                appendTable(output, portfolio, lineSeparator);
+                output.append(lineSeparator);
+                break;
+            case CSV:
+                if (numberOfPortfolios == 0) {
+                    output.append(CSV_HEADER).append('\n');
+                }
+                appendCsv(portfolio);
+                break;
+            case JSON:
+                output.append(numberOfPortfolios == 0 ? '[' : ',');
+                PortfolioJson.append(output, portfolio);
+                break;
+        }
+        numberOfPortfolios++;
+        return this;
+    }
+
+    public long getNumberOfPortfolios() {
+        return numberOfPortfolios;
+    }
+
+    @Override
+    public void flush() {
+        output.flush();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (format == Format.JSON) {
+            output.append(numberOfPortfolios == 0 ? "[]" : "]");
+        }
+        output.close();
+    }
+
+    static void appendTable(ReportOutput output, Portfolio portfolio, String lineSeparator) {
+        val columns = PortfolioItemColumns.of(portfolio);
+        val currencyCode = columns.currencyUnit().getCode();
+        val scale = columns.currencyUnit().getDecimalPlaces();
+
+        output.append(Portfolio.class.getSimpleName()).append('(').append(lineSeparator);
+        if (columns.size() == 0) {
+            output.append(lineSeparator);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            val amount = columns.amountAt(i);
+            output.append("PortfolioItem(fund=Fund(id=").append(fund.getId())
+                .append(", type=").append(fund.getType().name())
+                .append(", name=").append(fund.getName())
+                .append("), amount=").append(currencyCode).append(' ').appendDecimal(amount, scale)
+                .append(", percentage=").appendPercentage(columns.investedAmount(), amount)
+                .append("%)").append(lineSeparator);
+        }
+        val reminder = portfolio.getReminder();
+        output.append("reminder=").append(currencyCode).append(' ')
+            .appendDecimal(reminder.getAmountMinorLong(), scale)
+            .append(')');
+    }
+
+    private void appendCsv(Portfolio portfolio) {
+        val columns = PortfolioItemColumns.of(portfolio);
+        val currencyCode = columns.currencyUnit().getCode();
+        val scale = columns.currencyUnit().getDecimalPlaces();
+
+        for (int i = 0; i < columns.size(); i++) {
+            val fund = columns.fundAt(i);
+            val amount = columns.amountAt(i);
+            output.append(numberOfPortfolios).append(',')
+                .append(fund.getId()).append(',')
+                .append(fund.getType().name()).append(',');
+            appendCsvField(fund.getName());
+            output.append(',').append(currencyCode)
+                .append(',').appendDecimal(amount, scale)
+                .append(',').appendPercentage(columns.investedAmount(), amount)
+                .append('\n');
+        }
+        output.append(numberOfPortfolios).append(",,").append(REMINDER).append(",,")
+            .append(currencyCode).append(',')
+            .appendDecimal(portfolio.getReminder().getAmountMinorLong(), scale).append(',')
+            .append('\n');
+    }
+
+    private void appendCsvField(String value) {
+        if (!needsQuoting(value)) {
+            output.append(value);
+            return;
+        }
+        output.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            val character = value.charAt(i);
+            if (character == '"') {
+                output.append('"');
+            }
+            output.append(character);
+        }
+        output.append('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            val character = value.charAt(i);
+            if (character == ',' || character == '"' || character == '\n' || character == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
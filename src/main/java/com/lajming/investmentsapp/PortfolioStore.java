@@ -0,0 +1,694 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.hash.Hashing;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.lajming.investmentsapp.Varints.readUnsigned;
+import static com.lajming.investmentsapp.Varints.sizeOfUnsigned;
+import static com.lajming.investmentsapp.Varints.skip;
+import static com.lajming.investmentsapp.Varints.writeUnsigned;
+
+public final class PortfolioStore implements Closeable {
+
+    private static final long DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final long CHECKPOINT_INTERVAL = 4 << 20;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final int SEGMENT_MAGIC = 0x50534C47;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int COMPACTED = 1;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int CLIENT_ID_PREFIX_SIZE = 64;
+
+    private static final String INDEX_FILE_NAME = "index.dat";
+    private static final String SEGMENT_FILE_PATTERN = "segment-*.log";
+    private static final String COMPACTING_FILE_PATTERN = "segment-*.log.compacting";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final AtomicInteger nextSegmentId = new AtomicInteger(1);
+    private final BlockingQueue<PendingAppend> pendingAppends = new LinkedBlockingQueue<>();
+    private final AtomicLong commits = new AtomicLong();
+    private final Thread committer = new Thread(this::commitPendingAppends, "portfolio-store-committer");
+    private PortfolioStoreIndex index;
+    private volatile Segment activeSegment;
+    private int indexedSegmentId;
+    private long bytesSinceCheckpoint;
+    private volatile boolean closed;
+
+    private PortfolioStore(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.committer.setDaemon(true);
+    }
+
+    public static PortfolioStore open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static PortfolioStore open(Path directory, long segmentSize) {
+        checkNotNull(directory, "provided directory should not be null");
+        checkArgument(segmentSize > SEGMENT_HEADER_SIZE, "segment size should be greater than %s bytes", SEGMENT_HEADER_SIZE);
+
+        val store = new PortfolioStore(directory, segmentSize);
+        try {
+            store.recover();
+        } catch (IOException e) {
+            store.closeFiles();
+            throw new UncheckedIOException("unable to open portfolio store in " + directory, e);
+        } catch (RuntimeException e) {
+            store.closeFiles();
+            throw e;
+        }
+        store.committer.start();
+        return store;
+    }
+
+    public CompletableFuture<Void> append(String clientId, Instant timestamp, Portfolio portfolio) {
+        checkNotNull(clientId, "provided client id should not be null");
+        checkArgument(!clientId.isEmpty(), "client id should not be empty");
+        checkNotNull(timestamp, "provided timestamp should not be null");
+        checkNotNull(portfolio, "provided portfolio should not be null");
+
+        val record = encode(clientId, timestamp.toEpochMilli(), PortfolioBinaryWriter.write(portfolio));
+        checkArgument(record.length <= segmentSize - SEGMENT_HEADER_SIZE, "portfolio record of %s bytes does not fit into a segment", record.length);
+
+        val pendingAppend = new PendingAppend(clientId, hash(clientId), timestamp.toEpochMilli(), record);
+        synchronized (pendingAppends) {
+            checkState(!closed, "portfolio store is already closed");
+            pendingAppends.add(pendingAppend);
+        }
+        return pendingAppend.future;
+    }
+
+    public Optional<StoredPortfolio> latest(String clientId) {
+        checkNotNull(clientId, "provided client id should not be null");
+
+        val hash = hash(clientId);
+        lock.readLock().lock();
+        try {
+            checkState(!closed, "portfolio store is already closed");
+            int slot = index.firstSlot(hash);
+            while (!index.isEmpty(slot)) {
+                if (index.hash(slot) == hash) {
+                    val payload = readPayload(segments.get(index.segment(slot)), index.position(slot), index.length(slot));
+                    if (clientIdOf(payload).equals(clientId)) {
+                        return Optional.of(storedPortfolioOf(payload));
+                    }
+                }
+                slot = index.nextSlot(slot);
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read portfolio of client " + clientId + " from store in " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int numberOfClients() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized long compact(Instant retainAfter) {
+        checkNotNull(retainAfter, "provided retention timestamp should not be null");
+        checkState(!closed, "portfolio store is already closed");
+
+        val sealedSegments = new ArrayList<Segment>();
+        lock.readLock().lock();
+        try {
+            for (val segment : segments.values()) {
+                if (segment.compacted || segment.id < indexedSegmentId) {
+                    sealedSegments.add(segment);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long droppedRecords = 0;
+        try {
+            for (val segment : sealedSegments) {
+                droppedRecords += compact(segment, retainAfter.toEpochMilli());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to compact portfolio store in " + directory, e);
+        }
+        return droppedRecords;
+    }
+
+    @Override
+    public synchronized void close() {
+        synchronized (pendingAppends) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.writeLock().lock();
+        try {
+            index.force();
+            index.checkpoint(activeSegment.id, activeSegment.size);
+            index.close();
+        } finally {
+            lock.writeLock().unlock();
+            closeFiles();
+        }
+    }
+
+    long commits() {
+        return commits.get();
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, COMPACTING_FILE_PATTERN)) {
+            for (val file : files) {
+                Files.delete(file);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_FILE_PATTERN)) {
+            for (val file : files) {
+                val segment = Segment.open(segmentIdOf(file), file);
+                segments.put(segment.id, segment);
+            }
+        }
+        if (!segments.isEmpty()) {
+            nextSegmentId.set(segments.lastKey() + 1);
+        }
+
+        Segment lastAppendedSegment = null;
+        for (val segment : segments.values()) {
+            if (!segment.compacted) {
+                lastAppendedSegment = segment;
+            }
+        }
+
+        val indexPath = directory.resolve(INDEX_FILE_NAME);
+        index = PortfolioStoreIndex.open(indexPath);
+        if (index == null) {
+            index = PortfolioStoreIndex.create(indexPath, 0, 0);
+            for (val segment : segments.values()) {
+                recoverSegment(segment, SEGMENT_HEADER_SIZE, segment == lastAppendedSegment);
+            }
+        } else {
+            for (val segment : segments.tailMap(index.checkpointSegment(), true).values()) {
+                if (!segment.compacted) {
+                    val from = segment.id == index.checkpointSegment() ? index.checkpointPosition() : SEGMENT_HEADER_SIZE;
+                    recoverSegment(segment, Math.min(from, segment.size), segment == lastAppendedSegment);
+                }
+            }
+        }
+
+        activeSegment = lastAppendedSegment != null ? lastAppendedSegment : newSegment();
+        indexedSegmentId = activeSegment.id;
+        index.force();
+        index.checkpoint(activeSegment.id, activeSegment.size);
+        index.force();
+    }
+
+    private void recoverSegment(Segment segment, long from, boolean lastAppendedSegment) throws IOException {
+        val end = scan(segment, from, (position, length, payload) ->
+            indexRecord(clientIdOf(payload), timestampOf(payload), segment.id, position, length));
+        if (end < segment.size) {
+            checkState(lastAppendedSegment, "corrupted portfolio store segment %s at position %s", segment.path, end);
+            segment.truncate(end);
+            segment.channel.force(true);
+        }
+    }
+
+    private void commitPendingAppends() {
+        val batch = new ArrayList<PendingAppend>(MAX_BATCH_SIZE);
+        try {
+            while (!closed || !pendingAppends.isEmpty()) {
+                val first = pendingAppends.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pendingAppends.drainTo(batch, MAX_BATCH_SIZE - 1);
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(List<PendingAppend> batch) {
+        val segmentIds = new int[batch.size()];
+        val positions = new long[batch.size()];
+        val batchSegment = activeSegment;
+        val batchStart = batchSegment.size;
+        long batchBytes = 0;
+
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                val record = batch.get(i).record;
+                if (activeSegment.size + record.length > segmentSize) {
+                    roll();
+                }
+                segmentIds[i] = activeSegment.id;
+                positions[i] = activeSegment.size;
+                activeSegment.append(record);
+                batchBytes += record.length;
+            }
+            activeSegment.channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            try {
+                discard(batchSegment, batchStart);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            failAll(batch, e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                val pendingAppend = batch.get(i);
+                indexRecord(pendingAppend.clientId, pendingAppend.hash, pendingAppend.timestamp, segmentIds[i], positions[i], pendingAppend.record.length);
+            }
+            indexedSegmentId = activeSegment.id;
+            bytesSinceCheckpoint += batchBytes;
+            if (bytesSinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                index.force();
+                index.checkpoint(activeSegment.id, activeSegment.size);
+                bytesSinceCheckpoint = 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            failAll(batch, e);
+            return;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        commits.incrementAndGet();
+        batch.forEach(pendingAppend -> pendingAppend.future.complete(null));
+    }
+
+    private void roll() throws IOException {
+        activeSegment.channel.force(false);
+        val segment = newSegment();
+        activeSegment = segment;
+    }
+
+    private Segment newSegment() throws IOException {
+        val id = nextSegmentId.getAndIncrement();
+        val segment = Segment.create(id, segmentPath(id), 0);
+        forceDirectory();
+        lock.writeLock().lock();
+        try {
+            segments.put(id, segment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return segment;
+    }
+
+    private void discard(Segment batchSegment, long batchStart) throws IOException {
+        batchSegment.truncate(batchStart);
+        if (activeSegment != batchSegment) {
+            activeSegment.truncate(SEGMENT_HEADER_SIZE);
+        }
+    }
+
+    private void failAll(List<PendingAppend> batch, Exception cause) {
+        val failure = new UncheckedIOException("unable to append portfolios to store in " + directory,
+            cause instanceof IOException ? (IOException) cause : new IOException(cause));
+        batch.forEach(pendingAppend -> pendingAppend.future.completeExceptionally(failure));
+    }
+
+    private void indexRecord(String clientId, long timestamp, int segmentId, long position, int length) throws IOException {
+        indexRecord(clientId, hash(clientId), timestamp, segmentId, position, length);
+    }
+
+    private void indexRecord(String clientId, long hash, long timestamp, int segmentId, long position, int length) throws IOException {
+        if (index.needsResize()) {
+            index.resize();
+        }
+        int slot = index.firstSlot(hash);
+        while (!index.isEmpty(slot)) {
+            if (index.hash(slot) == hash && clientIdAt(index.segment(slot), index.position(slot)).equals(clientId)) {
+                if (index.timestamp(slot) > timestamp) {
+                    return;
+                }
+                break;
+            }
+            slot = index.nextSlot(slot);
+        }
+        index.put(slot, hash, timestamp, segmentId, position, length);
+    }
+
+    private int latestSlot(long hash, int segmentId, long position) {
+        int slot = index.firstSlot(hash);
+        while (!index.isEmpty(slot)) {
+            if (index.hash(slot) == hash && index.segment(slot) == segmentId && index.position(slot) == position) {
+                return slot;
+            }
+            slot = index.nextSlot(slot);
+        }
+        return PortfolioStoreIndex.NOT_FOUND;
+    }
+
+    private long compact(Segment segment, long retainAfter) throws IOException {
+        val keptPositions = new ArrayList<long[]>();
+        val hashes = new ArrayList<Long>();
+        val numberOfRecords = new long[1];
+        scan(segment, SEGMENT_HEADER_SIZE, (position, length, payload) -> {
+            numberOfRecords[0]++;
+            val hash = hash(clientIdOf(payload));
+            if (timestampOf(payload) >= retainAfter || isLatest(hash, segment.id, position)) {
+                keptPositions.add(new long[] { position, length });
+                hashes.add(hash);
+            }
+        });
+        if (keptPositions.size() == numberOfRecords[0]) {
+            return 0;
+        }
+
+        Segment compacted = null;
+        val newPositions = new long[keptPositions.size()];
+        if (!keptPositions.isEmpty()) {
+            val id = nextSegmentId.getAndIncrement();
+            val path = segmentPath(id);
+            val temporaryPath = path.resolveSibling(path.getFileName() + ".compacting");
+            try (Segment output = Segment.create(id, temporaryPath, COMPACTED)) {
+                for (int i = 0; i < keptPositions.size(); i++) {
+                    newPositions[i] = output.size;
+                    output.copyFrom(segment, keptPositions.get(i)[0], (int) keptPositions.get(i)[1]);
+                }
+                output.channel.force(true);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            compacted = Segment.open(id, path);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (compacted != null) {
+                for (int i = 0; i < keptPositions.size(); i++) {
+                    val slot = latestSlot(hashes.get(i), segment.id, keptPositions.get(i)[0]);
+                    if (slot != PortfolioStoreIndex.NOT_FOUND) {
+                        index.relocate(slot, compacted.id, newPositions[i]);
+                    }
+                }
+                segments.put(compacted.id, compacted);
+            }
+            index.force();
+            segments.remove(segment.id);
+            segment.close();
+            Files.delete(segment.path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return numberOfRecords[0] - keptPositions.size();
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private boolean isLatest(long hash, int segmentId, long position) {
+        lock.readLock().lock();
+        try {
+            return latestSlot(hash, segmentId, position) != PortfolioStoreIndex.NOT_FOUND;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long scan(Segment segment, long from, RecordVisitor visitor) throws IOException {
+        val header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = from;
+        while (position + RECORD_HEADER_SIZE <= segment.size) {
+            ((Buffer) header).clear();
+            segment.read(header, position);
+            val payloadLength = header.getInt(0);
+            if (payloadLength <= 0 || payloadLength > segment.size - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            val payload = ByteBuffer.allocate(payloadLength);
+            segment.read(payload, position + RECORD_HEADER_SIZE);
+            if (checksum(payload.array(), 0, payloadLength) != header.getInt(4)) {
+                break;
+            }
+            visitor.visit(position, RECORD_HEADER_SIZE + payloadLength, payload.array());
+            position += RECORD_HEADER_SIZE + payloadLength;
+        }
+        return position;
+    }
+
+    private byte[] readPayload(Segment segment, long position, int length) throws IOException {
+        val record = ByteBuffer.allocate(length);
+        segment.read(record, position);
+        val payloadLength = length - RECORD_HEADER_SIZE;
+        checkState(record.getInt(0) == payloadLength && checksum(record.array(), RECORD_HEADER_SIZE, payloadLength) == record.getInt(4),
+            "corrupted portfolio record in segment %s at position %s", segment.path, position);
+
+        val payload = new byte[payloadLength];
+        System.arraycopy(record.array(), RECORD_HEADER_SIZE, payload, 0, payloadLength);
+        return payload;
+    }
+
+    private String clientIdAt(int segmentId, long position) throws IOException {
+        val segment = segments.get(segmentId);
+        val prefix = ByteBuffer.allocate((int) Math.min(CLIENT_ID_PREFIX_SIZE, segment.size - position - RECORD_HEADER_SIZE));
+        segment.read(prefix, position + RECORD_HEADER_SIZE);
+        val clientIdLength = (int) readUnsigned(prefix, 0);
+        val clientIdPosition = skip(prefix, 0);
+        if (clientIdPosition + clientIdLength <= prefix.capacity()) {
+            return new String(prefix.array(), clientIdPosition, clientIdLength, StandardCharsets.UTF_8);
+        }
+        val clientId = ByteBuffer.allocate(clientIdLength);
+        segment.read(clientId, position + RECORD_HEADER_SIZE + clientIdPosition);
+        return new String(clientId.array(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String clientId, long timestamp, byte[] portfolio) {
+        val clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+        val payloadLength = sizeOfUnsigned(clientIdBytes.length) + clientIdBytes.length + Long.BYTES + portfolio.length;
+        val record = new byte[RECORD_HEADER_SIZE + payloadLength];
+        val buffer = ByteBuffer.wrap(record);
+
+        int position = writeUnsigned(record, RECORD_HEADER_SIZE, clientIdBytes.length);
+        System.arraycopy(clientIdBytes, 0, record, position, clientIdBytes.length);
+        position += clientIdBytes.length;
+        buffer.putLong(position, timestamp);
+        position += Long.BYTES;
+        System.arraycopy(portfolio, 0, record, position, portfolio.length);
+
+        buffer.putInt(0, payloadLength);
+        buffer.putInt(4, checksum(record, RECORD_HEADER_SIZE, payloadLength));
+        return record;
+    }
+
+    private static String clientIdOf(byte[] payload) {
+        val buffer = ByteBuffer.wrap(payload);
+        val clientIdLength = (int) readUnsigned(buffer, 0);
+        return new String(payload, skip(buffer, 0), clientIdLength, StandardCharsets.UTF_8);
+    }
+
+    private static long timestampOf(byte[] payload) {
+        val buffer = ByteBuffer.wrap(payload);
+        val clientIdLength = (int) readUnsigned(buffer, 0);
+        return buffer.getLong(skip(buffer, 0) + clientIdLength);
+    }
+
+    private static StoredPortfolio storedPortfolioOf(byte[] payload) {
+        val buffer = ByteBuffer.wrap(payload);
+        val clientIdLength = (int) readUnsigned(buffer, 0);
+        val clientIdPosition = skip(buffer, 0);
+        val timestampPosition = clientIdPosition + clientIdLength;
+        val portfolioPosition = timestampPosition + Long.BYTES;
+        val portfolio = PortfolioBinaryReader.of(ByteBuffer.wrap(payload, portfolioPosition, payload.length - portfolioPosition)).toPortfolio();
+
+        return StoredPortfolio.of(
+            new String(payload, clientIdPosition, clientIdLength, StandardCharsets.UTF_8),
+            Instant.ofEpochMilli(buffer.getLong(timestampPosition)),
+            portfolio
+        );
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        val crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static long hash(String clientId) {
+        val hash = Hashing.murmur3_128().hashString(clientId, StandardCharsets.UTF_8).asLong();
+        return hash == 0 ? 1 : hash;
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%010d.log", id));
+    }
+
+    private static int segmentIdOf(Path path) {
+        val fileName = path.getFileName().toString();
+        try {
+            return Integer.parseInt(fileName.substring("segment-".length(), fileName.length() - ".log".length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("unexpected segment file " + path, e);
+        }
+    }
+
+    private void closeFiles() {
+        for (val segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(long position, int length, byte[] payload) throws IOException;
+    }
+
+    private static final class Segment implements Closeable {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final boolean compacted;
+        private long size;
+
+        private Segment(int id, Path path, FileChannel channel, boolean compacted, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.compacted = compacted;
+            this.size = size;
+        }
+
+        private static Segment create(int id, Path path, int flags) throws IOException {
+            val channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            val header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(0, SEGMENT_MAGIC).putInt(4, flags);
+            val segment = new Segment(id, path, channel, flags == COMPACTED, 0);
+            segment.append(header.array());
+            return segment;
+        }
+
+        private static Segment open(int id, Path path) throws IOException {
+            val channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < SEGMENT_HEADER_SIZE) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(0, SEGMENT_MAGIC).putInt(4, 0), 0);
+                channel.force(true);
+                return new Segment(id, path, channel, false, SEGMENT_HEADER_SIZE);
+            }
+            val header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            read(channel, path, header, 0);
+            if (header.getInt(0) != SEGMENT_MAGIC) {
+                channel.close();
+                throw new IllegalStateException("unrecognized portfolio store segment " + path);
+            }
+            return new Segment(id, path, channel, header.getInt(4) == COMPACTED, channel.size());
+        }
+
+        private void append(byte[] bytes) throws IOException {
+            val buffer = ByteBuffer.wrap(bytes);
+            long position = size;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            size = position;
+        }
+
+        private void copyFrom(Segment source, long position, int length) throws IOException {
+            val bytes = ByteBuffer.allocate(length);
+            source.read(bytes, position);
+            append(bytes.array());
+        }
+
+        private void read(ByteBuffer target, long position) throws IOException {
+            read(channel, path, target, position);
+        }
+
+        private void truncate(long position) throws IOException {
+            channel.truncate(position);
+            size = position;
+        }
+
+        private static void read(FileChannel channel, Path path, ByteBuffer target, long position) throws IOException {
+            long readPosition = position;
+            while (target.hasRemaining()) {
+                val read = channel.read(target, readPosition);
+                if (read < 0) {
+                    throw new EOFException("unexpected end of segment " + path + " at position " + readPosition);
+                }
+                readPosition += read;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("unable to close segment " + path, e);
+            }
+        }
+    }
+
+    private static final class PendingAppend {
+        private final String clientId;
+        private final long hash;
+        private final long timestamp;
+        private final byte[] record;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingAppend(String clientId, long hash, long timestamp, byte[] record) {
+            this.clientId = clientId;
+            this.hash = hash;
+            this.timestamp = timestamp;
+            this.record = record;
+        }
+    }
+}
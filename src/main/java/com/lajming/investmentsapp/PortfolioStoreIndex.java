@@ -0,0 +1,212 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+final class PortfolioStoreIndex implements Closeable {
+
+    static final int NOT_FOUND = -1;
+
+    private static final int MAGIC = 0x50534958;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int ENTRY_SIZE = 32;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int CHECKPOINT_SEGMENT_OFFSET = 16;
+    private static final int CHECKPOINT_POSITION_OFFSET = 24;
+
+    private static final int HASH_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int POSITION_OFFSET = 16;
+    private static final int SEGMENT_OFFSET = 24;
+    private static final int LENGTH_OFFSET = 28;
+
+    private final Path path;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    private PortfolioStoreIndex(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.size = buffer.getInt(SIZE_OFFSET);
+    }
+
+    static PortfolioStoreIndex open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            val buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            val capacity = buffer.getInt(CAPACITY_OFFSET);
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC
+                || buffer.getInt(VERSION_OFFSET) != VERSION
+                || Integer.bitCount(capacity) != 1
+                || channel.size() != fileSize(capacity)) {
+                return null;
+            }
+            return new PortfolioStoreIndex(path, buffer);
+        }
+    }
+
+    static PortfolioStoreIndex create(Path path, int segment, long position) throws IOException {
+        val temporaryPath = temporaryPath(path);
+        write(temporaryPath, MIN_CAPACITY, segment, position);
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int checkpointSegment() {
+        return (int) buffer.getLong(CHECKPOINT_SEGMENT_OFFSET);
+    }
+
+    long checkpointPosition() {
+        return buffer.getLong(CHECKPOINT_POSITION_OFFSET);
+    }
+
+    void checkpoint(int segment, long position) {
+        buffer.putLong(CHECKPOINT_SEGMENT_OFFSET, segment);
+        buffer.putLong(CHECKPOINT_POSITION_OFFSET, position);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int firstSlot(long hash) {
+        long mixed = hash * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & (capacity - 1);
+    }
+
+    int nextSlot(int slot) {
+        return (slot + 1) & (capacity - 1);
+    }
+
+    boolean isEmpty(int slot) {
+        return hash(slot) == 0;
+    }
+
+    long hash(int slot) {
+        return buffer.getLong(entryOffset(slot) + HASH_OFFSET);
+    }
+
+    long timestamp(int slot) {
+        return buffer.getLong(entryOffset(slot) + TIMESTAMP_OFFSET);
+    }
+
+    long position(int slot) {
+        return buffer.getLong(entryOffset(slot) + POSITION_OFFSET);
+    }
+
+    int segment(int slot) {
+        return buffer.getInt(entryOffset(slot) + SEGMENT_OFFSET);
+    }
+
+    int length(int slot) {
+        return buffer.getInt(entryOffset(slot) + LENGTH_OFFSET);
+    }
+
+    void put(int slot, long hash, long timestamp, int segment, long position, int length) {
+        if (isEmpty(slot)) {
+            size++;
+            buffer.putInt(SIZE_OFFSET, size);
+        }
+        val offset = entryOffset(slot);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        buffer.putLong(offset + POSITION_OFFSET, position);
+        buffer.putInt(offset + SEGMENT_OFFSET, segment);
+        buffer.putInt(offset + LENGTH_OFFSET, length);
+        buffer.putLong(offset + HASH_OFFSET, hash);
+    }
+
+    void relocate(int slot, int segment, long position) {
+        val offset = entryOffset(slot);
+        buffer.putLong(offset + POSITION_OFFSET, position);
+        buffer.putInt(offset + SEGMENT_OFFSET, segment);
+    }
+
+    boolean needsResize() {
+        return (size + 1) * 2L > capacity;
+    }
+
+    void resize() throws IOException {
+        val newCapacity = capacity * 2;
+        val temporaryPath = temporaryPath(path);
+        write(temporaryPath, newCapacity, checkpointSegment(), checkpointPosition());
+
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            val resized = new PortfolioStoreIndex(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            for (int slot = 0; slot < capacity; slot++) {
+                if (isEmpty(slot)) {
+                    continue;
+                }
+                int target = resized.firstSlot(hash(slot));
+                while (!resized.isEmpty(target)) {
+                    target = resized.nextSlot(target);
+                }
+                resized.put(target, hash(slot), timestamp(slot), segment(slot), position(slot), length(slot));
+            }
+            resized.buffer.force();
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            this.buffer = resized.buffer;
+            this.capacity = resized.capacity;
+            this.size = resized.size;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private static void write(Path path, int capacity, int segment, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            val buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putInt(SIZE_OFFSET, 0);
+            buffer.putLong(CHECKPOINT_SEGMENT_OFFSET, segment);
+            buffer.putLong(CHECKPOINT_POSITION_OFFSET, position);
+            buffer.force();
+        }
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * ENTRY_SIZE;
+    }
+
+    private static int entryOffset(int slot) {
+        return HEADER_SIZE + slot * ENTRY_SIZE;
+    }
+
+    private static Path temporaryPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+}
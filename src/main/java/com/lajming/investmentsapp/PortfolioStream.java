@@ -0,0 +1,36 @@
+package com.lajming.investmentsapp;
+
+import org.joda.money.Money;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class PortfolioStream {
+
+    private final PortfolioAllocation portfolioAllocation;
+
+    PortfolioStream(PortfolioAllocation portfolioAllocation) {
+        this.portfolioAllocation = portfolioAllocation;
+    }
+
+    public Money getReminder() {
+        return portfolioAllocation.reminder();
+    }
+
+    public int getNumberOfItems() {
+        return portfolioAllocation.numberOfItems();
+    }
+
+    public Stream<PortfolioItem> items() {
+        return StreamSupport.stream(portfolioAllocation.spliterator(), false);
+    }
+
+    public void forEachItem(Consumer<? super PortfolioItem> consumer) {
+        portfolioAllocation.spliterator().forEachRemaining(consumer);
+    }
+
+    public Portfolio toPortfolio() {
+        return portfolioAllocation.toPortfolio();
+    }
+}
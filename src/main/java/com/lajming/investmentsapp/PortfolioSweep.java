@@ -0,0 +1,107 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.MoneyUtils.*;
+
+public class PortfolioSweep {
+
+    private final PortfolioGenerator portfolioGenerator;
+
+    private PortfolioSweep(PortfolioGenerator portfolioGenerator) {
+        checkNotNull(portfolioGenerator, "provided generator should not be null");
+
+        this.portfolioGenerator = portfolioGenerator;
+    }
+
+    public static PortfolioSweep of(PortfolioGenerator portfolioGenerator) {
+        return new PortfolioSweep(portfolioGenerator);
+    }
+
+    public List<SweepSegment> sweep(Money from, Money to) {
+        val segments = new ArrayList<SweepSegment>();
+        forEachSegment(from, to, segments::add);
+        return segments;
+    }
+
+    public SweepSegment segmentFor(Money allAvailableMoney) {
+        checkNotNull(allAvailableMoney, "provided money should not be null");
+        checkArgument(allAvailableMoney.isPositiveOrZero(), "negative amount of money provided");
+
+        val currencyUnit = allAvailableMoney.getCurrencyUnit();
+        val minorUnitsPerUnit = minorUnitsPerUnit(currencyUnit);
+        val minimumFeasibleAmount = portfolioGenerator.minimumFeasibleAmount(minorUnitsPerUnit);
+        val amount = allAvailableMoney.getAmountMinorLong();
+
+        if (amount < minimumFeasibleAmount) {
+            return new SweepSegment(toMoney(currencyUnit, 0), toMoney(currencyUnit, minimumFeasibleAmount - 1), toMoney(currencyUnit, 0), portfolioGenerator, null);
+        }
+
+        val amountPerEachFundGroup = portfolioGenerator.amountsPerEachFundGroup(amount, minorUnitsPerUnit);
+        return new SweepSegment(
+            toMoney(currencyUnit, previousBreakpoint(amountPerEachFundGroup)),
+            toMoney(currencyUnit, nextBreakpoint(amountPerEachFundGroup, minorUnitsPerUnit) - 1),
+            toMoney(currencyUnit, sumAmounts(amountPerEachFundGroup)),
+            portfolioGenerator,
+            amountPerEachFundGroup
+        );
+    }
+
+    public void forEachSegment(Money from, Money to, Consumer<SweepSegment> consumer) {
+        checkNotNull(from, "provided money should not be null");
+        checkNotNull(to, "provided money should not be null");
+        checkNotNull(consumer, "provided consumer should not be null");
+        checkArgument(from.isSameCurrency(to), "sweep bounds should have the same currency");
+        checkArgument(from.isPositiveOrZero(), "negative amount of money provided");
+        checkArgument(!from.isGreaterThan(to), "sweep should start before it ends");
+
+        val currencyUnit = from.getCurrencyUnit();
+        val minorUnitsPerUnit = minorUnitsPerUnit(currencyUnit);
+        val minimumFeasibleAmount = portfolioGenerator.minimumFeasibleAmount(minorUnitsPerUnit);
+        val end = to.getAmountMinorLong();
+        long amount = from.getAmountMinorLong();
+
+        if (amount < minimumFeasibleAmount) {
+            val segmentEnd = Math.min(end, minimumFeasibleAmount - 1);
+            consumer.accept(new SweepSegment(toMoney(currencyUnit, amount), toMoney(currencyUnit, segmentEnd), toMoney(currencyUnit, 0), portfolioGenerator, null));
+            amount = segmentEnd + 1;
+        }
+
+        while (amount <= end && amount > 0) {
+            val amountPerEachFundGroup = portfolioGenerator.amountsPerEachFundGroup(amount, minorUnitsPerUnit);
+            val segmentEnd = Math.min(end, nextBreakpoint(amountPerEachFundGroup, minorUnitsPerUnit) - 1);
+            consumer.accept(new SweepSegment(
+                toMoney(currencyUnit, amount),
+                toMoney(currencyUnit, segmentEnd),
+                toMoney(currencyUnit, sumAmounts(amountPerEachFundGroup)),
+                portfolioGenerator,
+                amountPerEachFundGroup
+            ));
+            amount = segmentEnd + 1;
+        }
+    }
+
+    private long previousBreakpoint(long[] amountPerEachFundGroup) {
+        long previousBreakpoint = 0;
+        for (val fundType : portfolioGenerator.investedFundTypes()) {
+            previousBreakpoint = Math.max(previousBreakpoint, portfolioGenerator.amountReaching(amountPerEachFundGroup[fundType.ordinal()], fundType));
+        }
+        return previousBreakpoint;
+    }
+
+    private long nextBreakpoint(long[] amountPerEachFundGroup, long minorUnitsPerUnit) {
+        long nextBreakpoint = Long.MAX_VALUE;
+        for (val fundType : portfolioGenerator.investedFundTypes()) {
+            val nextGroupAmount = amountPerEachFundGroup[fundType.ordinal()] + minorUnitsPerUnit;
+            nextBreakpoint = Math.min(nextBreakpoint, portfolioGenerator.amountReaching(nextGroupAmount, fundType));
+        }
+        return nextBreakpoint;
+    }
+}
@@ -0,0 +1,10 @@
+package com.lajming.investmentsapp;
+
+import lombok.NonNull;
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class PortfolioUpdate {
+    @NonNull private final PortfolioGenerator portfolioGenerator;
+    @NonNull private final Portfolio portfolio;
+}
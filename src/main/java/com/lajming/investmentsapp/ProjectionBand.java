@@ -0,0 +1,14 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+@Value(staticConstructor = "of")
+public class ProjectionBand {
+    private final int year;
+    private final Money lower;
+    private final Money lowerQuartile;
+    private final Money median;
+    private final Money upperQuartile;
+    private final Money upper;
+}
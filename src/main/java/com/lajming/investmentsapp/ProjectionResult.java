@@ -0,0 +1,117 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.lajming.investmentsapp.MoneyUtils.toMoney;
+
+public final class ProjectionResult {
+
+    private static final int MIN_EXPONENT = -10;
+    private static final int MAX_EXPONENT = 10;
+    private static final int MANTISSA_BITS = 8;
+    private static final int BINS_PER_EXPONENT = 1 << MANTISSA_BITS;
+
+    static final int BINS = (MAX_EXPONENT - MIN_EXPONENT) * BINS_PER_EXPONENT;
+
+    private final CurrencyUnit currencyUnit;
+    private final double investedAmount;
+    private final long reminder;
+    private final int numberOfYears;
+    private final long numberOfPaths;
+    private final boolean converged;
+    private final long[] counts;
+
+    private ProjectionResult(CurrencyUnit currencyUnit, double investedAmount, long reminder, int numberOfYears, long numberOfPaths, boolean converged, long[] counts) {
+        this.currencyUnit = currencyUnit;
+        this.investedAmount = investedAmount;
+        this.reminder = reminder;
+        this.numberOfYears = numberOfYears;
+        this.numberOfPaths = numberOfPaths;
+        this.converged = converged;
+        this.counts = counts;
+    }
+
+    static ProjectionResult of(CurrencyUnit currencyUnit, double investedAmount, long reminder, int numberOfYears, long numberOfPaths, boolean converged, long[] counts) {
+        return new ProjectionResult(currencyUnit, investedAmount, reminder, numberOfYears, numberOfPaths, converged, counts);
+    }
+
+    public int getNumberOfYears() {
+        return numberOfYears;
+    }
+
+    public long getNumberOfPaths() {
+        return numberOfPaths;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public Money percentile(int year, double percentile) {
+        checkArgument(year >= 0 && year <= numberOfYears, "year should be between 0 and %s", numberOfYears);
+        checkArgument(percentile >= 0 && percentile <= 100, "percentile should be between 0 and 100");
+
+        if (year == 0) {
+            return toMoney(currencyUnit, Math.round(reminder + investedAmount));
+        }
+        return toMoney(currencyUnit, Math.round(valueAtRank(year, numberOfPaths * percentile / 100)));
+    }
+
+    public ProjectionBand bandAt(int year) {
+        return ProjectionBand.of(year, percentile(year, 5), percentile(year, 25), percentile(year, 50), percentile(year, 75), percentile(year, 95));
+    }
+
+    public List<ProjectionBand> getBands() {
+        val bands = new ArrayList<ProjectionBand>(numberOfYears);
+        for (int year = 1; year <= numberOfYears; year++) {
+            bands.add(bandAt(year));
+        }
+        return Collections.unmodifiableList(bands);
+    }
+
+    double relativeHalfWidth(double percentile, double z) {
+        val quantile = percentile / 100;
+        val rank = numberOfPaths * quantile;
+        val spread = z * Math.sqrt(numberOfPaths * quantile * (1 - quantile));
+        val value = valueAtRank(numberOfYears, rank);
+        val halfWidth = (valueAtRank(numberOfYears, Math.min(numberOfPaths, rank + spread)) - valueAtRank(numberOfYears, Math.max(0, rank - spread))) / 2;
+        return value > 0 ? halfWidth / value : 0;
+    }
+
+    private double valueAtRank(int year, double rank) {
+        val offset = (year - 1) * BINS;
+        long cumulative = 0;
+        int bin = 0;
+        for (; bin < BINS - 1; bin++) {
+            val count = counts[offset + bin];
+            if (count > 0 && cumulative + count >= rank) {
+                break;
+            }
+            cumulative += count;
+        }
+        val count = counts[offset + bin];
+        val fraction = count > 0 ? Math.max(0, Math.min(1, (rank - cumulative) / count)) : 0;
+        val mantissa = 1 + (bin % BINS_PER_EXPONENT + fraction) / BINS_PER_EXPONENT;
+        val growth = Math.scalb(mantissa, bin / BINS_PER_EXPONENT + MIN_EXPONENT);
+        return reminder + investedAmount * growth;
+    }
+
+    static int binOf(double growth) {
+        val bits = Double.doubleToRawLongBits(growth);
+        val exponent = (int) (bits >>> 52) - Double.MAX_EXPONENT;
+        if (exponent < MIN_EXPONENT) {
+            return 0;
+        }
+        if (exponent >= MAX_EXPONENT) {
+            return BINS - 1;
+        }
+        return (exponent - MIN_EXPONENT) * BINS_PER_EXPONENT + (int) (bits >>> (52 - MANTISSA_BITS)) % BINS_PER_EXPONENT;
+    }
+}
@@ -0,0 +1,24 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class ProjectionSettings {
+    private final int numberOfYears;
+    private final int numberOfPaths;
+    private final long seed;
+    private final double relativeError;
+    private final double confidenceLevel;
+
+    public static ProjectionSettings of(int numberOfYears, int numberOfPaths, long seed) {
+        return of(numberOfYears, numberOfPaths, seed, 0, 0);
+    }
+
+    public ProjectionSettings withPrecision(double relativeError, double confidenceLevel) {
+        return of(numberOfYears, numberOfPaths, seed, relativeError, confidenceLevel);
+    }
+
+    public boolean isStoppingEarly() {
+        return relativeError > 0;
+    }
+}
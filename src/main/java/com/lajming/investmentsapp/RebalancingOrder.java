@@ -0,0 +1,18 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+@Value(staticConstructor = "of")
+public class RebalancingOrder {
+
+    public enum Type {
+        BUY,
+        SELL,
+        HOLD
+    }
+
+    private final Type type;
+    private final Fund fund;
+    private final Money delta;
+}
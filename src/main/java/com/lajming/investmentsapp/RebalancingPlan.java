@@ -0,0 +1,24 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+import org.joda.money.Money;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@Value(staticConstructor = "of")
+public class RebalancingPlan {
+    private final List<RebalancingOrder> orders;
+    private final Money netCash;
+
+    public List<RebalancingOrder> ordersOfType(RebalancingOrder.Type type) {
+        return orders.stream()
+            .filter(order -> order.getType() == type)
+            .collect(toList());
+    }
+
+    public boolean isBalanced() {
+        return orders.stream().allMatch(order -> order.getType() == RebalancingOrder.Type.HOLD);
+    }
+}
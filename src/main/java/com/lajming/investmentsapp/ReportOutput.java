@@ -0,0 +1,293 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import static com.lajming.investmentsapp.MoneyUtils.PERCENTAGE_SCALE;
+import static com.lajming.investmentsapp.MoneyUtils.calculatePercentage;
+
+abstract class ReportOutput {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final int MAX_LONG_DIGITS = 20;
+    private static final long MAX_EXACT_PERCENTAGE_AMOUNT = Long.MAX_VALUE / 100;
+
+    final char[] buffer = new char[BUFFER_SIZE];
+    int position;
+
+    private final char[] digits = new char[MAX_LONG_DIGITS];
+
+    static ReportOutput of(Appendable appendable) {
+        if (appendable instanceof StringBuilder) {
+            return new StringBuilderOutput((StringBuilder) appendable);
+        }
+        if (appendable instanceof Writer) {
+            return new WriterOutput((Writer) appendable);
+        }
+        return new AppendableOutput(appendable);
+    }
+
+    static ReportOutput of(OutputStream outputStream) {
+        return new Utf8Output(outputStream);
+    }
+
+    ReportOutput append(char character) {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = character;
+        return this;
+    }
+
+    ReportOutput append(String string) {
+        int from = 0;
+        while (from < string.length()) {
+            if (position == buffer.length) {
+                drain();
+            }
+            val to = Math.min(string.length(), from + buffer.length - position);
+            string.getChars(from, to, buffer, position);
+            position += to - from;
+            from = to;
+        }
+        return this;
+    }
+
+    ReportOutput append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start; i < digits.length; i++) {
+            append(digits[i]);
+        }
+        return this;
+    }
+
+    ReportOutput appendDecimal(long unscaledValue, int scale) {
+        if (scale == 0) {
+            return append(unscaledValue);
+        }
+        if (scale < 0 || unscaledValue == Long.MIN_VALUE) {
+            return append(BigDecimal.valueOf(unscaledValue, scale).toPlainString());
+        }
+        if (unscaledValue < 0) {
+            append('-');
+            unscaledValue = -unscaledValue;
+        }
+        int start = digits.length;
+        for (int i = 0; i < scale; i++) {
+            digits[--start] = (char) ('0' + unscaledValue % 10);
+            unscaledValue /= 10;
+        }
+        digits[--start] = '.';
+        do {
+            digits[--start] = (char) ('0' + unscaledValue % 10);
+            unscaledValue /= 10;
+        } while (unscaledValue != 0);
+        for (int i = start; i < digits.length; i++) {
+            append(digits[i]);
+        }
+        return this;
+    }
+
+    ReportOutput appendPercentage(long allAmount, long partAmount) {
+        if (allAmount <= 0 || partAmount < 0 || partAmount > MAX_EXACT_PERCENTAGE_AMOUNT || allAmount > MAX_EXACT_PERCENTAGE_AMOUNT / 10) {
+            return append(calculatePercentage(allAmount, partAmount).toPlainString());
+        }
+        val scaledPart = partAmount * 100;
+        append(scaledPart / allAmount);
+        long remainder = scaledPart % allAmount;
+        int fractionDigits = 0;
+        for (int i = 0; i < PERCENTAGE_SCALE && remainder != 0; i++) {
+            remainder *= 10;
+            digits[fractionDigits++] = (char) ('0' + remainder / allAmount);
+            remainder %= allAmount;
+        }
+        while (fractionDigits > 0 && digits[fractionDigits - 1] == '0') {
+            fractionDigits--;
+        }
+        if (fractionDigits > 0) {
+            append('.');
+            for (int i = 0; i < fractionDigits; i++) {
+                append(digits[i]);
+            }
+        }
+        return this;
+    }
+
+    void flush() {
+        drain();
+        try {
+            flushTarget();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write report", e);
+        }
+    }
+
+    void close() {
+        flush();
+        try {
+            closeTarget();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to close report", e);
+        }
+    }
+
+    private void drain() {
+        if (position == 0) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write report", e);
+        }
+    }
+
+    abstract void write() throws IOException;
+
+    void flushTarget() throws IOException {
+    }
+
+    void closeTarget() throws IOException {
+    }
+
+    private static final class StringBuilderOutput extends ReportOutput {
+        private final StringBuilder target;
+
+        private StringBuilderOutput(StringBuilder target) {
+            this.target = target;
+        }
+
+        @Override
+        void write() {
+            target.append(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static final class WriterOutput extends ReportOutput {
+        private final Writer target;
+
+        private WriterOutput(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        void write() throws IOException {
+            target.write(buffer, 0, position);
+            position = 0;
+        }
+
+        @Override
+        void flushTarget() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        void closeTarget() throws IOException {
+            target.close();
+        }
+    }
+
+    private static final class AppendableOutput extends ReportOutput {
+        private final Appendable target;
+        private final CharBuffer chars = CharBuffer.wrap(buffer);
+
+        private AppendableOutput(Appendable target) {
+            this.target = target;
+        }
+
+        @Override
+        void write() throws IOException {
+            ((Buffer) chars).limit(position).position(0);
+            target.append(chars);
+            position = 0;
+        }
+
+        @Override
+        void flushTarget() throws IOException {
+            if (target instanceof Flushable) {
+                ((Flushable) target).flush();
+            }
+        }
+
+        @Override
+        void closeTarget() throws IOException {
+            if (target instanceof Closeable) {
+                ((Closeable) target).close();
+            }
+        }
+    }
+
+    private static final class Utf8Output extends ReportOutput {
+        private final OutputStream target;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.wrap(buffer);
+        private final byte[] bytes = new byte[BUFFER_SIZE * 3];
+        private final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+
+        private Utf8Output(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        void write() throws IOException {
+            encode(false);
+        }
+
+        @Override
+        void flushTarget() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        void closeTarget() throws IOException {
+            encode(true);
+            ((Buffer) byteBuffer).clear();
+            encoder.flush(byteBuffer);
+            target.write(bytes, 0, byteBuffer.position());
+            encoder.reset();
+            target.close();
+        }
+
+        private void encode(boolean endOfInput) throws IOException {
+            ((Buffer) chars).limit(position).position(0);
+            ((Buffer) byteBuffer).clear();
+            val result = encoder.encode(chars, byteBuffer, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            target.write(bytes, 0, byteBuffer.position());
+
+            val remaining = chars.remaining();
+            System.arraycopy(buffer, chars.position(), buffer, 0, remaining);
+            position = remaining;
+        }
+    }
+}
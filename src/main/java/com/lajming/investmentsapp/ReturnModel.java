@@ -0,0 +1,116 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class ReturnModel {
+
+    static final int NOT_FOUND = -1;
+
+    private static final double TOLERANCE = 1e-12;
+
+    private final long[] sortedFundIds;
+    private final int[] sortedAssets;
+    private final double[] expectedReturns;
+    private final double[][] covariance;
+
+    private ReturnModel(long[] fundIds, double[] expectedReturns, double[][] covariance) {
+        checkNotNull(expectedReturns, "provided expected returns should not be null");
+        checkNotNull(covariance, "provided covariance matrix should not be null");
+        val numberOfAssets = expectedReturns.length;
+        checkArgument(covariance.length == numberOfAssets, "covariance matrix should be %s x %s", numberOfAssets, numberOfAssets);
+        for (int asset = 0; asset < numberOfAssets; asset++) {
+            checkArgument(expectedReturns[asset] > -1, "expected return of asset %s should be greater than -1", asset);
+            checkNotNull(covariance[asset], "provided covariance matrix should not be null");
+            checkArgument(covariance[asset].length == numberOfAssets, "covariance matrix should be %s x %s", numberOfAssets, numberOfAssets);
+        }
+        for (int row = 0; row < numberOfAssets; row++) {
+            for (int column = 0; column < row; column++) {
+                checkArgument(Math.abs(covariance[row][column] - covariance[column][row]) <= TOLERANCE, "covariance matrix should be symmetric");
+            }
+        }
+
+        this.expectedReturns = expectedReturns.clone();
+        this.covariance = new double[numberOfAssets][];
+        for (int asset = 0; asset < numberOfAssets; asset++) {
+            this.covariance[asset] = covariance[asset].clone();
+        }
+
+        if (fundIds == null) {
+            this.sortedFundIds = null;
+            this.sortedAssets = null;
+        } else {
+            checkArgument(fundIds.length == numberOfAssets, "number of funds %s does not match number of expected returns %s", fundIds.length, numberOfAssets);
+            this.sortedFundIds = fundIds.clone();
+            Arrays.sort(sortedFundIds);
+            for (int i = 1; i < sortedFundIds.length; i++) {
+                checkArgument(sortedFundIds[i - 1] != sortedFundIds[i], "fund with id %s appears more than once in return model", sortedFundIds[i]);
+            }
+            this.sortedAssets = new int[numberOfAssets];
+            for (int asset = 0; asset < numberOfAssets; asset++) {
+                sortedAssets[Arrays.binarySearch(sortedFundIds, fundIds[asset])] = asset;
+            }
+        }
+
+        val allAssets = new int[numberOfAssets];
+        for (int asset = 0; asset < numberOfAssets; asset++) {
+            allAssets[asset] = asset;
+        }
+        cholesky(allAssets);
+    }
+
+    public static ReturnModel ofFundTypes(double[] expectedReturns, double[][] covariance) {
+        checkNotNull(expectedReturns, "provided expected returns should not be null");
+        checkArgument(expectedReturns.length == FundType.values().length,
+            "expected returns should be provided for each of %s fund types", FundType.values().length);
+
+        return new ReturnModel(null, expectedReturns, covariance);
+    }
+
+    public static ReturnModel ofFunds(long[] fundIds, double[] expectedReturns, double[][] covariance) {
+        checkNotNull(fundIds, "provided fund ids should not be null");
+
+        return new ReturnModel(fundIds, expectedReturns, covariance);
+    }
+
+    public int getNumberOfAssets() {
+        return expectedReturns.length;
+    }
+
+    int assetOf(Fund fund) {
+        if (sortedFundIds == null) {
+            return fund.getType().ordinal();
+        }
+        val index = Arrays.binarySearch(sortedFundIds, fund.getId());
+        return index >= 0 ? sortedAssets[index] : NOT_FOUND;
+    }
+
+    double logDrift(int asset) {
+        return Math.log1p(expectedReturns[asset]) - covariance[asset][asset] / 2;
+    }
+
+    double[] cholesky(int[] assets) {
+        val size = assets.length;
+        val lower = new double[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column <= row; column++) {
+                double sum = covariance[assets[row]][assets[column]];
+                for (int k = 0; k < column; k++) {
+                    sum -= lower[row * size + k] * lower[column * size + k];
+                }
+                if (row == column) {
+                    checkArgument(sum >= -TOLERANCE, "covariance matrix should be positive semi-definite");
+                    lower[row * size + column] = sum > TOLERANCE ? Math.sqrt(sum) : 0;
+                } else {
+                    val diagonal = lower[column * size + column];
+                    lower[row * size + column] = diagonal > 0 ? sum / diagonal : 0;
+                }
+            }
+        }
+        return lower;
+    }
+}
@@ -0,0 +1,45 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+
+import java.util.Arrays;
+
+final class ScalarDriftKernel implements DriftKernel {
+
+    static final ScalarDriftKernel INSTANCE = new ScalarDriftKernel();
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private ScalarDriftKernel() {
+    }
+
+    @Override
+    public int scan(long[][] amounts, int from, int to, double[] targetWeights, double maximumDrift, int[] breachingRows) {
+        val totals = new double[BLOCK_SIZE];
+        val deviations = new double[BLOCK_SIZE];
+        int numberOfBreaches = 0;
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            val size = Math.min(BLOCK_SIZE, to - start);
+            Arrays.fill(totals, 0, size, 0);
+            Arrays.fill(deviations, 0, size, 0);
+            for (val column : amounts) {
+                for (int i = 0; i < size; i++) {
+                    totals[i] += column[start + i];
+                }
+            }
+            for (int ordinal = 0; ordinal < amounts.length; ordinal++) {
+                val column = amounts[ordinal];
+                val targetWeight = targetWeights[ordinal];
+                for (int i = 0; i < size; i++) {
+                    deviations[i] = Math.max(deviations[i], Math.abs(column[start + i] - targetWeight * totals[i]));
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (deviations[i] > maximumDrift * totals[i]) {
+                    breachingRows[numberOfBreaches++] = start + i;
+                }
+            }
+        }
+        return numberOfBreaches;
+    }
+}
@@ -0,0 +1,12 @@
+package com.lajming.investmentsapp;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value(staticConstructor = "of")
+public class StoredPortfolio {
+    private final String clientId;
+    private final Instant timestamp;
+    private final Portfolio portfolio;
+}
@@ -0,0 +1,54 @@
+package com.lajming.investmentsapp;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+import lombok.val;
+import org.joda.money.Money;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class SweepSegment {
+    private final Money from;
+    private final Money to;
+    private final Money invested;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final PortfolioGenerator portfolioGenerator;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final long[] amountPerEachFundGroup;
+
+    public boolean isEmpty() {
+        return invested.isZero();
+    }
+
+    public Money reminderFor(Money allAvailableMoney) {
+        checkContains(allAvailableMoney);
+
+        return allAvailableMoney.minus(invested);
+    }
+
+    public Portfolio portfolioFor(Money allAvailableMoney) {
+        checkContains(allAvailableMoney);
+
+        return isEmpty()
+            ? Portfolio.emptyPortfolioWithReminder(allAvailableMoney)
+            : portfolioGenerator.allocation(allAvailableMoney, amountPerEachFundGroup).toPortfolio();
+    }
+
+    private void checkContains(Money allAvailableMoney) {
+        checkNotNull(allAvailableMoney, "provided money should not be null");
+        val inSegment = allAvailableMoney.isSameCurrency(from)
+            && !allAvailableMoney.isLessThan(from)
+            && !allAvailableMoney.isGreaterThan(to);
+        checkArgument(inSegment, "amount %s is outside of segment %s - %s", allAvailableMoney, from, to);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lajming.investmentsapp;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class Varints {
+
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private Varints() {
+    }
+
+    static int sizeOfUnsigned(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int writeUnsigned(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    static long readUnsigned(ByteBuffer source, int position) {
+        long value = 0;
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            byte b = source.get(position + i);
+            value |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint at byte " + position);
+    }
+
+    static int skip(ByteBuffer source, int position) {
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            if (source.get(position + i) >= 0) {
+                return position + i + 1;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint at byte " + position);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void checkNonNegative(long value, String name) {
+        checkArgument(value >= 0, "negative %s cannot be encoded", name);
+    }
+}
@@ -0,0 +1,304 @@
+package com.lajming.investmentsapp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.lajming.investmentsapp.PortfolioBinaryWriter.CURRENCY_CODE_LENGTH;
+import static com.lajming.investmentsapp.Varints.readUnsigned;
+import static com.lajming.investmentsapp.Varints.skip;
+
+public final class PortfolioHttpServer implements AutoCloseable {
+
+    static final byte REQUEST_VERSION = 1;
+
+    private static final String JSON = "application/json";
+    private static final String BINARY = "application/octet-stream";
+    private static final int DEFAULT_PERMITS_PER_PROCESSOR = 4;
+    private static final Duration DEFAULT_ADMISSION_TIMEOUT = Duration.ofMillis(100);
+    private static final Duration BODY_READ_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ExecutorService bodyReaders;
+    private final FundUniverse fundUniverse;
+    private final Map<String, CompiledInvestmentStrategy> investmentStrategies;
+    private final BatchPortfolioGenerator batchPortfolioGenerator;
+    private final int maxConcurrentRequests;
+    private final Semaphore permits;
+    private final Duration admissionTimeout;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private PortfolioHttpServer(InetSocketAddress address, FundUniverse fundUniverse, Map<String, CompiledInvestmentStrategy> investmentStrategies,
+                                int maxConcurrentRequests, Duration admissionTimeout) throws IOException {
+        checkNotNull(address, "provided address should not be null");
+        checkNotNull(fundUniverse, "provided funds should not be null");
+        checkNotNull(investmentStrategies, "provided investment strategies should not be null");
+        checkArgument(maxConcurrentRequests > 0, "maximum number of concurrent requests should be positive");
+        checkNotNull(admissionTimeout, "provided admission timeout should not be null");
+
+        this.fundUniverse = fundUniverse;
+        this.investmentStrategies = Map.copyOf(investmentStrategies);
+        this.batchPortfolioGenerator = BatchPortfolioGenerator.of(fundUniverse);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.admissionTimeout = admissionTimeout;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.bodyReaders = Executors.newCachedThreadPool(Thread.ofPlatform().name("portfolio-http-body-reader-", 0).daemon().factory());
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/portfolios", limited(this::generatePortfolio));
+        this.server.createContext("/portfolios/batch", limited(this::generatePortfolios));
+        this.server.createContext("/health", exchange -> {
+            try (exchange) {
+                health(exchange);
+            }
+        });
+    }
+
+    public static PortfolioHttpServer start(InetSocketAddress address, FundUniverse fundUniverse) {
+        return start(address, fundUniverse, InvestmentStrategyLoader.builtInStrategies(),
+            Runtime.getRuntime().availableProcessors() * DEFAULT_PERMITS_PER_PROCESSOR, DEFAULT_ADMISSION_TIMEOUT);
+    }
+
+    public static PortfolioHttpServer start(InetSocketAddress address, FundUniverse fundUniverse, Map<String, CompiledInvestmentStrategy> investmentStrategies,
+                                            int maxConcurrentRequests, Duration admissionTimeout) {
+        try {
+            val server = new PortfolioHttpServer(address, fundUniverse, investmentStrategies, maxConcurrentRequests, admissionTimeout);
+            server.server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to start portfolio http server on " + address, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: PortfolioHttpServer <fund catalog> [<port>]");
+            System.exit(2);
+        }
+
+        val fundUniverse = FundCatalogLoader.create().loadUniverse(Paths.get(args[0]));
+        val port = args.length == 2 ? Integer.parseInt(args[1]) : 8080;
+        val server = start(new InetSocketAddress(port), fundUniverse);
+        System.out.println("serving " + fundUniverse.size() + " funds on " + server.getAddress());
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+        bodyReaders.shutdownNow();
+    }
+
+    private void generatePortfolio(HttpExchange exchange) throws IOException {
+        val body = readBody(exchange);
+        if (isBinary(exchange)) {
+            val buffer = ByteBuffer.wrap(body);
+            checkArgument(buffer.remaining() > 0 && buffer.get(0) == REQUEST_VERSION, "unsupported request format version");
+            val request = new BinaryRequestReader(buffer, 1);
+            respond(exchange, 200, BINARY, PortfolioBinaryWriter.write(generate(request.next())));
+        } else {
+            val request = JsonReader.parse(new String(body, StandardCharsets.UTF_8));
+            respond(exchange, 200, JSON, PortfolioJson.render(generate(jsonRequest(request))));
+        }
+    }
+
+    private void generatePortfolios(HttpExchange exchange) throws IOException {
+        val body = readBody(exchange);
+        if (isBinary(exchange)) {
+            val buffer = ByteBuffer.wrap(body);
+            checkArgument(buffer.remaining() > 1 && buffer.get(0) == REQUEST_VERSION, "unsupported request format version");
+            val numberOfRequests = readUnsigned(buffer, 1);
+            checkArgument(numberOfRequests >= 0 && numberOfRequests <= body.length, "malformed number of requests %s", numberOfRequests);
+            val reader = new BinaryRequestReader(buffer, skip(buffer, 1));
+            val requests = new ArrayList<GenerationRequest>();
+            for (long i = 0; i < numberOfRequests; i++) {
+                requests.add(reader.next());
+            }
+            respond(exchange, 200, BINARY, binaryPortfolios(batchPortfolioGenerator.generatePortfolios(requests)));
+        } else {
+            val json = JsonReader.parse(new String(body, StandardCharsets.UTF_8));
+            checkArgument(json instanceof List, "expected a json array of generation requests");
+            val requests = new ArrayList<GenerationRequest>();
+            for (val request : (List<?>) json) {
+                requests.add(jsonRequest(request));
+            }
+            respond(exchange, 200, JSON, PortfolioJson.render(batchPortfolioGenerator.generatePortfolios(requests)));
+        }
+    }
+
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        val body = bodyReaders.submit(() -> exchange.getRequestBody().readAllBytes());
+        try {
+            return body.get(BODY_READ_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException("unable to read request body", e.getCause());
+        } catch (TimeoutException e) {
+            body.cancel(true);
+            throw new SocketTimeoutException("request body was not received within " + BODY_READ_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading request body", e);
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        val inFlight = maxConcurrentRequests - permits.availablePermits();
+        val health = "{\"status\":\"UP\""
+            + ",\"funds\":" + fundUniverse.size()
+            + ",\"inFlight\":" + inFlight
+            + ",\"maxConcurrentRequests\":" + maxConcurrentRequests
+            + ",\"served\":" + served.sum()
+            + ",\"rejected\":" + rejected.sum()
+            + ",\"latencyP50Micros\":" + TimeUnit.NANOSECONDS.toMicros(latencies.percentile(50))
+            + ",\"latencyP99Micros\":" + TimeUnit.NANOSECONDS.toMicros(latencies.percentile(99))
+            + "}";
+        respond(exchange, 200, JSON, health.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpHandler limited(HttpHandler handler) {
+        return exchange -> {
+            try (exchange) {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "POST");
+                    respondWithError(exchange, 405, "method not allowed");
+                    return;
+                }
+                if (!permits.tryAcquire(admissionTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    rejected.increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    respondWithError(exchange, 503, "too many concurrent requests");
+                    return;
+                }
+                val start = System.nanoTime();
+                try {
+                    handler.handle(exchange);
+                    served.increment();
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    respondWithError(exchange, 400, e.getMessage());
+                } catch (RuntimeException e) {
+                    respondWithError(exchange, 500, "unable to generate portfolio");
+                } finally {
+                    permits.release();
+                    latencies.record(System.nanoTime() - start);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private Portfolio generate(GenerationRequest request) {
+        return batchPortfolioGenerator.portfolioGenerator(request.getInvestmentStrategy()).generatePortfolio(request.getAmount());
+    }
+
+    private GenerationRequest jsonRequest(Object json) {
+        checkArgument(json instanceof Map, "expected a json object with amount, currency and strategy");
+        val request = (Map<?, ?>) json;
+        val amount = request.get("amount");
+        val currency = request.get("currency");
+        checkArgument(amount instanceof BigDecimal || amount instanceof String, "missing amount");
+        checkArgument(currency instanceof String, "missing currency");
+        val money = Money.of(CurrencyUnit.of((String) currency), amount instanceof BigDecimal ? (BigDecimal) amount : new BigDecimal((String) amount));
+        return GenerationRequest.of(money, strategy(request.get("strategy")));
+    }
+
+    private CompiledInvestmentStrategy strategy(Object name) {
+        checkArgument(name instanceof String, "missing strategy");
+        val investmentStrategy = investmentStrategies.get(name);
+        checkArgument(investmentStrategy != null, "unknown investment strategy %s", name);
+        return investmentStrategy;
+    }
+
+    private static boolean isBinary(HttpExchange exchange) {
+        val contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        return contentType != null && contentType.startsWith(BINARY);
+    }
+
+    private static byte[] binaryPortfolios(List<Portfolio> portfolios) {
+        val output = new ByteArrayOutputStream();
+        val varint = new byte[10];
+        output.write(varint, 0, Varints.writeUnsigned(varint, 0, portfolios.size()));
+        for (val portfolio : portfolios) {
+            val bytes = PortfolioBinaryWriter.write(portfolio);
+            output.write(varint, 0, Varints.writeUnsigned(varint, 0, bytes.length));
+            output.write(bytes, 0, bytes.length);
+        }
+        return output.toByteArray();
+    }
+
+    private static void respondWithError(HttpExchange exchange, int status, String message) throws IOException {
+        val error = "{\"error\":" + PortfolioJson.quote(String.valueOf(message)) + "}";
+        respond(exchange, status, JSON, error.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private final class BinaryRequestReader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        private BinaryRequestReader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private GenerationRequest next() {
+            try {
+                val currencyCode = new byte[CURRENCY_CODE_LENGTH];
+                buffer.get(position, currencyCode);
+                position += CURRENCY_CODE_LENGTH;
+                val amount = readUnsigned(buffer, position);
+                position = skip(buffer, position);
+                val nameLength = readUnsigned(buffer, position);
+                position = skip(buffer, position);
+                checkArgument(nameLength >= 0 && nameLength <= buffer.limit() - position, "truncated generation request");
+                val name = new byte[(int) nameLength];
+                buffer.get(position, name);
+                position += name.length;
+
+                val currencyUnit = CurrencyUnit.of(new String(currencyCode, StandardCharsets.US_ASCII));
+                return GenerationRequest.of(Money.ofMinor(currencyUnit, amount), strategy(new String(name, StandardCharsets.UTF_8)));
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("truncated generation request", e);
+            }
+        }
+    }
+}
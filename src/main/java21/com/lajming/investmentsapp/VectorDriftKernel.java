@@ -0,0 +1,57 @@
+package com.lajming.investmentsapp;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.val;
+
+final class VectorDriftKernel implements DriftKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorDriftKernel() {
+    }
+
+    @Override
+    public int scan(long[][] amounts, int from, int to, double[] targetWeights, double maximumDrift, int[] breachingRows) {
+        int numberOfBreaches = 0;
+        val upperBound = from + DOUBLES.loopBound(to - from);
+        int row = from;
+        for (; row < upperBound; row += DOUBLES.length()) {
+            DoubleVector total = DoubleVector.zero(DOUBLES);
+            for (val column : amounts) {
+                total = total.add(load(column, row));
+            }
+            DoubleVector deviation = DoubleVector.zero(DOUBLES);
+            for (int ordinal = 0; ordinal < amounts.length; ordinal++) {
+                deviation = deviation.max(load(amounts[ordinal], row).sub(total.mul(targetWeights[ordinal])).abs());
+            }
+            val breaches = deviation.compare(VectorOperators.GT, total.mul(maximumDrift));
+            if (breaches.anyTrue()) {
+                for (long lanes = breaches.toLong(); lanes != 0; lanes &= lanes - 1) {
+                    breachingRows[numberOfBreaches++] = row + Long.numberOfTrailingZeros(lanes);
+                }
+            }
+        }
+        for (; row < to; row++) {
+            double total = 0;
+            for (val column : amounts) {
+                total += column[row];
+            }
+            double deviation = 0;
+            for (int ordinal = 0; ordinal < amounts.length; ordinal++) {
+                deviation = Math.max(deviation, Math.abs(amounts[ordinal][row] - targetWeights[ordinal] * total));
+            }
+            if (deviation > maximumDrift * total) {
+                breachingRows[numberOfBreaches++] = row;
+            }
+        }
+        return numberOfBreaches;
+    }
+
+    private static DoubleVector load(long[] column, int row) {
+        return (DoubleVector) LongVector.fromArray(LONGS, column, row).convert(VectorOperators.L2D, 0);
+    }
+}
@@ -0,0 +1,224 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.val;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class BacktestEngineTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+    private static final int NUMBER_OF_DAYS = 40;
+
+    private static final Fund POLISH_FUND_1 = polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1);
+    private static final Fund POLISH_FUND_2 = polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2);
+    private static final Fund FOREIGN_FUND = foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1);
+
+    private static final CompiledInvestmentStrategy ONLY_POLISH = CompiledInvestmentStrategy.compile("only-polish", ImmutableMap.of(
+        FundType.POLISH_INVESTMENT_FUND, 100
+    ));
+    private static final CompiledInvestmentStrategy HALF_AND_HALF = CompiledInvestmentStrategy.compile("half-and-half", ImmutableMap.of(
+        FundType.POLISH_INVESTMENT_FUND, 50,
+        FundType.FOREIGN_INVESTMENT_FUND, 50
+    ));
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void whenNavHistoryIsWritten_itShouldBeReadBackFromTheMappedFile() throws IOException {
+        // Arrange
+        val navs = navs(100);
+        navs[5] = Double.NaN;
+        val file = temporaryFolder.newFile().toPath();
+        try (NavHistoryWriter writer = NavHistoryWriter.create(file, FIRST_DAY, NUMBER_OF_DAYS)) {
+            writer.append(7L, navs).append(3L, navs(50));
+        }
+
+        // Act
+        try (NavHistory navHistory = NavHistory.open(file)) {
+
+            // Assert
+            assertThat(navHistory.getNumberOfFunds()).isEqualTo(2);
+            assertThat(navHistory.getLastDay()).isEqualTo(FIRST_DAY.plusDays(NUMBER_OF_DAYS - 1));
+            assertThat(navHistory.navOf(7L, FIRST_DAY)).isEqualTo(OptionalDouble.of(100));
+            assertThat(navHistory.navOf(3L, FIRST_DAY.plusDays(NUMBER_OF_DAYS - 1))).isEqualTo(OptionalDouble.of(50));
+            assertThat(navHistory.navOf(7L, FIRST_DAY.plusDays(5))).isEmpty();
+            assertThat(navHistory.navOf(7L, FIRST_DAY.minusDays(1))).isEmpty();
+            assertThat(navHistory.contains(4L)).isFalse();
+        }
+    }
+
+    @Test
+    public void whenFileIsNotANavHistory_openShouldThrowAnExceptionWithProperMessage() throws IOException {
+        // Arrange
+        val file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[64]);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> NavHistory.open(file));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("invalid nav history file " + file);
+    }
+
+    @Test
+    public void whenPricesChange_resultShouldContainReturnAndDrawdown() throws IOException {
+        // Arrange
+        val navs = navs(100);
+        navs[10] = 80;
+        navs[11] = Double.NaN;
+        Arrays.fill(navs, 12, NUMBER_OF_DAYS, 200);
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, navs))) {
+            val engine = BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1));
+
+            // Act
+            val result = engine.run(BacktestScenario.of(ONLY_POLISH, amountOfPLN(10000), FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(NUMBER_OF_DAYS - 1), Period.ofYears(1)));
+
+            // Assert
+            assertThat(result.getFinalValue()).isEqualTo(amountOfPLN(20000));
+            assertThat(result.getTotalReturn()).isCloseTo(1.0, within(1e-9));
+            assertThat(result.getMaxDrawdown()).isCloseTo(0.2, within(1e-9));
+            assertThat(result.getTurnover()).isEqualTo(0.0);
+            assertThat(result.getNumberOfRebalances()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void whenPortfolioDriftsAway_rebalancingShouldReportTurnover() throws IOException {
+        // Arrange
+        val polishNavs = navs(100);
+        Arrays.fill(polishNavs, 10, NUMBER_OF_DAYS, 200);
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, polishNavs, 3L, navs(100)))) {
+            val engine = BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1, FOREIGN_FUND));
+
+            // Act
+            val result = engine.run(scenario(HALF_AND_HALF, Period.ofDays(30)));
+
+            // Assert
+            assertThat(result.getFinalValue()).isEqualTo(amountOfPLN(15000));
+            assertThat(result.getTotalReturn()).isCloseTo(0.5, within(1e-9));
+            assertThat(result.getTurnover()).isCloseTo(1.0 / 6, within(1e-9));
+            assertThat(result.getNumberOfRebalances()).isEqualTo(1);
+            assertThat(result.getMaxDrawdown()).isEqualTo(0.0);
+        }
+    }
+
+    @Test
+    public void whenFundIsListedDuringBacktest_itShouldBeIncludedFromTheNextRebalancing() throws IOException {
+        // Arrange
+        val laterListedNavs = navs(100);
+        Arrays.fill(laterListedNavs, 0, 15, Double.NaN);
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, navs(100), 2L, laterListedNavs))) {
+            val engine = BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1, POLISH_FUND_2));
+
+            // Act
+            val result = engine.run(scenario(ONLY_POLISH, Period.ofDays(10)));
+
+            // Assert
+            assertThat(result.getNumberOfRebalances()).isEqualTo(3);
+            assertThat(result.getTurnover()).isCloseTo(0.5, within(1e-9));
+            assertThat(result.getTotalReturn()).isCloseTo(0.0, within(1e-9));
+        }
+    }
+
+    @Test
+    public void whenManyScenariosAreRun_resultsShouldMatchSequentialRuns() throws IOException {
+        // Arrange
+        val polishNavs = new double[NUMBER_OF_DAYS];
+        val foreignNavs = new double[NUMBER_OF_DAYS];
+        for (int day = 0; day < NUMBER_OF_DAYS; day++) {
+            polishNavs[day] = 100 + 10 * Math.sin(day);
+            foreignNavs[day] = 100 + day;
+        }
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, polishNavs, 3L, foreignNavs))) {
+            val engine = BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1, FOREIGN_FUND));
+            val scenarios = new ArrayList<BacktestScenario>();
+            for (val investmentStrategy : InvestmentStrategy.values()) {
+                for (int startDay = 0; startDay < 20; startDay += 5) {
+                    for (int period = 1; period <= 8; period *= 2) {
+                        scenarios.add(BacktestScenario.of(investmentStrategy.compiled(), amountOfPLN(1000),
+                            FIRST_DAY.plusDays(startDay), FIRST_DAY.plusDays(NUMBER_OF_DAYS - 1), Period.ofDays(period)));
+                    }
+                }
+            }
+
+            // Act
+            val results = engine.runAll(scenarios);
+
+            // Assert
+            assertThat(results).hasSize(scenarios.size());
+            for (int i = 0; i < scenarios.size(); i++) {
+                assertThat(results.get(i)).isEqualTo(engine.run(scenarios.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void whenScenarioIsOutsideOfNavHistory_runShouldThrowAnExceptionWithProperMessage() throws IOException {
+        // Arrange
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, navs(100)))) {
+            val engine = BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1));
+            val scenario = BacktestScenario.of(ONLY_POLISH, amountOfPLN(1000), FIRST_DAY, FIRST_DAY.plusYears(1), Period.ofMonths(1));
+
+            // Act
+            Throwable thrown = catchThrowable(() -> engine.run(scenario));
+
+            // Assert
+            assertThat(thrown)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("scenario from 2000-01-01 to 2001-01-01 is outside of nav history from 2000-01-01 to 2000-02-09");
+        }
+    }
+
+    @Test
+    public void whenFundHasNoNavHistory_creatingEngineShouldThrowAnExceptionWithProperMessage() throws IOException {
+        // Arrange
+        try (NavHistory navHistory = navHistory(ImmutableMap.of(1L, navs(100)))) {
+
+            // Act
+            Throwable thrown = catchThrowable(() -> BacktestEngine.of(navHistory, listOfFunds(POLISH_FUND_1, FOREIGN_FUND)));
+
+            // Assert
+            assertThat(thrown)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("fund with id 3 has no nav history");
+        }
+    }
+
+    private NavHistory navHistory(ImmutableMap<Long, double[]> navsByFundId) throws IOException {
+        Path file = temporaryFolder.newFile().toPath();
+        try (NavHistoryWriter writer = NavHistoryWriter.create(file, FIRST_DAY, NUMBER_OF_DAYS)) {
+            navsByFundId.forEach(writer::append);
+        }
+        return NavHistory.open(file);
+    }
+
+    private static BacktestScenario scenario(CompiledInvestmentStrategy investmentStrategy, Period rebalancingPeriod) {
+        return BacktestScenario.of(investmentStrategy, amountOfPLN(10000), FIRST_DAY, FIRST_DAY.plusDays(NUMBER_OF_DAYS - 1), rebalancingPeriod);
+    }
+
+    private static double[] navs(double nav) {
+        val navs = new double[NUMBER_OF_DAYS];
+        Arrays.fill(navs, nav);
+        return navs;
+    }
+}
@@ -0,0 +1,113 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class BatchPortfolioGeneratorTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfSixFunds();
+
+    private static final double[] REQUESTED_AMOUNTS = { 0, 10, 101, 1000, 2500, 10000, 64000, 125000 };
+
+    @Test
+    public void whenManyRequestsAreProvided_portfoliosShouldBeReturnedInInputOrderAndMatchSingleGeneration() {
+        // Arrange
+        val strategies = InvestmentStrategy.values();
+        val requests = new ArrayList<GenerationRequest>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(GenerationRequest.of(amountOfPLN(REQUESTED_AMOUNTS[i % REQUESTED_AMOUNTS.length]), strategies[i % strategies.length]));
+        }
+        val batchGenerator = BatchPortfolioGenerator.of(AVAILABLE_FUNDS);
+
+        // Act
+        val portfolios = batchGenerator.generatePortfolios(requests);
+
+        // Assert
+        assertThat(portfolios).hasSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            val request = requests.get(i);
+            val expected = PortfolioGenerator
+                .of(request.getInvestmentStrategy(), AVAILABLE_FUNDS)
+                .generatePortfolio(request.getAmount());
+            assertThat(portfolios.get(i)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void whenCustomExecutorIsProvided_portfoliosShouldBeGeneratedWithIt() {
+        // Arrange
+        val executor = Executors.newFixedThreadPool(2);
+        val batchGenerator = BatchPortfolioGenerator.of(FundUniverse.of(AVAILABLE_FUNDS), executor, 2);
+        val requests = Arrays.asList(
+            GenerationRequest.of(amountOfPLN(10000), InvestmentStrategy.CONSERVATIVE),
+            GenerationRequest.of(amountOfPLN(10), InvestmentStrategy.CONSERVATIVE)
+        );
+
+        // Act
+        val portfolios = batchGenerator.generatePortfolios(requests);
+        executor.shutdown();
+
+        // Assert
+        assertThat(portfolios.get(0).getPortfolioItems()).hasSize(AVAILABLE_FUNDS.size());
+        assertThat(portfolios.get(1).getPortfolioItems()).isEmpty();
+        assertThat(portfolios.get(1).getReminder()).isEqualTo(amountOfPLN(10));
+    }
+
+    @Test
+    public void whenNoRequestsAreProvided_shouldReturnEmptyList() {
+        // Arrange
+        val batchGenerator = BatchPortfolioGenerator.of(AVAILABLE_FUNDS);
+
+        // Act
+        val portfolios = batchGenerator.generatePortfolios(Collections.emptyList());
+
+        // Assert
+        assertThat(portfolios).isEmpty();
+    }
+
+    @Test
+    public void whenNegativeAmountOfMoneyIsRequested_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val batchGenerator = BatchPortfolioGenerator.of(AVAILABLE_FUNDS);
+        val requests = Collections.singletonList(GenerationRequest.of(amountOfPLN(-100), InvestmentStrategy.BALANCED));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> batchGenerator.generatePortfolios(requests));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("negative amount of money provided");
+    }
+
+    @Test
+    public void whenManyBatchesUseTheSameStrategy_oneGeneratorShouldBeReusedForAllOfThem() {
+        // Arrange
+        val customStrategy = CompiledInvestmentStrategy.compile("CUSTOM", Collections.singletonMap(FundType.POLISH_INVESTMENT_FUND, 100));
+        val batchGenerator = BatchPortfolioGenerator.of(AVAILABLE_FUNDS);
+        val builtInGenerator = batchGenerator.portfolioGenerator(InvestmentStrategy.BALANCED.compiled());
+
+        // Act
+        batchGenerator.generatePortfolios(Arrays.asList(
+            GenerationRequest.of(amountOfPLN(1000), InvestmentStrategy.BALANCED),
+            GenerationRequest.of(amountOfPLN(1000), customStrategy)));
+        val customGenerator = batchGenerator.portfolioGenerator(customStrategy);
+        batchGenerator.generatePortfolios(Collections.singletonList(GenerationRequest.of(amountOfPLN(2000), customStrategy)));
+
+        // Assert
+        assertThat(batchGenerator.portfolioGenerator(InvestmentStrategy.BALANCED.compiled())).isSameAs(builtInGenerator);
+        assertThat(batchGenerator.portfolioGenerator(customStrategy)).isSameAs(customGenerator);
+        assertThat(customGenerator.getInvestmentStrategy()).isSameAs(customStrategy);
+    }
+}
@@ -0,0 +1,71 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class CompactPortfolioTest {
+
+    @Test
+    public void whenCompactPortfolioIsGenerated_itShouldBeEqualToTheRegularPortfolio() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(1000));
+
+        // Act
+        val compactPortfolio = portfolioGenerator.generateCompactPortfolio(amountOfPLN(100000));
+
+        // Assert
+        val portfolio = portfolioGenerator.generatePortfolio(amountOfPLN(100000));
+        assertThat(compactPortfolio).isEqualTo(portfolio);
+        assertThat(compactPortfolio.getPortfolioItems()).isInstanceOf(ColumnarPortfolioItems.class);
+        assertThat(new ArrayList<>(compactPortfolio.getPortfolioItems())).isEqualTo(new ArrayList<>(portfolio.getPortfolioItems()));
+    }
+
+    @Test
+    public void whenExistingPortfolioIsCompacted_itShouldKeepItsItemsAndReminder() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val fundUniverse = FundUniverse.of(availableFunds);
+        val portfolio = PortfolioGenerator.ofFundUniverse(InvestmentStrategy.BALANCED, fundUniverse).generatePortfolio(amountOfPLN(101));
+
+        // Act
+        val compactPortfolio = portfolio.compact(fundUniverse);
+
+        // Assert
+        assertThat(compactPortfolio).isEqualTo(portfolio);
+        assertThat(compactPortfolio.getPortfolioItems())
+            .containsExactly(
+                PortfolioItem.of(availableFunds.get(0), amountOfPLN(15), bigDecimal("15")),
+                PortfolioItem.of(availableFunds.get(1), amountOfPLN(15), bigDecimal("15")),
+                PortfolioItem.of(availableFunds.get(2), amountOfPLN(60), bigDecimal("60")),
+                PortfolioItem.of(availableFunds.get(3), amountOfPLN(10), bigDecimal("10"))
+            );
+        assertThat(compactPortfolio.getReminder()).isEqualTo(amountOfPLN(1));
+    }
+
+    @Test
+    public void whenPortfolioHoldsFundsOutsideTheUniverse_compactingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, listOfManyFunds(3)).generatePortfolio(amountOfPLN(100));
+        val otherFundUniverse = FundUniverse.of(listOfFunds(polishInvestmentFund(7L, TEST_POLISH_INVESTMENT_FUND_NAME_1)));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> portfolio.compact(otherFundUniverse));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("fund with id 0 not found");
+    }
+}
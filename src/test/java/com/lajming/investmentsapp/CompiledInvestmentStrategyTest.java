@@ -0,0 +1,139 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.val;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Properties;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class CompiledInvestmentStrategyTest {
+
+    @Test
+    public void whenBuiltInStrategyIsCompiled_itShouldKeepItsPercentages() {
+        // Act
+        val compiled = InvestmentStrategy.CONSERVATIVE.compiled();
+
+        // Assert
+        assertThat(compiled.getName()).isEqualTo("CONSERVATIVE");
+        assertThat(compiled.getBasisPoints(FundType.POLISH_INVESTMENT_FUND)).isEqualTo(2000);
+        assertThat(compiled.getBasisPoints(FundType.FOREIGN_INVESTMENT_FUND)).isEqualTo(7500);
+        assertThat(compiled.getPercentage(FundType.MONEY_MARKET_FUND)).isEqualTo(5d);
+        assertThat(compiled.getFundTypes()).containsOnly(FundType.values());
+    }
+
+    @Test
+    public void whenPercentagesDoNotSumUpToOneHundred_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val percentages = ImmutableMap.of(
+            FundType.POLISH_INVESTMENT_FUND, 20d,
+            FundType.FOREIGN_INVESTMENT_FUND, 70.5
+        );
+
+        // Act
+        Throwable thrown = catchThrowable(() -> CompiledInvestmentStrategy.compile("custom", percentages));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("percentages of strategy custom should sum up to 100% but sum up to 90.5%");
+    }
+
+    @Test
+    public void whenPercentagesOverflowToOneHundred_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val percentages = ImmutableMap.of(
+            FundType.POLISH_INVESTMENT_FUND, new BigDecimal("21474836.47"),
+            FundType.FOREIGN_INVESTMENT_FUND, new BigDecimal("21474836.47"),
+            FundType.MONEY_MARKET_FUND, new BigDecimal("100.02")
+        );
+
+        // Act
+        Throwable thrown = catchThrowable(() -> CompiledInvestmentStrategy.compile("overflowing", percentages));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("percentage of POLISH_INVESTMENT_FUND in strategy overflowing should not exceed 100%");
+    }
+
+    @Test
+    public void whenPercentageIsFinerThanABasisPoint_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val percentages = ImmutableMap.of(
+            FundType.POLISH_INVESTMENT_FUND, 33.333,
+            FundType.FOREIGN_INVESTMENT_FUND, 66.667
+        );
+
+        // Act
+        Throwable thrown = catchThrowable(() -> CompiledInvestmentStrategy.compile("thirds", percentages));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("percentage of POLISH_INVESTMENT_FUND in strategy thirds should have at most two decimal places");
+    }
+
+    @Test
+    public void whenStrategiesAreLoadedFromProperties_theyShouldBeCompiledPerName() {
+        // Arrange
+        val properties = new Properties();
+        properties.setProperty("client-42.POLISH_INVESTMENT_FUND", "12.5");
+        properties.setProperty("client-42.FOREIGN_INVESTMENT_FUND", "87.5");
+        properties.setProperty("bonds.MONEY_MARKET_FUND", "100");
+
+        // Act
+        val strategies = InvestmentStrategyLoader.fromProperties(properties);
+
+        // Assert
+        assertThat(strategies).containsOnlyKeys("client-42", "bonds");
+        assertThat(strategies.get("client-42").getBasisPoints(FundType.POLISH_INVESTMENT_FUND)).isEqualTo(1250);
+        assertThat(strategies.get("client-42").getFundTypes())
+            .containsOnly(FundType.POLISH_INVESTMENT_FUND, FundType.FOREIGN_INVESTMENT_FUND);
+    }
+
+    @Test
+    public void whenStrategyPropertyHasUnknownFundType_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val properties = new Properties();
+        properties.setProperty("custom.BOND_FUND", "100");
+
+        // Act
+        Throwable thrown = catchThrowable(() -> InvestmentStrategyLoader.fromProperties(properties));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("unknown fund type in strategy property custom.BOND_FUND");
+    }
+
+    @Test
+    public void whenCustomStrategySkipsAFundType_fundsOfThatTypeShouldNotBeInvestedIn() {
+        // Arrange
+        val investmentStrategy = CompiledInvestmentStrategy.compile("no-money-market", ImmutableMap.of(
+            FundType.POLISH_INVESTMENT_FUND, 50,
+            FundType.FOREIGN_INVESTMENT_FUND, 50
+        ));
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+
+        // Act
+        val portfolio = PortfolioGenerator.of(investmentStrategy, availableFunds).generatePortfolio(amountOfPLN(101));
+
+        // Assert
+        assertThat(portfolio.getPortfolioItems())
+            .containsExactly(
+                PortfolioItem.of(availableFunds.get(0), amountOfPLN(50), bigDecimal("50")),
+                PortfolioItem.of(availableFunds.get(1), amountOfPLN(50), bigDecimal("50"))
+            );
+        assertThat(portfolio.getReminder()).isEqualTo(amountOfPLN(1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class DriftScannerTest {
+
+    private static final CompiledInvestmentStrategy BALANCED = InvestmentStrategy.BALANCED.compiled();
+    private static final CompiledInvestmentStrategy AGGRESSIVE = InvestmentStrategy.AGGRESSIVE.compiled();
+
+    @Test
+    public void whenClientsDriftBeyondMaximumDrift_onlyTheyShouldBeReportedWithTheirLargestDrift() {
+        // Arrange
+        val clientHoldings = ClientHoldings.create();
+        addClient(clientHoldings, 1L, BALANCED, 3000, 6000, 1000);
+        addClient(clientHoldings, 2L, BALANCED, 3400, 5700, 900);
+        addClient(clientHoldings, 3L, BALANCED, 3500, 4500, 2000);
+        addClient(clientHoldings, 4L, AGGRESSIVE, 6000, 2000, 2000);
+        addClient(clientHoldings, 5L, AGGRESSIVE, 0, 0, 0);
+
+        // Act
+        val clientDrifts = DriftScanner.of(clientHoldings).scan(5);
+
+        // Assert
+        assertThat(clientDrifts).extracting(ClientDrift::getClientId).containsExactlyInAnyOrder(3L, 4L);
+        val balancedDrift = clientDrifts.stream().filter(clientDrift -> clientDrift.getClientId() == 3L).findFirst().get();
+        assertThat(balancedDrift.getInvestmentStrategy()).isSameAs(BALANCED);
+        assertThat(balancedDrift.getFundType()).isEqualTo(FundType.FOREIGN_INVESTMENT_FUND);
+        assertThat(balancedDrift.getDrift()).isCloseTo(-15, within(1e-9));
+        val aggressiveDrift = clientDrifts.stream().filter(clientDrift -> clientDrift.getClientId() == 4L).findFirst().get();
+        assertThat(aggressiveDrift.getFundType()).isEqualTo(FundType.MONEY_MARKET_FUND);
+        assertThat(aggressiveDrift.getDrift()).isCloseTo(-20, within(1e-9));
+    }
+
+    @Test
+    public void whenPositionsAreAddedAsColumns_theyShouldBeSummedPerClientAndFundType() {
+        // Arrange
+        val clientHoldings = ClientHoldings.create();
+        clientHoldings.addClient(7L, BALANCED);
+        clientHoldings.addClient(8L, AGGRESSIVE);
+
+        // Act
+        clientHoldings.addPositions(
+            new long[] { 7L, 8L, 7L, 7L, 8L },
+            new byte[] { 0, 2, 0, 1, 2 },
+            new long[] { 100, 50, 200, 700, 25 });
+
+        // Assert
+        assertThat(clientHoldings.getNumberOfClients()).isEqualTo(2);
+        assertThat(clientHoldings.amountOf(7L, FundType.POLISH_INVESTMENT_FUND)).isEqualTo(300);
+        assertThat(clientHoldings.amountOf(7L, FundType.FOREIGN_INVESTMENT_FUND)).isEqualTo(700);
+        assertThat(clientHoldings.amountOf(8L, FundType.MONEY_MARKET_FUND)).isEqualTo(75);
+        assertThat(clientHoldings.amountOf(8L, FundType.POLISH_INVESTMENT_FUND)).isZero();
+    }
+
+    @Test
+    public void whenScanningManyClientsInParallel_breachesShouldMatchPerClientComputation() {
+        // Arrange
+        val random = new Random(42);
+        val clientHoldings = ClientHoldings.create();
+        val expectedClientIds = new ArrayList<Long>();
+        val strategies = new CompiledInvestmentStrategy[] { InvestmentStrategy.CONSERVATIVE.compiled(), BALANCED, AGGRESSIVE };
+        for (long clientId = 0; clientId < 100000; clientId++) {
+            val investmentStrategy = strategies[random.nextInt(strategies.length)];
+            val amounts = new long[FundType.values().length];
+            long total = 0;
+            for (int ordinal = 0; ordinal < amounts.length; ordinal++) {
+                amounts[ordinal] = random.nextInt(1000000);
+                total += amounts[ordinal];
+            }
+            addClient(clientHoldings, clientId, investmentStrategy, amounts[0], amounts[1], amounts[2]);
+            for (val fundType : FundType.values()) {
+                if (Math.abs(100.0 * amounts[fundType.ordinal()] / total - investmentStrategy.getPercentage(fundType)) > 30) {
+                    expectedClientIds.add(clientId);
+                    break;
+                }
+            }
+        }
+
+        // Act
+        val clientDrifts = DriftScanner.of(clientHoldings, new ForkJoinPool(4)).scan(30);
+
+        // Assert
+        assertThat(expectedClientIds).isNotEmpty();
+        assertThat(clientDrifts).extracting(ClientDrift::getClientId).containsExactlyInAnyOrderElementsOf(expectedClientIds);
+        assertThat(clientDrifts).allSatisfy(clientDrift -> assertThat(Math.abs(clientDrift.getDrift())).isGreaterThan(30));
+    }
+
+    @Test
+    public void whenPositionBelongsToUnknownClient_addingItShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val clientHoldings = ClientHoldings.create();
+        clientHoldings.addClient(1L, BALANCED);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> clientHoldings.addPositions(new long[] { 1L, 2L }, new byte[] { 0, 0 }, new long[] { 100, 100 }));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("client 2 not found");
+    }
+
+    @Test
+    public void whenMaximumDriftIsNotAPercentage_scanShouldThrowAnExceptionWithProperMessage() {
+        // Act
+        Throwable thrown = catchThrowable(() -> DriftScanner.of(ClientHoldings.create()).scan(-1));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("maximum drift should be between 0 and 100 percentage points");
+    }
+
+    private static void addClient(ClientHoldings clientHoldings, long clientId, CompiledInvestmentStrategy investmentStrategy,
+                                  long polishAmount, long foreignAmount, long moneyMarketAmount) {
+        clientHoldings.addClient(clientId, investmentStrategy);
+        clientHoldings.addPosition(clientId, FundType.POLISH_INVESTMENT_FUND, polishAmount);
+        clientHoldings.addPosition(clientId, FundType.FOREIGN_INVESTMENT_FUND, foreignAmount);
+        clientHoldings.addPosition(clientId, FundType.MONEY_MARKET_FUND, moneyMarketAmount);
+    }
+}
@@ -0,0 +1,171 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class ExposureAggregatorTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfSixFunds();
+
+    private static final PortfolioGenerator BALANCED = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS);
+    private static final PortfolioGenerator AGGRESSIVE = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS);
+
+    @Test
+    public void whenPortfoliosAreAdded_snapshotShouldContainTotalsPerFundTypeAndStrategy() {
+        // Arrange
+        val aggregator = ExposureAggregator.of(CurrencyUnit.of("PLN"));
+        val balanced = BALANCED.generatePortfolio(amountOfPLN(10000));
+        val aggressive = AGGRESSIVE.generatePortfolio(amountOfPLN(5000));
+
+        // Act
+        aggregator.add(InvestmentStrategy.BALANCED, balanced);
+        aggregator.add(InvestmentStrategy.AGGRESSIVE, aggressive);
+        val snapshot = aggregator.snapshot();
+
+        // Assert
+        assertThat(snapshot.getNumberOfPortfolios()).isEqualTo(2);
+        assertThat(snapshot.getTotal()).isEqualTo(investedAmount(balanced).plus(investedAmount(aggressive)));
+        assertThat(snapshot.getStrategyTotal("BALANCED")).isEqualTo(investedAmount(balanced));
+        assertThat(snapshot.getStrategyTotal("AGGRESSIVE")).isEqualTo(investedAmount(aggressive));
+        assertThat(snapshot.getStrategyTotal("CONSERVATIVE")).isEqualTo(amountOfPLN(0));
+        assertThat(snapshot.getInvestmentStrategyNames()).containsExactlyInAnyOrder("BALANCED", "AGGRESSIVE");
+        for (val fundType : FundType.values()) {
+            assertThat(snapshot.getFundTypeTotal(fundType)).isEqualTo(sumOfType(fundType, balanced, aggressive));
+        }
+        for (val fund : AVAILABLE_FUNDS) {
+            assertThat(snapshot.getFundExposure(fund.getId())).isEqualTo(sumOfFund(fund, balanced, aggressive));
+        }
+        assertThat(snapshot.getFundExposure(42L)).isEqualTo(amountOfPLN(0));
+    }
+
+    @Test
+    public void whenPortfoliosAreAddedConcurrently_snapshotShouldMatchSequentialSums() {
+        // Arrange
+        val aggregator = ExposureAggregator.of(CurrencyUnit.of("PLN"), 4);
+        val executor = Executors.newFixedThreadPool(8);
+        val portfolios = new ArrayList<Portfolio>();
+        for (int i = 0; i < 400; i++) {
+            portfolios.add((i % 2 == 0 ? BALANCED : AGGRESSIVE).generatePortfolio(amountOfPLN(1000 + i)));
+        }
+
+        // Act
+        try {
+            addAll(aggregator, portfolios, executor).join();
+        } finally {
+            executor.shutdown();
+        }
+        val snapshot = aggregator.snapshot();
+
+        // Assert
+        assertThat(snapshot.getNumberOfPortfolios()).isEqualTo(400);
+        val fundExposures = snapshot.getFundExposures();
+        assertThat(fundExposures).extracting(exposure -> exposure.getFund().getId()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        for (val fundExposure : fundExposures) {
+            assertThat(fundExposure.getAmount()).isEqualTo(sumOfFund(fundExposure.getFund(), portfolios.toArray(new Portfolio[0])));
+        }
+        assertThat(snapshot.getTotal()).isEqualTo(portfolios.stream().map(ExposureAggregatorTest::investedAmount).reduce(Money::plus).get());
+    }
+
+    @Test
+    public void whenSnapshotIsTakenMidRun_itShouldBeConsistent() {
+        // Arrange
+        val aggregator = ExposureAggregator.of(CurrencyUnit.of("PLN"), 4);
+        val executor = Executors.newFixedThreadPool(4);
+        val portfolios = new ArrayList<Portfolio>();
+        for (int i = 0; i < 2000; i++) {
+            portfolios.add(BALANCED.generatePortfolio(amountOfPLN(1000 + i)));
+        }
+        val snapshots = new ArrayList<ExposureSnapshot>();
+        val done = new AtomicBoolean();
+
+        // Act
+        try {
+            val feeding = addAll(aggregator, portfolios, executor).whenComplete((result, error) -> done.set(true));
+            while (!done.get()) {
+                snapshots.add(aggregator.snapshot());
+            }
+            feeding.join();
+        } finally {
+            executor.shutdown();
+        }
+        snapshots.add(aggregator.snapshot());
+
+        // Assert
+        for (val snapshot : snapshots) {
+            val sumOfFunds = snapshot.getFundExposures().stream().map(FundExposure::getAmount).reduce(Money::plus).orElse(amountOfPLN(0));
+            val sumOfTypes = amountOfPLN(0)
+                .plus(snapshot.getFundTypeTotal(FundType.POLISH_INVESTMENT_FUND))
+                .plus(snapshot.getFundTypeTotal(FundType.FOREIGN_INVESTMENT_FUND))
+                .plus(snapshot.getFundTypeTotal(FundType.MONEY_MARKET_FUND));
+            assertThat(sumOfFunds).isEqualTo(snapshot.getTotal());
+            assertThat(sumOfTypes).isEqualTo(snapshot.getTotal());
+            assertThat(snapshot.getStrategyTotal("BALANCED")).isEqualTo(snapshot.getTotal());
+        }
+        assertThat(snapshots.get(snapshots.size() - 1).getNumberOfPortfolios()).isEqualTo(2000);
+    }
+
+    @Test
+    public void whenPortfolioCurrencyDiffers_addShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val aggregator = ExposureAggregator.of(CurrencyUnit.EUR);
+        val portfolio = BALANCED.generatePortfolio(amountOfPLN(1000));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> aggregator.add(InvestmentStrategy.BALANCED, portfolio));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("portfolio currency PLN does not match aggregated currency EUR");
+    }
+
+    private static CompletableFuture<Void> addAll(ExposureAggregator aggregator, List<Portfolio> portfolios, ExecutorService executor) {
+        val additions = new ArrayList<CompletableFuture<Void>>();
+        for (val portfolio : portfolios) {
+            additions.add(CompletableFuture.runAsync(() -> aggregator.add("BALANCED", portfolio), executor));
+        }
+        return CompletableFuture.allOf(additions.toArray(new CompletableFuture[0]));
+    }
+
+    private static Money investedAmount(Portfolio portfolio) {
+        return portfolio.totalMoney().minus(portfolio.getReminder());
+    }
+
+    private static Money sumOfType(FundType fundType, Portfolio... portfolios) {
+        Money sum = amountOfPLN(0);
+        for (val portfolio : portfolios) {
+            for (val item : portfolio.getPortfolioItems()) {
+                if (item.getFund().getType() == fundType) {
+                    sum = sum.plus(item.getAmount());
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static Money sumOfFund(Fund fund, Portfolio... portfolios) {
+        Money sum = amountOfPLN(0);
+        for (val portfolio : portfolios) {
+            for (val item : portfolio.getPortfolioItems()) {
+                if (item.getFund().getId() == fund.getId()) {
+                    sum = sum.plus(item.getAmount());
+                }
+            }
+        }
+        return sum;
+    }
+}
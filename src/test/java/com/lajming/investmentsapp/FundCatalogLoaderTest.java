@@ -0,0 +1,145 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class FundCatalogLoaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void whenCatalogIsLoaded_fundsShouldBeReturnedInFileOrder() throws IOException {
+        // Arrange
+        val catalog = catalogFile(
+            "id,type,name",
+            "1,POLISH_INVESTMENT_FUND," + TEST_POLISH_INVESTMENT_FUND_NAME_1,
+            "2, FOREIGN_INVESTMENT_FUND , " + TEST_FOREIGN_INVESTMENT_FUND_NAME_1 + "\r",
+            "",
+            "3,MONEY_MARKET_FUND,\"Money Market Fund, \"\"Plus\"\"\""
+        );
+
+        // Act
+        val funds = FundCatalogLoader.create().load(catalog);
+
+        // Assert
+        assertThat(funds).containsExactly(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, "Money Market Fund, \"Plus\"")
+        );
+    }
+
+    @Test
+    public void whenCatalogIsSplitIntoManyChunks_fundsShouldMatchSequentialParsing() throws IOException {
+        // Arrange
+        val expectedFunds = listOfManyFunds(5000);
+        val lines = new ArrayList<String>();
+        for (val fund : expectedFunds) {
+            lines.add(fund.getId() + "," + fund.getType() + "," + fund.getName());
+        }
+        val catalog = catalogFile(lines.toArray(new String[0]));
+        val executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        val funds = FundCatalogLoader.of(executor, 1000).load(catalog);
+
+        // Assert
+        assertThat(funds).isEqualTo(expectedFunds);
+        executor.shutdown();
+    }
+
+    @Test
+    public void whenNamesRepeat_theyShouldBeInterned() throws IOException {
+        // Arrange
+        val catalog = catalogFile(
+            "1,POLISH_INVESTMENT_FUND,Shared Name",
+            "2,FOREIGN_INVESTMENT_FUND,Shared Name"
+        );
+
+        // Act
+        val funds = FundCatalogLoader.create().load(catalog);
+
+        // Assert
+        assertThat(funds.get(0).getName()).isSameAs(funds.get(1).getName());
+    }
+
+    @Test
+    public void whenCatalogIsLoadedAsUniverse_itShouldBeUsableByPortfolioGenerator() throws IOException {
+        // Arrange
+        val catalog = catalogFile(
+            "1,POLISH_INVESTMENT_FUND," + TEST_POLISH_INVESTMENT_FUND_NAME_1,
+            "2,FOREIGN_INVESTMENT_FUND," + TEST_FOREIGN_INVESTMENT_FUND_NAME_1,
+            "3,MONEY_MARKET_FUND," + TEST_MONEY_MARKET_FUND_NAME_1
+        );
+
+        // Act
+        val fundUniverse = FundCatalogLoader.create().loadUniverse(catalog);
+
+        // Assert
+        val portfolio = PortfolioGenerator.ofFundUniverse(InvestmentStrategy.BALANCED, fundUniverse).generatePortfolio(amountOfPLN(100));
+        assertThat(portfolio.getPortfolioItems()).hasSize(3);
+        assertThat(portfolio.getReminder()).isEqualTo(amountOfPLN(0));
+    }
+
+    @Test
+    public void whenCatalogContainsMalformedRows_loadingShouldThrowAnExceptionWithLineNumbers() throws IOException {
+        // Arrange
+        val catalog = catalogFile(
+            "id,type,name",
+            "1,POLISH_INVESTMENT_FUND," + TEST_POLISH_INVESTMENT_FUND_NAME_1,
+            "2,BOND_FUND," + TEST_POLISH_INVESTMENT_FUND_NAME_2,
+            "x3,MONEY_MARKET_FUND," + TEST_MONEY_MARKET_FUND_NAME_1,
+            "4,MONEY_MARKET_FUND",
+            "5,MONEY_MARKET_FUND, ",
+            "6,MONEY_MARKET_FUND,\"Fund \"Unescaped\" Name\""
+        );
+
+        // Act
+        Throwable thrown = catchThrowable(() -> FundCatalogLoader.of(Runnable::run, 16).load(catalog));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("line 3: unknown fund type 'BOND_FUND'")
+            .hasMessageContaining("line 4: invalid fund id 'x3'")
+            .hasMessageContaining("line 5: expected id,type,name but got '4,MONEY_MARKET_FUND'")
+            .hasMessageContaining("line 6: missing fund name")
+            .hasMessageContaining("line 7: malformed quoted fund name '\"Fund \"Unescaped\" Name\"'");
+    }
+
+    @Test
+    public void whenCatalogDoesNotExist_loadingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val catalog = temporaryFolder.getRoot().toPath().resolve("missing.csv");
+
+        // Act
+        Throwable thrown = catchThrowable(() -> FundCatalogLoader.create().load(catalog));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(UncheckedIOException.class)
+            .hasMessage("unable to read fund catalog from " + catalog);
+    }
+
+    private Path catalogFile(String... lines) throws IOException {
+        val catalog = temporaryFolder.newFile("funds.csv").toPath();
+        Files.write(catalog, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return catalog;
+    }
+}
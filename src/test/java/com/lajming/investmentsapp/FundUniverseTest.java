@@ -0,0 +1,118 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class FundUniverseTest {
+
+    @Test
+    public void whenFundsOfManyTypesAreProvided_shouldGroupThemByTypeKeepingTheirOrder() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            foreignInvestmentFund(1L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_2)
+        );
+
+        // Act
+        val fundUniverse = FundUniverse.of(availableFunds);
+
+        // Assert
+        assertThat(fundUniverse.size()).isEqualTo(3);
+        assertThat(fundUniverse.getFundTypes())
+            .containsExactly(FundType.FOREIGN_INVESTMENT_FUND, FundType.POLISH_INVESTMENT_FUND);
+        assertThat(fundUniverse.fundsOf(FundType.FOREIGN_INVESTMENT_FUND))
+            .containsExactly(availableFunds.get(0), availableFunds.get(2));
+        assertThat(fundUniverse.countOf(FundType.FOREIGN_INVESTMENT_FUND)).isEqualTo(2);
+        assertThat(fundUniverse.firstFundOf(FundType.POLISH_INVESTMENT_FUND)).contains(availableFunds.get(1));
+        assertThat(fundUniverse.contains(FundType.MONEY_MARKET_FUND)).isFalse();
+        assertThat(fundUniverse.firstFundOf(FundType.MONEY_MARKET_FUND)).isEmpty();
+    }
+
+    @Test
+    public void whenTheSameFundIsProvidedTwice_shouldInternItById() {
+        // Arrange
+        val fund = polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1);
+        val sameFund = polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1);
+
+        // Act
+        val fundUniverse = FundUniverse.of(listOfFunds(fund, sameFund));
+
+        // Assert
+        val funds = fundUniverse.fundsOf(FundType.POLISH_INVESTMENT_FUND);
+        assertThat(funds).hasSize(2);
+        assertThat(funds.get(1)).isSameAs(fund);
+        assertThat(fundUniverse.fundById(1L)).contains(fund);
+    }
+
+    @Test
+    public void whenDifferentFundsAreProvidedWithTheSameId_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(1L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+
+        // Act
+        Throwable thrown = catchThrowable(() -> FundUniverse.of(availableFunds));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("conflicting funds provided for id 1");
+    }
+
+    @Test
+    public void whenUniverseIsSharedBetweenGenerators_shouldGenerateTheSamePortfolioAsFromTheListOfFunds() {
+        // Arrange
+        val availableMoney = amountOfPLN(10000);
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_2),
+            moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val fundUniverse = FundUniverse.of(availableFunds);
+
+        // Act
+        val portfolio = PortfolioGenerator.ofFundUniverse(InvestmentStrategy.BALANCED, fundUniverse).generatePortfolio(availableMoney);
+
+        // Assert
+        val expected = PortfolioGenerator.of(availableMoney, InvestmentStrategy.BALANCED, availableFunds).generatePortfolio();
+        assertThat(portfolio).isEqualTo(expected);
+        assertThat(FundUniverse.of(Collections.emptyList()).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void whenFundIsAddedOrRemoved_otherGroupsShouldBeSharedAndFingerprintShouldMatchFullGrouping() {
+        // Arrange
+        val availableFunds = listOfManyFunds(300);
+        val fundUniverse = FundUniverse.of(availableFunds);
+        val addedFund = moneyMarketFund(1000L, TEST_MONEY_MARKET_FUND_NAME_3);
+        val fundsWithAddedFund = new ArrayList<Fund>(availableFunds);
+        fundsWithAddedFund.add(addedFund);
+
+        // Act
+        val withAddedFund = fundUniverse.withFund(addedFund);
+        val withoutAddedFund = withAddedFund.withoutFund(1000L);
+
+        // Assert
+        for (val fundType : FundType.values()) {
+            if (fundType != FundType.MONEY_MARKET_FUND) {
+                assertThat(withAddedFund.fundGroup(fundType.ordinal())).isSameAs(fundUniverse.fundGroup(fundType.ordinal()));
+            }
+        }
+        assertThat(withAddedFund.getFingerprint()).isEqualTo(FundUniverse.of(fundsWithAddedFund).getFingerprint());
+        assertThat(withAddedFund.fundById(1000L)).contains(addedFund);
+        assertThat(withoutAddedFund.getFingerprint()).isEqualTo(fundUniverse.getFingerprint());
+        assertThat(withoutAddedFund.fundById(1000L)).isEmpty();
+    }
+}
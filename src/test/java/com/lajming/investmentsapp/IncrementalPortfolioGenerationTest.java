@@ -0,0 +1,127 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class IncrementalPortfolioGenerationTest {
+
+    @Test
+    public void whenDepositOnlyChangesTheReminder_allItemsShouldBeReusedAndTheReminderUpdated() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(300));
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(10000));
+
+        // Act
+        val update = portfolioGenerator.apply(previousPortfolio, PortfolioDelta.deposit(amountOfPLN(0.5)));
+
+        // Assert
+        val portfolio = update.getPortfolio();
+        assertThat(portfolio).isEqualTo(portfolioGenerator.generatePortfolio(amountOfPLN(10000.5)));
+        assertThat(portfolio.getReminder()).isEqualTo(amountOfPLN(0.5));
+        assertThat(portfolio.getPortfolioItems().iterator().next())
+            .isSameAs(previousPortfolio.getPortfolioItems().iterator().next());
+        assertThat(update.getPortfolioGenerator()).isSameAs(portfolioGenerator);
+    }
+
+    @Test
+    public void whenDepositChangesGroupAmounts_portfolioShouldBeTheSameAsAfterFullRegeneration() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, listOfManyFunds(30));
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(10000));
+
+        // Act
+        val portfolio = portfolioGenerator.apply(previousPortfolio, PortfolioDelta.deposit(amountOfPLN(2500))).getPortfolio();
+
+        // Assert
+        assertThat(portfolio).isEqualTo(portfolioGenerator.generatePortfolio(amountOfPLN(12500)));
+    }
+
+    @Test
+    public void whenFundIsAdded_onlyItsGroupShouldBeRecomputed() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val addedFund = moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_2);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, availableFunds);
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(10000));
+
+        // Act
+        val update = portfolioGenerator.apply(previousPortfolio, PortfolioDelta.fundAdded(addedFund));
+
+        // Assert
+        val expected = PortfolioGenerator
+            .of(InvestmentStrategy.CONSERVATIVE, listOfFunds(availableFunds.get(0), availableFunds.get(1), availableFunds.get(2), addedFund))
+            .generatePortfolio(amountOfPLN(10000));
+        val portfolioItems = update.getPortfolio().getPortfolioItems();
+        assertThat(update.getPortfolio()).isEqualTo(expected);
+        assertThat(portfolioItems).contains(PortfolioItem.of(addedFund, amountOfPLN(250), bigDecimal("2.5")));
+        assertThat(portfolioItems.iterator().next()).isSameAs(previousPortfolio.getPortfolioItems().iterator().next());
+        assertThat(update.getPortfolioGenerator().getFundUniverse().size()).isEqualTo(4);
+    }
+
+    @Test
+    public void whenFundIsRemoved_portfolioShouldBeTheSameAsAfterFullRegeneration() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_2),
+            moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, availableFunds);
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(1000));
+
+        // Act
+        val update = portfolioGenerator.apply(previousPortfolio, PortfolioDelta.fundRemoved(availableFunds.get(1)));
+
+        // Assert
+        val expected = PortfolioGenerator
+            .of(InvestmentStrategy.AGGRESSIVE, listOfFunds(availableFunds.get(0), availableFunds.get(2), availableFunds.get(3)))
+            .generatePortfolio(amountOfPLN(1000));
+        assertThat(update.getPortfolio()).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenLastFundOfATypeIsRemoved_portfolioShouldBecomeEmpty() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, availableFunds);
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(1000));
+
+        // Act
+        val portfolio = portfolioGenerator.apply(previousPortfolio, PortfolioDelta.fundRemoved(availableFunds.get(2))).getPortfolio();
+
+        // Assert
+        assertThat(portfolio.getPortfolioItems()).isEmpty();
+        assertThat(portfolio.getReminder()).isEqualTo(amountOfPLN(1000));
+    }
+
+    @Test
+    public void whenWithdrawalIsBiggerThanThePortfolio_shouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, listOfManyFunds(3));
+        val previousPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(100));
+
+        // Act
+        Throwable thrown = catchThrowable(
+            () -> portfolioGenerator.apply(previousPortfolio, PortfolioDelta.withdrawal(amountOfPLN(101)))
+        );
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("negative amount of money provided");
+    }
+}
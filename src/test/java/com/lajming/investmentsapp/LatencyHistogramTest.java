@@ -0,0 +1,41 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void whenValuesAreRecorded_percentilesShouldBeWithinBucketPrecision() {
+        // Arrange
+        val histogram = new LatencyHistogram();
+
+        // Act
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        // Assert
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat(histogram.percentile(50)).isBetween(50_000L, 50_000L * 9 / 8);
+        assertThat(histogram.percentile(99)).isBetween(99_000L, 100_000L);
+        assertThat(histogram.percentile(100)).isEqualTo(100_000);
+        assertThat(histogram.max()).isEqualTo(100_000);
+    }
+
+    @Test
+    public void whenValueIsBucketed_itShouldNotExceedTheUpperBoundOfItsBucket() {
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE }) {
+            // Act
+            val bucket = LatencyHistogram.bucketOf(value);
+
+            // Assert
+            assertThat(LatencyHistogram.upperBoundOf(bucket)).isGreaterThanOrEqualTo(value);
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.upperBoundOf(bucket - 1)).isLessThan(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static com.lajming.investmentsapp.MoneyUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoneyUtilsTest {
+
+    private static final CurrencyUnit PLN = CurrencyUnit.of("PLN");
+    private static final CurrencyUnit JPY = CurrencyUnit.of("JPY");
+
+    @Test
+    public void whenMultiplyingByBasisPoints_resultShouldBeRoundedDownToWholeUnitsLikeMoneyArithmetic() {
+        // Arrange
+        val random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            val amount = Money.ofMinor(PLN, Math.abs(random.nextLong() % 1_000_000_000L));
+            val basisPoints = random.nextInt(BASIS_POINTS_IN_WHOLE + 1);
+
+            // Act
+            val result = multiplyByBasisPoints(amount.getAmountMinorLong(), basisPoints, minorUnitsPerUnit(PLN));
+
+            // Assert
+            val expected = amount
+                .multipliedBy(basisPoints / 10_000d, RoundingMode.DOWN)
+                .rounded(0, RoundingMode.DOWN);
+            assertThat(toMoney(PLN, result)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void whenDividingAmount_resultShouldBeRoundedDownToWholeUnitsLikeMoneyArithmetic() {
+        // Arrange
+        val random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            val amount = Money.ofMinor(PLN, Math.abs(random.nextLong() % 1_000_000_000L));
+            val divider = 1 + random.nextInt(1000);
+
+            // Act
+            val result = divideAmount(amount.getAmountMinorLong(), divider, minorUnitsPerUnit(PLN));
+
+            // Assert
+            val expected = amount.dividedBy(divider, RoundingMode.DOWN).rounded(0, RoundingMode.DOWN);
+            assertThat(toMoney(PLN, result)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void whenCurrencyHasNoMinorUnits_oneUnitShouldBeOneMinorUnit() {
+        // Act
+        val minorUnitsPerUnit = minorUnitsPerUnit(JPY);
+
+        // Assert
+        assertThat(minorUnitsPerUnit).isEqualTo(1);
+        assertThat(multiplyByBasisPoints(101, 2000, minorUnitsPerUnit)).isEqualTo(20);
+        assertThat(isLessThanOneUnit(0, minorUnitsPerUnit)).isTrue();
+        assertThat(isLessThanOneUnit(1, minorUnitsPerUnit)).isFalse();
+    }
+
+    @Test
+    public void whenCalculatingPercentage_trailingZerosShouldBeStripped() {
+        // Act
+        val percentage = calculatePercentage(1_000_000, 66_680);
+
+        // Assert
+        assertThat(percentage).isEqualTo(TestUtils.bigDecimal("6.668"));
+        assertThat(sumAmounts(new long[] { 100, 250, 0 })).isEqualTo(350);
+    }
+}
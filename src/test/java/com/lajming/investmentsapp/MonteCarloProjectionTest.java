@@ -0,0 +1,155 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class MonteCarloProjectionTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfOneFundPerType();
+
+    private static final Portfolio PORTFOLIO = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(10000.01));
+
+    private static final double[][] NO_VOLATILITY = new double[3][3];
+
+    @Test
+    public void whenReturnsHaveNoVolatility_allPercentilesShouldBeTheCompoundedValue() {
+        // Arrange
+        val returnModel = ReturnModel.ofFundTypes(new double[] { 0.10, 0.05, 0.02 }, NO_VOLATILITY);
+        val projection = MonteCarloProjection.of(returnModel);
+
+        // Act
+        val result = projection.project(PORTFOLIO, ProjectionSettings.of(10, 10000, 42L));
+
+        // Assert
+        val expected = 3000 * Math.pow(1.10, 10) + 6000 * Math.pow(1.05, 10) + 1000 * Math.pow(1.02, 10) + 0.01;
+        assertThat(result.getNumberOfPaths()).isEqualTo(10000);
+        assertThat(result.percentile(0, 50)).isEqualTo(amountOfPLN(10000.01));
+        assertThat(result.bandAt(10).getLower().getAmount().doubleValue()).isCloseTo(expected, within(expected * 0.005));
+        assertThat(result.bandAt(10).getUpper().getAmount().doubleValue()).isCloseTo(expected, within(expected * 0.005));
+    }
+
+    @Test
+    public void whenReturnsAreLogNormal_percentilesShouldMatchTheAnalyticalDistribution() {
+        // Arrange
+        val variance = 0.04;
+        val returnModel = ReturnModel.ofFundTypes(new double[] { 0.07, 0.07, 0.07 }, new double[][] {
+            { variance, variance, variance },
+            { variance, variance, variance },
+            { variance, variance, variance }
+        });
+        val projection = MonteCarloProjection.of(returnModel, new ForkJoinPool(4));
+
+        // Act
+        val result = projection.project(PORTFOLIO, ProjectionSettings.of(10, 200000, 7L));
+
+        // Assert
+        val drift = 10 * (Math.log(1.07) - variance / 2);
+        val deviation = Math.sqrt(10 * variance);
+        val median = 10000 * Math.exp(drift);
+        val lower = 10000 * Math.exp(drift - 1.6448536 * deviation);
+        val upper = 10000 * Math.exp(drift + 1.6448536 * deviation);
+        val band = result.bandAt(10);
+        assertThat(band.getMedian().getAmount().doubleValue()).isCloseTo(median, within(median * 0.01));
+        assertThat(band.getLower().getAmount().doubleValue()).isCloseTo(lower, within(lower * 0.02));
+        assertThat(band.getUpper().getAmount().doubleValue()).isCloseTo(upper, within(upper * 0.02));
+        assertThat(result.getBands()).hasSize(10);
+        assertThat(result.getBands().get(0).getMedian()).isLessThan(band.getMedian());
+    }
+
+    @Test
+    public void whenSeedIsTheSame_resultsShouldBeReproducibleForAnyParallelism() {
+        // Arrange
+        val returnModel = ReturnModel.ofFundTypes(new double[] { 0.08, 0.06, 0.02 }, new double[][] {
+            { 0.04, 0.01, 0 },
+            { 0.01, 0.02, 0 },
+            { 0, 0, 0.0001 }
+        });
+        val settings = ProjectionSettings.of(5, 50000, 123L);
+
+        // Act
+        val first = MonteCarloProjection.of(returnModel, new ForkJoinPool(3)).project(PORTFOLIO, settings);
+        val second = MonteCarloProjection.of(returnModel, new ForkJoinPool(3)).project(PORTFOLIO, settings);
+        val sequential = MonteCarloProjection.of(returnModel, Runnable::run, 1).project(PORTFOLIO, settings);
+        val wide = MonteCarloProjection.of(returnModel, new ForkJoinPool(16)).project(PORTFOLIO, settings);
+
+        // Assert
+        assertThat(first.getBands()).isEqualTo(second.getBands());
+        assertThat(sequential.getBands()).isEqualTo(first.getBands());
+        assertThat(wide.getBands()).isEqualTo(first.getBands());
+    }
+
+    @Test
+    public void whenConfidenceTargetIsReached_projectionShouldStopEarly() {
+        // Arrange
+        val returnModel = ReturnModel.ofFundTypes(new double[] { 0.07, 0.07, 0.07 }, new double[][] {
+            { 0.04, 0, 0 },
+            { 0, 0.04, 0 },
+            { 0, 0, 0.04 }
+        });
+        val settings = ProjectionSettings.of(10, 10000000, 1L).withPrecision(0.02, 0.95);
+
+        // Act
+        val result = MonteCarloProjection.of(returnModel, new ForkJoinPool(2)).project(PORTFOLIO, settings);
+
+        // Assert
+        assertThat(result.isConverged()).isTrue();
+        assertThat(result.getNumberOfPaths()).isLessThan(10000000);
+    }
+
+    @Test
+    public void whenReturnsArePerFund_eachFundShouldGrowWithItsOwnReturn() {
+        // Arrange
+        val returnModel = ReturnModel.ofFunds(new long[] { 3L, 1L, 2L }, new double[] { 0, 0.5, 0 }, NO_VOLATILITY);
+
+        // Act
+        val result = MonteCarloProjection.of(returnModel).project(PORTFOLIO, ProjectionSettings.of(1, 1000, 1L));
+
+        // Assert
+        assertThat(result.percentile(1, 50).getAmount().doubleValue()).isCloseTo(4500 + 6000 + 1000.01, within(11500 * 0.005));
+    }
+
+    @Test
+    public void whenFundHasNoReturnParameters_projectShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val returnModel = ReturnModel.ofFunds(new long[] { 1L, 2L }, new double[] { 0.05, 0.05 }, new double[2][2]);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> MonteCarloProjection.of(returnModel).project(PORTFOLIO, ProjectionSettings.of(1, 1000, 1L)));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("fund with id 3 has no return parameters");
+    }
+
+    @Test
+    public void whenCovarianceIsNotPositiveSemiDefinite_creatingModelShouldThrowAnExceptionWithProperMessage() {
+        // Act
+        Throwable thrown = catchThrowable(() -> ReturnModel.ofFundTypes(new double[] { 0.05, 0.05, 0.05 }, new double[][] {
+            { 0.01, 0.05, 0 },
+            { 0.05, 0.01, 0 },
+            { 0, 0, 0.01 }
+        }));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("covariance matrix should be positive semi-definite");
+    }
+
+    @Test
+    public void inverseStandardNormalShouldMatchKnownQuantiles() {
+        assertThat(MonteCarloProjection.inverseStandardNormal(0.5)).isCloseTo(0, within(1e-8));
+        assertThat(MonteCarloProjection.inverseStandardNormal(0.975)).isCloseTo(1.959964, within(1e-6));
+        assertThat(MonteCarloProjection.inverseStandardNormal(0.01)).isCloseTo(-2.326348, within(1e-6));
+    }
+}
@@ -0,0 +1,115 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioBatchJobTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfFourFunds();
+
+    @Test
+    public void whenManyRequestsAreProcessed_portfoliosShouldBeWrittenInInputOrderAndMatchSingleGeneration() {
+        // Arrange
+        val strategies = InvestmentStrategy.values();
+        val input = new StringBuilder("clientId,amount,currency,strategy\n");
+        val expectedLines = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            val strategy = strategies[i % strategies.length];
+            val amount = 100 + i * 7;
+            input.append("client-").append(i).append(',').append(amount).append(",PLN,").append(strategy.name()).append('\n');
+            val portfolio = PortfolioGenerator.of(strategy, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(amount));
+            expectedLines.add(PortfolioBatchJob.renderLine("client-" + i, portfolio));
+        }
+        val batchJob = PortfolioBatchJob.of(FundUniverse.of(AVAILABLE_FUNDS), InvestmentStrategyLoader.builtInStrategies(), 4, 8);
+        val output = new StringWriter();
+
+        // Act
+        val stats = batchJob.run(new BufferedReader(new StringReader(input.toString())), output);
+
+        // Assert
+        assertThat(Arrays.asList(output.toString().split("\n"))).isEqualTo(expectedLines);
+        assertThat(stats.getNumberOfRequests()).isEqualTo(1000);
+        assertThat(stats.getMaxLatency()).isGreaterThanOrEqualTo(stats.getMedianLatency());
+    }
+
+    @Test
+    public void whenPortfolioIsRendered_lineShouldContainClientReminderAndFundAmounts() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(101));
+
+        // Act
+        val line = PortfolioBatchJob.renderLine("client-1", portfolio);
+
+        // Assert
+        assertThat(line).isEqualTo("client-1,PLN,1.00,1:15.00;2:15.00;3:60.00;4:10.00");
+    }
+
+    @Test
+    public void whenRequestHasUnknownStrategy_jobShouldThrowAnExceptionWithLineNumber() {
+        // Arrange
+        val input = "client-1,100,PLN,BALANCED\n\nclient-2,100,PLN,UNKNOWN\n";
+        val batchJob = PortfolioBatchJob.of(FundUniverse.of(AVAILABLE_FUNDS), InvestmentStrategyLoader.builtInStrategies(), 2, 4);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> batchJob.run(new BufferedReader(new StringReader(input)), new StringWriter()));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("unknown investment strategy UNKNOWN at line 3");
+    }
+
+    @Test
+    public void whenRequestHasInvalidAmount_jobShouldThrowAnExceptionWithLineNumber() {
+        // Arrange
+        val input = "client-1,100.001,PLN,BALANCED\n";
+        val batchJob = PortfolioBatchJob.of(FundUniverse.of(AVAILABLE_FUNDS), InvestmentStrategyLoader.builtInStrategies(), 2, 4);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> batchJob.run(new BufferedReader(new StringReader(input)), new StringWriter()));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("invalid amount or currency at line 1");
+    }
+
+    @Test
+    public void whenReadingRequestsFailsWithAnError_jobShouldThrowAnExceptionInsteadOfSkippingPortfolios() {
+        // Arrange
+        val error = new StackOverflowError();
+        val requests = new BufferedReader(new StringReader("client-1,100,PLN,BALANCED\nclient-2,100,PLN,BALANCED\n")) {
+            private int linesRead;
+
+            @Override
+            public String readLine() throws IOException {
+                if (++linesRead > 1) {
+                    throw error;
+                }
+                return super.readLine();
+            }
+        };
+        val batchJob = PortfolioBatchJob.of(FundUniverse.of(AVAILABLE_FUNDS), InvestmentStrategyLoader.builtInStrategies(), 2, 4);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> batchJob.run(requests, new StringWriter()));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalStateException.class)
+            .hasCause(error);
+    }
+}
@@ -0,0 +1,180 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioBinaryFormatTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfFunds(
+        polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+        polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2),
+        foreignInvestmentFund(300L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+        moneyMarketFund(-4L, TEST_MONEY_MARKET_FUND_NAME_1)
+    );
+
+    @Test
+    public void whenPortfolioIsWrittenAndRead_itShouldBeEqualToTheOriginal() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(30.55));
+
+        // Act
+        val decoded = PortfolioBinaryReader.of(PortfolioBinaryWriter.write(portfolio)).toPortfolio();
+
+        // Assert
+        assertThat(decoded).isEqualTo(portfolio);
+        assertThat(new ArrayList<>(decoded.getPortfolioItems())).isEqualTo(new ArrayList<>(portfolio.getPortfolioItems()));
+        assertThat(decoded.toMultilineString()).isEqualTo(portfolio.toMultilineString());
+    }
+
+    @Test
+    public void whenLargeCompactPortfolioIsWrittenAndRead_itShouldBeEqualToTheOriginal() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, listOfManyFunds(10_000)).generateCompactPortfolio(amountOfPLN(1_000_000));
+
+        // Act
+        val decoded = PortfolioBinaryReader.of(PortfolioBinaryWriter.write(portfolio)).toPortfolio();
+
+        // Assert
+        assertThat(new ArrayList<>(decoded.getPortfolioItems())).isEqualTo(new ArrayList<>(portfolio.getPortfolioItems()));
+        assertThat(decoded.getReminder()).isEqualTo(portfolio.getReminder());
+    }
+
+    @Test
+    public void whenSingleItemIsRead_itShouldBeDecodedWithoutTheRestOfThePortfolio() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(101));
+        val bytes = PortfolioBinaryWriter.write(portfolio);
+        val buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+        buffer.put(new byte[] { 7, 7 }).put(bytes).position(2);
+
+        // Act
+        val reader = PortfolioBinaryReader.of(buffer);
+
+        // Assert
+        assertThat(reader.size()).isEqualTo(4);
+        assertThat(reader.getFundId(3)).isEqualTo(-4L);
+        assertThat(reader.getFundType(2)).isEqualTo(FundType.FOREIGN_INVESTMENT_FUND);
+        assertThat(reader.getAmount(2)).isEqualTo(amountOfPLN(60));
+        assertThat(reader.getPercentage(2)).isEqualTo(bigDecimal("60"));
+        assertThat(reader.getItem(0)).isEqualTo(PortfolioItem.of(AVAILABLE_FUNDS.get(0), amountOfPLN(15), bigDecimal("15")));
+        assertThat(reader.getReminder()).isEqualTo(amountOfPLN(1));
+    }
+
+    @Test
+    public void whenEmptyPortfolioIsWritten_payloadShouldOnlyHoldTheHeader() {
+        // Arrange
+        val portfolio = Portfolio.emptyPortfolioWithReminder(amountOfPLN(0.5));
+
+        // Act
+        val bytes = PortfolioBinaryWriter.write(portfolio);
+
+        // Assert
+        assertThat(bytes).hasSize(6);
+        assertThat(PortfolioBinaryReader.of(bytes).toPortfolio()).isEqualTo(portfolio);
+    }
+
+    @Test
+    public void whenVersionIsUnsupported_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val bytes = PortfolioBinaryWriter.write(Portfolio.emptyPortfolioWithReminder(amountOfPLN(0)));
+        bytes[0] = 9;
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(bytes));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("unsupported portfolio format version 9");
+    }
+
+    @Test
+    public void whenPayloadIsTruncated_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(101));
+        val bytes = PortfolioBinaryWriter.write(portfolio);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(Arrays.copyOf(bytes, bytes.length - 3)));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("truncated portfolio payload");
+    }
+
+    @Test
+    public void whenNumberOfItemsOverflowsToNegative_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val bytes = payloadOf('P', 'L', 'N', 0, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(bytes));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("malformed number of portfolio items -1");
+    }
+
+    @Test
+    public void whenFundNameLengthOverflowsToNegative_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val bytes = payloadOf('P', 'L', 'N', 0, 1, 2, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01, 0);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(bytes));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("truncated portfolio payload");
+    }
+
+    @Test
+    public void whenReminderOverflowsToNegative_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val bytes = payloadOf('P', 'L', 'N', 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01, 0);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(bytes));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("malformed portfolio reminder -1");
+    }
+
+    @Test
+    public void whenItemAmountOverflowsToNegative_readingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val bytes = payloadOf('P', 'L', 'N', 0, 1, 2, 0, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01);
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioBinaryReader.of(bytes));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("malformed amount of portfolio item -1");
+    }
+
+    private static byte[] payloadOf(int... bytes) {
+        val payload = new byte[bytes.length + 1];
+        payload[0] = PortfolioBinaryWriter.VERSION;
+        for (int i = 0; i < bytes.length; i++) {
+            payload[i + 1] = (byte) bytes[i];
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,91 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioCacheTest {
+
+    @Test
+    public void whenTheSameRequestIsRepeated_portfolioShouldBeServedFromTheCache() {
+        // Arrange
+        val portfolioCache = PortfolioCache.withMaximumSize(100);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(30));
+
+        // Act
+        val firstPortfolio = portfolioCache.generatePortfolio(portfolioGenerator, amountOfPLN(10000));
+        val secondPortfolio = portfolioCache.generatePortfolio(portfolioGenerator, amountOfPLN(10000));
+
+        // Assert
+        assertThat(secondPortfolio).isSameAs(firstPortfolio);
+        assertThat(firstPortfolio).isEqualTo(portfolioGenerator.generatePortfolio(amountOfPLN(10000)));
+        assertThat(portfolioCache.stats().hitCount()).isEqualTo(1);
+        assertThat(portfolioCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenFundUniverseOrStrategyDiffers_portfolioShouldBeGeneratedAgain() {
+        // Arrange
+        val portfolioCache = PortfolioCache.withMaximumSize(100);
+        val funds = listOfManyFunds(30);
+
+        // Act
+        portfolioCache.generatePortfolio(PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, funds), amountOfPLN(10000));
+        portfolioCache.generatePortfolio(PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, funds), amountOfPLN(10000));
+        portfolioCache.generatePortfolio(PortfolioGenerator.of(InvestmentStrategy.BALANCED, funds), amountOfPLN(10000));
+        portfolioCache.generatePortfolio(PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, funds.subList(0, 20)), amountOfPLN(10000));
+
+        // Assert
+        assertThat(portfolioCache.stats().hitCount()).isEqualTo(1);
+        assertThat(portfolioCache.stats().missCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenCacheIsFull_leastRecentlyUsedPortfolioShouldBeEvicted() {
+        // Arrange
+        val portfolioCache = PortfolioCache.fromSpec("maximumSize=1");
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, listOfManyFunds(3));
+
+        // Act
+        portfolioCache.generatePortfolio(portfolioGenerator, amountOfPLN(100));
+        portfolioCache.generatePortfolio(portfolioGenerator, amountOfPLN(200));
+
+        // Assert
+        assertThat(portfolioCache.size()).isEqualTo(1);
+        assertThat(portfolioCache.stats().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenIdenticalRequestsArriveConcurrently_portfolioShouldBeGeneratedOnce() throws Exception {
+        // Arrange
+        val portfolioCache = PortfolioCache.withMaximumSize(100);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, listOfManyFunds(30_000));
+        val executor = Executors.newFixedThreadPool(8);
+        val start = new CountDownLatch(1);
+
+        // Act
+        val futures = new ArrayList<Future<Portfolio>>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return portfolioCache.generatePortfolio(portfolioGenerator, amountOfPLN(100000));
+            }));
+        }
+        start.countDown();
+
+        // Assert
+        val firstPortfolio = futures.get(0).get();
+        for (val future : futures) {
+            assertThat(future.get()).isSameAs(firstPortfolio);
+        }
+        assertThat(portfolioCache.stats().loadCount()).isEqualTo(1);
+        executor.shutdown();
+    }
+}
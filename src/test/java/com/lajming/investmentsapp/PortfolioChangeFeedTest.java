@@ -0,0 +1,256 @@
+package com.lajming.investmentsapp;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.val;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioChangeFeedTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfOneFundPerType();
+
+    private static final CompiledInvestmentStrategy EQUITY = CompiledInvestmentStrategy.compile("EQUITY", ImmutableMap.of(
+        FundType.POLISH_INVESTMENT_FUND, 50,
+        FundType.FOREIGN_INVESTMENT_FUND, 50
+    ));
+
+    @Test
+    public void whenFundIsAdded_onlyClientsOfStrategiesInvestingInItsTypeShouldBeUpdated() throws Exception {
+        // Arrange
+        val updates = new CopyOnWriteArrayList<ClientPortfolioUpdate>();
+        val addedFund = moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_2);
+        val forkJoinPool = new ForkJoinPool(2);
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS), forkJoinPool);
+        val equityPortfolio = changeFeed.register("equity", EQUITY, amountOfPLN(10000));
+        changeFeed.register("balanced-1", InvestmentStrategy.BALANCED.compiled(), amountOfPLN(10000));
+        changeFeed.register("balanced-2", InvestmentStrategy.BALANCED.compiled(), amountOfPLN(2500.5));
+        changeFeed.subscribe(updates::add, 16);
+
+        // Act
+        final int numberOfUpdates;
+        try {
+            numberOfUpdates = changeFeed.apply(FundChange.fundAdded(addedFund));
+            changeFeed.close();
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        // Assert
+        val portfolioGenerator = PortfolioGenerator.ofFundUniverse(InvestmentStrategy.BALANCED, FundUniverse.of(AVAILABLE_FUNDS).withFund(addedFund));
+        assertThat(numberOfUpdates).isEqualTo(2);
+        assertThat(updates).extracting(ClientPortfolioUpdate::getClientId).containsExactlyInAnyOrder("balanced-1", "balanced-2");
+        assertThat(changeFeed.portfolioOf("balanced-1")).contains(portfolioGenerator.generatePortfolio(amountOfPLN(10000)));
+        assertThat(changeFeed.portfolioOf("balanced-2")).contains(portfolioGenerator.generatePortfolio(amountOfPLN(2500.5)));
+        assertThat(changeFeed.portfolioOf("equity")).containsSame(equityPortfolio);
+        assertThat(changeFeed.getFundUniverse().fundById(4L)).contains(addedFund);
+    }
+
+    @Test
+    public void whenFundIsReclassified_portfoliosShouldBeTheSameAsAfterFullRegeneration() {
+        // Arrange
+        val updates = new CopyOnWriteArrayList<ClientPortfolioUpdate>();
+        val fundUniverse = FundUniverse.of(AVAILABLE_FUNDS).withFund(polishInvestmentFund(4L, TEST_POLISH_INVESTMENT_FUND_NAME_2));
+        val reclassifiedFund = foreignInvestmentFund(4L, TEST_POLISH_INVESTMENT_FUND_NAME_2);
+        val changeFeed = PortfolioChangeFeed.of(fundUniverse);
+        val previousPortfolio = changeFeed.register("equity", EQUITY, amountOfPLN(10000));
+        changeFeed.subscribe(updates::add, 1);
+
+        // Act
+        changeFeed.apply(FundChange.fundReclassified(reclassifiedFund));
+        changeFeed.close();
+
+        // Assert
+        val expected = PortfolioGenerator.of(EQUITY, listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            reclassifiedFund,
+            moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1)
+        )).generatePortfolio(amountOfPLN(10000));
+        assertThat(updates).containsExactly(ClientPortfolioUpdate.of("equity", FundChange.fundReclassified(reclassifiedFund), previousPortfolio, expected));
+        assertThat(changeFeed.portfolioOf("equity")).contains(expected);
+    }
+
+    @Test
+    public void whenFundIsClosed_itShouldBeRemovedFromAffectedPortfolios() {
+        // Arrange
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS).withFund(moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_2)));
+        changeFeed.register("conservative", InvestmentStrategy.CONSERVATIVE.compiled(), amountOfPLN(10000));
+
+        // Act
+        val numberOfUpdates = changeFeed.apply(FundChange.fundClosed(moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_2)));
+
+        // Assert
+        val expected = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(10000));
+        assertThat(numberOfUpdates).isEqualTo(1);
+        assertThat(changeFeed.portfolioOf("conservative")).contains(expected);
+        assertThat(changeFeed.getFundUniverse().contains(FundType.MONEY_MARKET_FUND)).isTrue();
+    }
+
+    @Test
+    public void whenSubscriberBufferIsFull_applyShouldWaitForTheSubscriber() throws Exception {
+        // Arrange
+        val delivering = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val forkJoinPool = new ForkJoinPool(2);
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS), forkJoinPool);
+        for (int client = 0; client < 10; client++) {
+            changeFeed.register("client-" + client, InvestmentStrategy.AGGRESSIVE.compiled(), amountOfPLN(1000 + client));
+        }
+        val subscription = changeFeed.subscribe(update -> {
+            delivering.countDown();
+            awaitQuietly(release);
+        }, 2);
+
+        try {
+            // Act
+            val applied = CompletableFuture.supplyAsync(() -> changeFeed.apply(FundChange.fundAdded(polishInvestmentFund(4L, TEST_POLISH_INVESTMENT_FUND_NAME_2))));
+            assertThat(delivering.await(10, TimeUnit.SECONDS)).isTrue();
+            while (subscription.getBufferedUpdates() < 2 && !applied.isDone()) {
+                Thread.yield();
+            }
+            val appliedBeforeRelease = applied.isDone();
+            val bufferedBeforeRelease = subscription.getBufferedUpdates();
+            release.countDown();
+
+            // Assert
+            assertThat(appliedBeforeRelease).isFalse();
+            assertThat(bufferedBeforeRelease).isEqualTo(2);
+            assertThat(applied.get(10, TimeUnit.SECONDS)).isEqualTo(10);
+            changeFeed.close();
+            assertThat(subscription.getDeliveredUpdates()).isEqualTo(10);
+        } finally {
+            release.countDown();
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void whenFeedIsClosedWhileApplyIsPublishing_allUpdatesShouldStillBeDelivered() throws Exception {
+        // Arrange
+        val delivering = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS));
+        for (int client = 0; client < 10; client++) {
+            changeFeed.register("client-" + client, InvestmentStrategy.AGGRESSIVE.compiled(), amountOfPLN(1000 + client));
+        }
+        val subscription = changeFeed.subscribe(update -> {
+            delivering.countDown();
+            awaitQuietly(release);
+        }, 2);
+
+        try {
+            // Act
+            val applied = CompletableFuture.supplyAsync(() -> changeFeed.apply(FundChange.fundAdded(polishInvestmentFund(4L, TEST_POLISH_INVESTMENT_FUND_NAME_2))));
+            assertThat(delivering.await(10, TimeUnit.SECONDS)).isTrue();
+            while (subscription.getBufferedUpdates() < 2) {
+                Thread.yield();
+            }
+            val closed = CompletableFuture.runAsync(changeFeed::close);
+            release.countDown();
+
+            // Assert
+            assertThat(applied.get(10, TimeUnit.SECONDS)).isEqualTo(10);
+            closed.get(10, TimeUnit.SECONDS);
+            assertThat(subscription.getDeliveredUpdates()).isEqualTo(10);
+            assertThat(subscription.getBufferedUpdates()).isEqualTo(0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void whenSubscriberCallsBackIntoTheFeed_applyShouldNotDeadlock() throws Exception {
+        // Arrange
+        val fundUniverses = new CopyOnWriteArrayList<FundUniverse>();
+        val delivered = new CountDownLatch(10);
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS));
+        for (int client = 0; client < 10; client++) {
+            changeFeed.register("client-" + client, InvestmentStrategy.BALANCED.compiled(), amountOfPLN(1000 + client));
+        }
+        changeFeed.subscribe(update -> {
+            fundUniverses.add(changeFeed.getFundUniverse());
+            changeFeed.register("registered-for-" + update.getClientId(), InvestmentStrategy.CONSERVATIVE.compiled(), amountOfPLN(1000));
+            delivered.countDown();
+        }, 1);
+
+        // Act
+        val applied = CompletableFuture.supplyAsync(() -> changeFeed.apply(FundChange.fundAdded(moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_2))));
+
+        // Assert
+        assertThat(applied.get(10, TimeUnit.SECONDS)).isEqualTo(10);
+        assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+        changeFeed.close();
+        assertThat(fundUniverses).hasSize(10);
+        assertThat(changeFeed.getNumberOfClients()).isEqualTo(20);
+    }
+
+    @Test
+    public void whenSubscriberThrows_itsSubscriptionShouldBeCancelledAndOtherSubscribersShouldStillReceiveUpdates() {
+        // Arrange
+        val updates = new CopyOnWriteArrayList<ClientPortfolioUpdate>();
+        val failure = new IllegalStateException("subscriber failed");
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS));
+        changeFeed.register("client-1", InvestmentStrategy.BALANCED.compiled(), amountOfPLN(1000));
+        changeFeed.register("client-2", InvestmentStrategy.BALANCED.compiled(), amountOfPLN(2000));
+        val failingSubscription = changeFeed.subscribe(update -> {
+            throw failure;
+        }, 1);
+        changeFeed.subscribe(updates::add, 1);
+
+        // Act
+        changeFeed.apply(FundChange.fundAdded(foreignInvestmentFund(4L, TEST_FOREIGN_INVESTMENT_FUND_NAME_2)));
+        changeFeed.close();
+
+        // Assert
+        assertThat(failingSubscription.isCancelled()).isTrue();
+        assertThat(failingSubscription.getFailure()).containsSame(failure);
+        assertThat(updates).hasSize(2);
+    }
+
+    @Test
+    public void whenAddedFundAlreadyExists_applyShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> changeFeed.apply(FundChange.fundAdded(polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1))));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("fund with id 1 already exists");
+    }
+
+    @Test
+    public void whenFundIsReclassifiedToTheSameType_applyShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val changeFeed = PortfolioChangeFeed.of(FundUniverse.of(AVAILABLE_FUNDS));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> changeFeed.apply(FundChange.fundReclassified(moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1))));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("fund with id 3 is already of type MONEY_MARKET_FUND");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioDiffTest {
+
+    private static final Fund POLISH_FUND_1 = polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1);
+    private static final Fund POLISH_FUND_2 = polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2);
+    private static final Fund FOREIGN_FUND_1 = foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1);
+    private static final Fund MONEY_MARKET_FUND_1 = moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1);
+
+    @Test
+    public void whenPortfoliosAreDiffed_ordersShouldBeTypedByDeltaSign() {
+        // Arrange
+        val current = portfolio(50,
+            item(POLISH_FUND_1, 100),
+            item(POLISH_FUND_2, 200),
+            item(FOREIGN_FUND_1, 300));
+        val target = portfolio(0,
+            item(FOREIGN_FUND_1, 350),
+            item(POLISH_FUND_1, 100),
+            item(MONEY_MARKET_FUND_1, 150));
+
+        // Act
+        val plan = PortfolioDiff.diff(current, target);
+
+        // Assert
+        assertThat(plan.getOrders()).containsExactly(
+            RebalancingOrder.of(RebalancingOrder.Type.BUY, FOREIGN_FUND_1, amountOfPLN(50)),
+            RebalancingOrder.of(RebalancingOrder.Type.HOLD, POLISH_FUND_1, amountOfPLN(0)),
+            RebalancingOrder.of(RebalancingOrder.Type.BUY, MONEY_MARKET_FUND_1, amountOfPLN(150)),
+            RebalancingOrder.of(RebalancingOrder.Type.SELL, POLISH_FUND_2, amountOfPLN(-200))
+        );
+        assertThat(plan.getNetCash()).isEqualTo(amountOfPLN(0));
+        assertThat(plan.ordersOfType(RebalancingOrder.Type.BUY)).hasSize(2);
+        assertThat(plan.isBalanced()).isFalse();
+    }
+
+    @Test
+    public void whenPortfolioIsDiffedWithItself_allOrdersShouldBeHolds() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, listOfManyFunds(1000)).generatePortfolio(amountOfPLN(123456.78));
+
+        // Act
+        val plan = PortfolioDiff.diff(portfolio, portfolio);
+
+        // Assert
+        assertThat(plan.getOrders()).hasSize(portfolio.getPortfolioItems().size());
+        assertThat(plan.isBalanced()).isTrue();
+        assertThat(plan.getNetCash()).isEqualTo(amountOfPLN(0));
+    }
+
+    @Test
+    public void whenStrategyChanges_applyingOrdersShouldReachTargetPortfolio() {
+        // Arrange
+        val funds = listOfManyFunds(500);
+        val current = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, funds).generatePortfolio(amountOfPLN(10000));
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, funds);
+
+        // Act
+        val plan = PortfolioDiff.rebalance(current, portfolioGenerator);
+
+        // Assert
+        val target = portfolioGenerator.generatePortfolio(current.totalMoney());
+        val holdings = new HashMap<Long, Long>();
+        current.getPortfolioItems().forEach(item -> holdings.put(item.getFund().getId(), item.getAmount().getAmountMinorLong()));
+        plan.getOrders().forEach(order -> holdings.merge(order.getFund().getId(), order.getDelta().getAmountMinorLong(), Long::sum));
+        holdings.values().removeIf(amount -> amount == 0);
+        val expectedHoldings = new HashMap<Long, Long>();
+        target.getPortfolioItems().forEach(item -> expectedHoldings.put(item.getFund().getId(), item.getAmount().getAmountMinorLong()));
+        assertThat(holdings).isEqualTo(expectedHoldings);
+        assertThat(plan.getNetCash()).isEqualTo(target.getReminder().minus(current.getReminder()));
+    }
+
+    @Test
+    public void whenBookIsDiffed_missingPortfoliosShouldBeBoughtOrSoldEntirely() {
+        // Arrange
+        val currentBook = new LinkedHashMap<String, Portfolio>();
+        currentBook.put("kept", portfolio(0, item(POLISH_FUND_1, 100)));
+        currentBook.put("closed", portfolio(0, item(POLISH_FUND_2, 200)));
+        val targetBook = new LinkedHashMap<String, Portfolio>();
+        targetBook.put("kept", portfolio(0, item(POLISH_FUND_1, 120)));
+        targetBook.put("opened", portfolio(0, item(FOREIGN_FUND_1, 300)));
+        val executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        val plans = PortfolioDiff.of(executor, 2).diffBook(currentBook, targetBook);
+
+        // Assert
+        assertThat(plans.keySet()).containsExactly("kept", "closed", "opened");
+        assertThat(plans.get("kept").getOrders()).containsExactly(RebalancingOrder.of(RebalancingOrder.Type.BUY, POLISH_FUND_1, amountOfPLN(20)));
+        assertThat(plans.get("closed").getOrders()).containsExactly(RebalancingOrder.of(RebalancingOrder.Type.SELL, POLISH_FUND_2, amountOfPLN(-200)));
+        assertThat(plans.get("closed").getNetCash()).isEqualTo(amountOfPLN(200));
+        assertThat(plans.get("opened").getNetCash()).isEqualTo(amountOfPLN(-300));
+        executor.shutdown();
+    }
+
+    @Test
+    public void whenLargeBookIsDiffed_plansShouldMatchSequentialDiffs() {
+        // Arrange
+        val funds = listOfManyFunds(300);
+        val safe = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, funds);
+        val balanced = PortfolioGenerator.of(InvestmentStrategy.BALANCED, funds);
+        val currentBook = new LinkedHashMap<Integer, Portfolio>();
+        val targetBook = new LinkedHashMap<Integer, Portfolio>();
+        for (int client = 0; client < 200; client++) {
+            currentBook.put(client, safe.generatePortfolio(amountOfPLN(1000 + client)));
+            targetBook.put(client, balanced.generatePortfolio(amountOfPLN(1000 + client)));
+        }
+
+        // Act
+        val plans = PortfolioDiff.create().diffBook(currentBook, targetBook);
+
+        // Assert
+        for (int client = 0; client < 200; client++) {
+            assertThat(plans.get(client)).isEqualTo(PortfolioDiff.diff(currentBook.get(client), targetBook.get(client)));
+        }
+    }
+
+    @Test
+    public void whenCurrenciesDiffer_diffShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val current = portfolio(0, item(POLISH_FUND_1, 100));
+        val target = Portfolio.of(emptyList(), Money.zero(CurrencyUnit.EUR));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioDiff.diff(current, target));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("portfolios should have the same currency but got PLN and EUR");
+    }
+
+    @Test
+    public void whenFundAppearsTwice_diffShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val current = portfolio(0, item(POLISH_FUND_1, 100), item(POLISH_FUND_1, 50));
+        val target = portfolio(0, item(POLISH_FUND_1, 100));
+
+        // Act
+        Throwable thrown = catchThrowable(() -> PortfolioDiff.diff(current, target));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("fund with id 1 appears more than once in current portfolio");
+    }
+
+    private static Portfolio portfolio(double reminder, PortfolioItem... items) {
+        List<PortfolioItem> portfolioItems = asList(items);
+        return Portfolio.of(portfolioItems, amountOfPLN(reminder));
+    }
+
+    private static PortfolioItem item(Fund fund, double amount) {
+        return PortfolioItem.of(fund, amountOfPLN(amount), bigDecimal("0"));
+    }
+}
@@ -3,7 +3,10 @@ package com.lajming.investmentsapp;
 import lombok.val;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.lajming.investmentsapp.TestData.*;
 import static com.lajming.investmentsapp.TestUtils.*;
@@ -300,4 +303,98 @@ public class PortfolioGeneratorTest {
         assertThat(reminder).isEqualTo(amountOfPLN(0));
     }
 
+    @Test
+    public void whenGeneratorIsReused_eachCallShouldReturnAnIndependentPortfolioWithoutDuplicatedItems() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val portfolioGenerator = PortfolioGeneratorFactory.conservativePortfolioGenerator(FundUniverse.of(availableFunds));
+
+        // Act
+        val firstPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(100));
+        val secondPortfolio = portfolioGenerator.generatePortfolio(amountOfPLN(1000));
+
+        // Assert
+        assertThat(firstPortfolio.getPortfolioItems())
+            .containsExactly(
+                PortfolioItem.of(availableFunds.get(0), amountOfPLN(20), bigDecimal("20")),
+                PortfolioItem.of(availableFunds.get(1), amountOfPLN(75), bigDecimal("75")),
+                PortfolioItem.of(availableFunds.get(2), amountOfPLN(5), bigDecimal("5"))
+            );
+        assertThat(secondPortfolio.getPortfolioItems())
+            .containsExactly(
+                PortfolioItem.of(availableFunds.get(0), amountOfPLN(200), bigDecimal("20")),
+                PortfolioItem.of(availableFunds.get(1), amountOfPLN(750), bigDecimal("75")),
+                PortfolioItem.of(availableFunds.get(2), amountOfPLN(50), bigDecimal("5"))
+            );
+    }
+
+    @Test
+    public void whenGeneratorIsUsedConcurrently_eachThreadShouldGetTheSamePortfolio() throws Exception {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, availableFunds);
+        val expected = portfolioGenerator.generatePortfolio(amountOfPLN(10000));
+        val executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        val futures = new ArrayList<Future<Portfolio>>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit(() -> portfolioGenerator.generatePortfolio(amountOfPLN(10000))));
+        }
+
+        // Assert
+        for (val future : futures) {
+            assertThat(future.get()).isEqualTo(expected);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void whenNoMoneyIsBoundToTheGenerator_generatingWithoutMoneyShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, Collections.<Fund>emptyList());
+
+        // Act
+        Throwable thrown = catchThrowable(portfolioGenerator::generatePortfolio);
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("no money bound to the generator");
+    }
+
+    @Test
+    public void whenPercentagesDoNotTerminate_portfolioShouldBeGeneratedWithPercentagesRoundedDown() {
+        // Arrange
+        val availableFunds = listOfFunds(
+            polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TEST_POLISH_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(3L, TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, availableFunds);
+
+        // Act
+        val portfolio = portfolioGenerator.generatePortfolio(amountOfPLN(30));
+
+        // Assert
+        assertThat(portfolio.getPortfolioItems())
+            .containsExactly(
+                PortfolioItem.of(availableFunds.get(0), amountOfPLN(5), bigDecimal("16.6666666666")),
+                PortfolioItem.of(availableFunds.get(1), amountOfPLN(4), bigDecimal("13.3333333333")),
+                PortfolioItem.of(availableFunds.get(2), amountOfPLN(18), bigDecimal("60")),
+                PortfolioItem.of(availableFunds.get(3), amountOfPLN(3), bigDecimal("10"))
+            );
+        assertThat(portfolio.getReminder()).isEqualTo(amountOfPLN(0));
+    }
+
 }
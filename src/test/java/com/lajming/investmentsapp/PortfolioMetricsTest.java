@@ -0,0 +1,111 @@
+package com.lajming.investmentsapp;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.val;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioMetricsTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfOneFundPerType();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void unregisterMetrics() {
+        PortfolioMetrics.unregister();
+    }
+
+    @Test
+    public void whenMetricsSinkIsRegistered_generationsShouldBeRecordedPerStrategyAndFundCountBucket() {
+        // Arrange
+        val metrics = new PortfolioGenerationMetrics();
+        PortfolioMetrics.register(metrics);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            portfolioGenerator.generatePortfolio(amountOfPLN(1000 + i));
+        }
+        PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, listOfManyFunds(30)).generateCompactPortfolio(amountOfPLN(1000));
+
+        // Assert
+        assertThat(metrics.getGenerations("BALANCED", AVAILABLE_FUNDS.size())).isEqualTo(10);
+        assertThat(metrics.getGenerations("AGGRESSIVE", 30)).isEqualTo(1);
+        assertThat(metrics.getGenerations("AGGRESSIVE", 3)).isZero();
+        assertThat(metrics.getLatency("BALANCED", AVAILABLE_FUNDS.size(), 99)).isGreaterThan(Duration.ZERO);
+    }
+
+    @Test
+    public void whenEmptyPortfoliosAreGenerated_theyShouldBeCountedByReason() {
+        // Arrange
+        val metrics = new PortfolioGenerationMetrics();
+        PortfolioMetrics.register(metrics);
+
+        // Act
+        PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, Collections.<Fund>emptyList()).generatePortfolio(amountOfPLN(1000));
+        PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS.subList(0, 2)).generatePortfolio(amountOfPLN(1000));
+        PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(1));
+        PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(2));
+
+        // Assert
+        assertThat(metrics.getEmptyPortfolios("CONSERVATIVE", EmptyPortfolioReason.NO_FUNDS)).isEqualTo(1);
+        assertThat(metrics.getEmptyPortfolios("CONSERVATIVE", EmptyPortfolioReason.MISSING_FUND_TYPE)).isEqualTo(1);
+        assertThat(metrics.getEmptyPortfolios("CONSERVATIVE", EmptyPortfolioReason.GROUP_UNDER_ONE_UNIT)).isEqualTo(2);
+        assertThat(metrics.getEmptyPortfolios("BALANCED", EmptyPortfolioReason.NO_FUNDS)).isZero();
+    }
+
+    @Test
+    public void whenFundCountIsBucketed_bucketShouldBeThePowerOfTenBelowIt() {
+        assertThat(PortfolioGenerationMetrics.fundCountBucket(0)).isEqualTo(0);
+        assertThat(PortfolioGenerationMetrics.fundCountBucket(9)).isEqualTo(1);
+        assertThat(PortfolioGenerationMetrics.fundCountBucket(10)).isEqualTo(10);
+        assertThat(PortfolioGenerationMetrics.fundCountBucket(999)).isEqualTo(100);
+        assertThat(PortfolioGenerationMetrics.fundCountBucket(Integer.MAX_VALUE)).isEqualTo(1_000_000_000);
+    }
+
+    @Test
+    public void whenFlightRecorderIsRecording_generationPhasesShouldBeEmittedAsEvents() throws Exception {
+        // Arrange
+        val recordingFile = temporaryFolder.newFile("generation.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable("com.lajming.investmentsapp.FundGrouping");
+            recording.enable("com.lajming.investmentsapp.PortfolioAllocation");
+            recording.enable("com.lajming.investmentsapp.Percentage");
+            recording.start();
+
+            // Act
+            val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(1000));
+            portfolio.getPortfolioItems().forEach(PortfolioItem::getPercentage);
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Assert
+        val eventNames = RecordingFile.readAllEvents(recordingFile).stream()
+            .map(RecordedEvent::getEventType)
+            .map(EventType::getName)
+            .collect(Collectors.toSet());
+        assertThat(eventNames).contains(
+            "com.lajming.investmentsapp.FundGrouping",
+            "com.lajming.investmentsapp.PortfolioAllocation",
+            "com.lajming.investmentsapp.Percentage"
+        );
+    }
+}
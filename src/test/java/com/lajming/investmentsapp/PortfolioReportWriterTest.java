@@ -0,0 +1,145 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.google.common.base.Joiner.on;
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static java.lang.System.lineSeparator;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioReportWriterTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfFunds(
+        polishInvestmentFund(1L, TEST_POLISH_INVESTMENT_FUND_NAME_1),
+        polishInvestmentFund(2L, "Fund, \"Quoted\""),
+        foreignInvestmentFund(3L, "Fundusz zagraniczny \uD83D\uDCC8"),
+        moneyMarketFund(4L, TEST_MONEY_MARKET_FUND_NAME_1)
+    );
+
+    @Test
+    public void whenTableIsWritten_itShouldMatchItemStrings() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(30.55));
+        val expected = on(lineSeparator()).join(asList("Portfolio(", on(lineSeparator()).join(portfolio.getPortfolioItems()), "reminder=" + portfolio.getReminder() + ")"));
+        val table = new StringBuilder();
+
+        // Act
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.TABLE, table)) {
+            writer.write(portfolio);
+        }
+
+        // Assert
+        assertThat(table.toString()).isEqualTo(expected + lineSeparator());
+        assertThat(portfolio.toMultilineString()).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenEmptyPortfolioIsWrittenAsTable_itShouldMatchMultilineString() {
+        // Arrange
+        val portfolio = Portfolio.emptyPortfolioWithReminder(amountOfPLN(0.5));
+
+        // Act
+        val multilineString = portfolio.toMultilineString();
+
+        // Assert
+        assertThat(multilineString).isEqualTo("Portfolio(" + lineSeparator() + lineSeparator() + "reminder=PLN 0.50)");
+    }
+
+    @Test
+    public void whenCsvIsWritten_namesShouldBeQuotedAndRemindersListed() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS);
+        val csv = new StringWriter();
+
+        // Act
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.CSV, csv)) {
+            writer.write(portfolioGenerator.generatePortfolio(amountOfPLN(30)))
+                .write(Portfolio.emptyPortfolioWithReminder(amountOfPLN(0.5)));
+        }
+
+        // Assert
+        assertThat(csv.toString()).isEqualTo(
+            "portfolio,fundId,fundType,fundName,currency,amount,percentage\n" +
+            "0,1,POLISH_INVESTMENT_FUND," + TEST_POLISH_INVESTMENT_FUND_NAME_1 + ",PLN,5.00,16.6666666666\n" +
+            "0,2,POLISH_INVESTMENT_FUND,\"Fund, \"\"Quoted\"\"\",PLN,4.00,13.3333333333\n" +
+            "0,3,FOREIGN_INVESTMENT_FUND,Fundusz zagraniczny \uD83D\uDCC8,PLN,18.00,60\n" +
+            "0,4,MONEY_MARKET_FUND," + TEST_MONEY_MARKET_FUND_NAME_1 + ",PLN,3.00,10\n" +
+            "0,,REMINDER,,PLN,0.00,\n" +
+            "1,,REMINDER,,PLN,0.50,\n"
+        );
+    }
+
+    @Test
+    public void whenManyPortfoliosAreWrittenAsJson_outputShouldBeAnArrayOfRenderedPortfolios() {
+        // Arrange
+        val first = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(30));
+        val second = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(12345.67));
+        val json = new ByteArrayOutputStream();
+
+        // Act
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.JSON, json)) {
+            writer.write(first).write(second);
+        }
+
+        // Assert
+        val expected = "[" + new String(PortfolioJson.render(first), StandardCharsets.UTF_8) + "," + new String(PortfolioJson.render(second), StandardCharsets.UTF_8) + "]";
+        assertThat(new String(json.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+        assertThat(expected).contains("\"fundName\":\"Fund, \\\"Quoted\\\"\"", "\"fundName\":\"Fundusz zagraniczny \uD83D\uDCC8\"");
+    }
+
+    @Test
+    public void whenLargePortfolioIsWritten_percentagesShouldMatchItemPercentages() {
+        // Arrange
+        val portfolio = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(100_000)).generatePortfolio(amountOfPLN(98_765_432.1));
+        val expected = new StringBuilder();
+        for (val portfolioItem : portfolio.getPortfolioItems()) {
+            expected.append(portfolioItem).append(lineSeparator());
+        }
+        val table = new ByteArrayOutputStream();
+
+        // Act
+        try (PortfolioReportWriter writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.TABLE, table)) {
+            writer.write(portfolio);
+        }
+
+        // Assert
+        assertThat(new String(table.toByteArray(), StandardCharsets.UTF_8))
+            .isEqualTo("Portfolio(" + lineSeparator() + expected + "reminder=" + portfolio.getReminder() + ")" + lineSeparator());
+    }
+
+    @Test
+    public void whenEmptyJsonReportIsClosed_outputShouldBeAnEmptyArray() {
+        // Arrange
+        val json = new StringBuilder();
+
+        // Act
+        PortfolioReportWriter.of(PortfolioReportWriter.Format.JSON, json).close();
+
+        // Assert
+        assertThat(json.toString()).isEqualTo("[]");
+    }
+
+    @Test
+    public void whenWriterIsClosed_writingShouldThrowAnExceptionWithProperMessage() {
+        // Arrange
+        val writer = PortfolioReportWriter.of(PortfolioReportWriter.Format.CSV, new StringBuilder());
+        writer.close();
+
+        // Act
+        Throwable thrown = catchThrowable(() -> writer.write(Portfolio.emptyPortfolioWithReminder(amountOfPLN(0))));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("report writer is already closed");
+    }
+}
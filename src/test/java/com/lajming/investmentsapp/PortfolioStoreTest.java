@@ -0,0 +1,268 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+public class PortfolioStoreTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfFourFunds();
+
+    private static final PortfolioGenerator PORTFOLIO_GENERATOR = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void whenPortfoliosAreAppended_latestShouldReturnTheNewestByTimestamp() throws IOException {
+        // Arrange
+        try (PortfolioStore store = PortfolioStore.open(temporaryFolder.newFolder().toPath())) {
+            store.append("client-1", Instant.ofEpochMilli(2000), portfolioOf(200)).join();
+            store.append("client-1", Instant.ofEpochMilli(1000), portfolioOf(100)).join();
+            store.append("client-2", Instant.ofEpochMilli(1500), portfolioOf(150)).join();
+
+            // Act
+            val latest = store.latest("client-1");
+
+            // Assert
+            assertThat(latest).contains(StoredPortfolio.of("client-1", Instant.ofEpochMilli(2000), portfolioOf(200)));
+            assertThat(store.latest("client-2").map(StoredPortfolio::getPortfolio)).contains(portfolioOf(150));
+            assertThat(store.latest("client-3")).isEmpty();
+            assertThat(store.numberOfClients()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void whenStoreIsReopened_latestPortfoliosShouldBeRecovered() throws IOException {
+        // Arrange
+        val directory = temporaryFolder.newFolder().toPath();
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            appendAll(store, 100, 20);
+        }
+
+        // Act
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+
+            // Assert
+            assertLatest(store, 100, 20);
+            assertThat(store.numberOfClients()).isEqualTo(100);
+        }
+    }
+
+    @Test
+    public void whenStoreIsNotClosed_recoveryShouldReplayTheLogAfterTheCheckpoint() throws IOException {
+        // Arrange
+        val directory = temporaryFolder.newFolder().toPath();
+        val copy = temporaryFolder.newFolder().toPath();
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            appendAll(store, 50, 10);
+            copyFiles(directory, copy);
+        }
+
+        // Act
+        try (PortfolioStore store = PortfolioStore.open(copy, 4096)) {
+
+            // Assert
+            assertLatest(store, 50, 10);
+        }
+    }
+
+    @Test
+    public void whenIndexIsMissing_itShouldBeRebuiltFromTheLog() throws IOException {
+        // Arrange
+        val directory = temporaryFolder.newFolder().toPath();
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            appendAll(store, 30, 5);
+        }
+        Files.delete(directory.resolve("index.dat"));
+
+        // Act
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+
+            // Assert
+            assertLatest(store, 30, 5);
+        }
+    }
+
+    @Test
+    public void whenLogEndsWithATornRecord_itShouldBeTruncatedOnRecovery() throws IOException {
+        // Arrange
+        val directory = temporaryFolder.newFolder().toPath();
+        try (PortfolioStore store = PortfolioStore.open(directory)) {
+            store.append("client-1", Instant.ofEpochMilli(1000), portfolioOf(100)).join();
+        }
+        val segment = segmentFiles(directory).get(0);
+        val sizeBeforeTornWrite = Files.size(segment);
+        Files.write(segment, new byte[] { 0, 0, 0, 100, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        // Act
+        try (PortfolioStore store = PortfolioStore.open(directory)) {
+            store.append("client-1", Instant.ofEpochMilli(2000), portfolioOf(200)).join();
+
+            // Assert
+            assertThat(store.latest("client-1").map(StoredPortfolio::getPortfolio)).contains(portfolioOf(200));
+        }
+        try (PortfolioStore store = PortfolioStore.open(directory)) {
+            assertThat(store.latest("client-1").map(StoredPortfolio::getPortfolio)).contains(portfolioOf(200));
+        }
+        assertThat(Files.size(segment)).isGreaterThan(sizeBeforeTornWrite);
+    }
+
+    @Test
+    public void whenManyAppendsArePending_theyShouldBeCommittedInGroups() throws IOException {
+        // Arrange
+        try (PortfolioStore store = PortfolioStore.open(temporaryFolder.newFolder().toPath())) {
+            val appends = new ArrayList<CompletableFuture<Void>>();
+
+            // Act
+            for (int i = 0; i < 2000; i++) {
+                appends.add(store.append("client-" + i, Instant.ofEpochMilli(i), portfolioOf(100 + i)));
+            }
+            CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).join();
+
+            // Assert
+            assertThat(store.commits()).isLessThan(2000);
+            assertThat(store.latest("client-1999").map(StoredPortfolio::getPortfolio)).contains(portfolioOf(2099));
+        }
+    }
+
+    @Test
+    public void whenStoreIsCompacted_supersededRecordsBeforeRetentionShouldBeDropped() throws IOException {
+        // Arrange
+        val directory = temporaryFolder.newFolder().toPath();
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            appendAll(store, 10, 50);
+            val segmentsBeforeCompaction = segmentFiles(directory).size();
+
+            // Act
+            val droppedRecords = store.compact(Instant.ofEpochMilli(Long.MAX_VALUE));
+
+            // Assert
+            assertThat(droppedRecords).isGreaterThan(0);
+            assertThat(segmentFiles(directory).size()).isLessThan(segmentsBeforeCompaction);
+            assertLatest(store, 10, 50);
+            assertThat(store.compact(Instant.ofEpochMilli(Long.MAX_VALUE))).isEqualTo(0);
+        }
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            assertLatest(store, 10, 50);
+        }
+        Files.delete(directory.resolve("index.dat"));
+        try (PortfolioStore store = PortfolioStore.open(directory, 4096)) {
+            assertLatest(store, 10, 50);
+        }
+    }
+
+    @Test
+    public void whenStoreIsCompactedWhileAppending_noLatestRecordShouldBeLost() throws Exception {
+        // Arrange
+        try (PortfolioStore store = PortfolioStore.open(temporaryFolder.newFolder().toPath(), 4096)) {
+            val appending = new AtomicBoolean(true);
+            val compactions = new AtomicInteger();
+            val compactor = CompletableFuture.runAsync(() -> {
+                while (appending.get()) {
+                    store.compact(Instant.ofEpochMilli(Long.MAX_VALUE));
+                    compactions.incrementAndGet();
+                }
+            });
+
+            // Act
+            for (int round = 0; round < 20; round++) {
+                appendAll(store, 20, 5);
+            }
+            appending.set(false);
+            compactor.get(10, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(compactions.get()).isGreaterThan(0);
+            assertLatest(store, 20, 5);
+            assertThat(store.numberOfClients()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    public void whenRecordsAreWithinRetention_compactionShouldKeepThem() throws IOException {
+        // Arrange
+        try (PortfolioStore store = PortfolioStore.open(temporaryFolder.newFolder().toPath(), 4096)) {
+            appendAll(store, 10, 50);
+
+            // Act
+            val droppedRecords = store.compact(Instant.ofEpochMilli(0));
+
+            // Assert
+            assertThat(droppedRecords).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void whenStoreIsClosed_appendingShouldThrowAnExceptionWithProperMessage() throws IOException {
+        // Arrange
+        val store = PortfolioStore.open(temporaryFolder.newFolder().toPath());
+        store.close();
+
+        // Act
+        Throwable thrown = catchThrowable(() -> store.append("client-1", Instant.now(), portfolioOf(100)));
+
+        // Assert
+        assertThat(thrown)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("portfolio store is already closed");
+    }
+
+    private static void appendAll(PortfolioStore store, int numberOfClients, int portfoliosPerClient) {
+        val appends = new ArrayList<CompletableFuture<Void>>();
+        for (int version = 0; version < portfoliosPerClient; version++) {
+            for (int client = 0; client < numberOfClients; client++) {
+                appends.add(store.append("client-" + client, Instant.ofEpochMilli(version), portfolioOf(100 + client * 10 + version)));
+            }
+        }
+        CompletableFuture.allOf(appends.toArray(new CompletableFuture[0])).join();
+    }
+
+    private static void assertLatest(PortfolioStore store, int numberOfClients, int portfoliosPerClient) {
+        val lastVersion = portfoliosPerClient - 1;
+        for (int client = 0; client < numberOfClients; client++) {
+            val expected = StoredPortfolio.of("client-" + client, Instant.ofEpochMilli(lastVersion), portfolioOf(100 + client * 10 + lastVersion));
+            assertThat(store.latest("client-" + client)).isEqualTo(Optional.of(expected));
+        }
+    }
+
+    private static Portfolio portfolioOf(double amount) {
+        return PORTFOLIO_GENERATOR.generatePortfolio(amountOfPLN(amount));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        val segmentFiles = new ArrayList<Path>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.log")) {
+            files.forEach(segmentFiles::add);
+        }
+        return segmentFiles;
+    }
+
+    private static void copyFiles(Path source, Path target) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(source)) {
+            for (val file : files) {
+                Files.copy(file, target.resolve(file.getFileName()));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioStreamTest {
+
+    @Test
+    public void whenPortfolioIsStreamed_itemsShouldBeTheSameAsInTheGeneratedPortfolio() {
+        // Arrange
+        val availableMoney = amountOfPLN(10000);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(1000));
+
+        // Act
+        val portfolioStream = portfolioGenerator.streamPortfolio(availableMoney);
+
+        // Assert
+        val expected = portfolioGenerator.generatePortfolio(availableMoney);
+        assertThat(portfolioStream.getReminder()).isEqualTo(expected.getReminder());
+        assertThat(portfolioStream.getNumberOfItems()).isEqualTo(expected.getPortfolioItems().size());
+        assertThat(portfolioStream.items().collect(Collectors.toList())).isEqualTo(expected.getPortfolioItems());
+        assertThat(portfolioStream.items().parallel().collect(Collectors.toList())).isEqualTo(expected.getPortfolioItems());
+    }
+
+    @Test
+    public void whenPortfolioIsPushedToAConsumer_itemsShouldArriveInPortfolioOrder() {
+        // Arrange
+        val availableMoney = amountOfPLN(10000);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, listOfManyFunds(10));
+        val consumedItems = new ArrayList<PortfolioItem>();
+
+        // Act
+        portfolioGenerator.streamPortfolio(availableMoney).forEachItem(consumedItems::add);
+
+        // Assert
+        assertThat(consumedItems).isEqualTo(portfolioGenerator.generatePortfolio(availableMoney).getPortfolioItems());
+    }
+
+    @Test
+    public void whenPortfolioCantBeGenerated_streamShouldBeEmptyAndWholeAmountShouldBeTheReminder() {
+        // Arrange
+        val availableMoney = amountOfPLN(10);
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, listOfManyFunds(3));
+
+        // Act
+        val portfolioStream = portfolioGenerator.streamPortfolio(availableMoney);
+
+        // Assert
+        assertThat(portfolioStream.items()).isEmpty();
+        assertThat(portfolioStream.getNumberOfItems()).isZero();
+        assertThat(portfolioStream.getReminder()).isEqualTo(availableMoney);
+    }
+}
@@ -0,0 +1,145 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioSweepTest {
+
+    private static final CurrencyUnit PLN = CurrencyUnit.of("PLN");
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfSixFunds();
+
+    @Test
+    public void whenFeasibilityIsChecked_itShouldMatchWhetherGeneratedPortfolioIsEmpty() {
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            // Arrange
+            val portfolioGenerator = PortfolioGenerator.of(investmentStrategy, AVAILABLE_FUNDS);
+
+            for (long amount = 0; amount <= 5_000; amount++) {
+                val money = Money.ofMinor(PLN, amount);
+
+                // Act
+                val feasible = portfolioGenerator.isFeasible(money);
+
+                // Assert
+                assertThat(feasible).isEqualTo(!portfolioGenerator.generatePortfolio(money).getPortfolioItems().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void whenMinimumFeasibleAmountIsRequested_itShouldBeTheSmallestAmountProducingAPortfolio() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS);
+
+        // Act
+        val minimumFeasibleAmount = portfolioGenerator.minimumFeasibleAmount(PLN);
+
+        // Assert
+        assertThat(minimumFeasibleAmount).contains(amountOfPLN(20));
+        assertThat(portfolioGenerator.generatePortfolio(amountOfPLN(19.99)).getPortfolioItems()).isEmpty();
+        assertThat(portfolioGenerator.generatePortfolio(amountOfPLN(20)).getPortfolioItems()).isNotEmpty();
+    }
+
+    @Test
+    public void whenFundTypeIsMissing_noAmountShouldBeFeasible() {
+        // Arrange
+        val portfolioGenerator = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS.subList(0, 5));
+
+        // Act
+        val segments = PortfolioSweep.of(portfolioGenerator).sweep(amountOfPLN(0), amountOfPLN(1_000_000));
+
+        // Assert
+        assertThat(portfolioGenerator.minimumFeasibleAmount(PLN)).isEqualTo(Optional.empty());
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).isEmpty()).isTrue();
+        assertThat(segments.get(0).getTo()).isEqualTo(amountOfPLN(1_000_000));
+    }
+
+    @Test
+    public void whenRangeIsSwept_eachAmountShouldGetTheSamePortfolioAsSingleGeneration() {
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            // Arrange
+            val portfolioGenerator = PortfolioGenerator.of(investmentStrategy, AVAILABLE_FUNDS);
+
+            // Act
+            val segments = PortfolioSweep.of(portfolioGenerator).sweep(amountOfPLN(0), amountOfPLN(250));
+
+            // Assert
+            long expectedFrom = 0;
+            for (val segment : segments) {
+                assertThat(segment.getFrom().getAmountMinorLong()).isEqualTo(expectedFrom);
+                for (long amount = expectedFrom; amount <= segment.getTo().getAmountMinorLong(); amount++) {
+                    val money = Money.ofMinor(PLN, amount);
+                    assertThat(segment.portfolioFor(money)).isEqualTo(portfolioGenerator.generatePortfolio(money));
+                    assertThat(segment.reminderFor(money)).isEqualTo(portfolioGenerator.generatePortfolio(money).getReminder());
+                }
+                expectedFrom = segment.getTo().getAmountMinorLong() + 1;
+            }
+            assertThat(expectedFrom).isEqualTo(25_001);
+        }
+    }
+
+    @Test
+    public void whenLargeRangeIsSwept_segmentsShouldOnlyChangeAtWholeUnitBreakpoints() {
+        // Arrange
+        val portfolioSweep = PortfolioSweep.of(PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS));
+        val numberOfSegments = new long[1];
+        val lastSegment = new SweepSegment[1];
+
+        // Act
+        portfolioSweep.forEachSegment(amountOfPLN(0), amountOfPLN(1_000_000), segment -> {
+            numberOfSegments[0]++;
+            lastSegment[0] = segment;
+        });
+
+        // Assert
+        assertThat(numberOfSegments[0]).isEqualTo(400_000);
+        assertThat(lastSegment[0].getFrom()).isEqualTo(amountOfPLN(1_000_000));
+        assertThat(lastSegment[0].getTo()).isEqualTo(amountOfPLN(1_000_000));
+    }
+
+    @Test
+    public void whenSegmentIsLookedUp_itShouldBeTheSweepSegmentContainingTheAmount() {
+        for (val investmentStrategy : InvestmentStrategy.values()) {
+            // Arrange
+            val portfolioSweep = PortfolioSweep.of(PortfolioGenerator.of(investmentStrategy, AVAILABLE_FUNDS));
+            val segments = portfolioSweep.sweep(amountOfPLN(0), amountOfPLN(250));
+
+            for (val segment : segments.subList(0, segments.size() - 1)) {
+                for (long amount = segment.getFrom().getAmountMinorLong(); amount <= segment.getTo().getAmountMinorLong(); amount++) {
+                    // Act
+                    val segmentForAmount = portfolioSweep.segmentFor(Money.ofMinor(PLN, amount));
+
+                    // Assert
+                    assertThat(segmentForAmount).isEqualTo(segment);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void whenSegmentOfLargeAmountIsLookedUp_itShouldBeBoundedByTheNeighbouringBreakpoints() {
+        // Arrange
+        val portfolioSweep = PortfolioSweep.of(PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS));
+
+        // Act
+        val segment = portfolioSweep.segmentFor(amountOfPLN(1_000_000));
+
+        // Assert
+        assertThat(segment.getFrom()).isEqualTo(amountOfPLN(1_000_000));
+        assertThat(segment.getTo()).isEqualTo(amountOfPLN(1_000_002.49));
+        assertThat(segment.getInvested()).isEqualTo(amountOfPLN(1_000_000));
+        assertThat(portfolioSweep.segmentFor(amountOfPLN(5)).getInvested()).isEqualTo(amountOfPLN(5));
+        assertThat(portfolioSweep.segmentFor(amountOfPLN(4.99)).isEmpty()).isTrue();
+    }
+}
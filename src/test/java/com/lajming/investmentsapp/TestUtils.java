@@ -4,6 +4,7 @@ import org.joda.money.CurrencyUnit;
 import org.joda.money.Money;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -17,6 +18,43 @@ class TestUtils {
         return Arrays.asList(funds);
     }
 
+    static List<Fund> listOfManyFunds(int numberOfFunds) {
+        List<Fund> funds = new ArrayList<>(numberOfFunds);
+        for (int i = 0; i < numberOfFunds; i++) {
+            FundType fundType = FundType.values()[i % FundType.values().length];
+            funds.add(Fund.of(i, fundType, fundType.name() + " " + i));
+        }
+        return funds;
+    }
+
+    static List<Fund> listOfOneFundPerType() {
+        return listOfFunds(
+            polishInvestmentFund(1L, TestData.TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(2L, TestData.TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(3L, TestData.TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+    }
+
+    static List<Fund> listOfFourFunds() {
+        return listOfFunds(
+            polishInvestmentFund(1L, TestData.TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TestData.TEST_POLISH_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(3L, TestData.TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            moneyMarketFund(4L, TestData.TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+    }
+
+    static List<Fund> listOfSixFunds() {
+        return listOfFunds(
+            polishInvestmentFund(1L, TestData.TEST_POLISH_INVESTMENT_FUND_NAME_1),
+            polishInvestmentFund(2L, TestData.TEST_POLISH_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(3L, TestData.TEST_FOREIGN_INVESTMENT_FUND_NAME_1),
+            foreignInvestmentFund(4L, TestData.TEST_FOREIGN_INVESTMENT_FUND_NAME_2),
+            foreignInvestmentFund(5L, TestData.TEST_FOREIGN_INVESTMENT_FUND_NAME_3),
+            moneyMarketFund(6L, TestData.TEST_MONEY_MARKET_FUND_NAME_1)
+        );
+    }
+
     static BigDecimal bigDecimal(String number) {
         return new BigDecimal(number).stripTrailingZeros();
     }
@@ -0,0 +1,245 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.lajming.investmentsapp.TestData.*;
+import static com.lajming.investmentsapp.TestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioHttpServerTest {
+
+    private static final List<Fund> AVAILABLE_FUNDS = listOfFourFunds();
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private PortfolioHttpServer server;
+
+    @Before
+    public void startServer() {
+        server = PortfolioHttpServer.start(new InetSocketAddress("localhost", 0), FundUniverse.of(AVAILABLE_FUNDS),
+            InvestmentStrategyLoader.builtInStrategies(), 8, Duration.ofMillis(100));
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void whenJsonRequestIsPosted_portfolioShouldBeReturnedAsJson() throws Exception {
+        // Arrange
+        val request = "{\"amount\": \"101\", \"currency\": \"PLN\", \"strategy\": \"BALANCED\"}";
+
+        // Act
+        val response = post("/portfolios", "application/json", request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        val expected = PortfolioGenerator.of(InvestmentStrategy.BALANCED, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(101));
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(PortfolioJson.render(expected));
+    }
+
+    @Test
+    public void whenBinaryRequestIsPosted_portfolioShouldBeReturnedInBinaryFormat() throws Exception {
+        // Arrange
+        val request = new byte[] { PortfolioHttpServer.REQUEST_VERSION, 'P', 'L', 'N', (byte) 0xF4, 0x4E, 10,
+            'A', 'G', 'G', 'R', 'E', 'S', 'S', 'I', 'V', 'E' };
+
+        // Act
+        val response = post("/portfolios", "application/octet-stream", request);
+
+        // Assert
+        val expected = PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(101));
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(PortfolioBinaryReader.of(response.body()).toPortfolio()).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenBatchIsPosted_portfoliosShouldBeReturnedInRequestOrder() throws Exception {
+        // Arrange
+        val request = "[{\"amount\": 1000, \"currency\": \"PLN\", \"strategy\": \"CONSERVATIVE\"},"
+            + " {\"amount\": 2500, \"currency\": \"PLN\", \"strategy\": \"AGGRESSIVE\"}]";
+
+        // Act
+        val response = post("/portfolios/batch", "application/json", request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        val expected = Arrays.asList(
+            PortfolioGenerator.of(InvestmentStrategy.CONSERVATIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(1000)),
+            PortfolioGenerator.of(InvestmentStrategy.AGGRESSIVE, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(2500))
+        );
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(PortfolioJson.render(expected));
+    }
+
+    @Test
+    public void whenStrategyIsUnknown_badRequestShouldBeReturnedWithProperMessage() throws Exception {
+        // Arrange
+        val request = "{\"amount\": 100, \"currency\": \"PLN\", \"strategy\": \"UNKNOWN\"}";
+
+        // Act
+        val response = post("/portfolios", "application/json", request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"error\":\"unknown investment strategy UNKNOWN\"}");
+    }
+
+    @Test
+    public void whenStrategyIsMissing_badRequestShouldBeReturnedWithProperMessage() throws Exception {
+        // Arrange
+        val request = "{\"amount\": 100, \"currency\": \"PLN\"}";
+
+        // Act
+        val response = post("/portfolios", "application/json", request.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"error\":\"missing strategy\"}");
+    }
+
+    @Test
+    public void whenStrategyKeyDiffersFromItsName_portfolioShouldBeGeneratedWithTheKeyedStrategy() throws Exception {
+        // Arrange
+        val investmentStrategy = CompiledInvestmentStrategy.compile("HOUSE_MIX", Map.of(
+            FundType.POLISH_INVESTMENT_FUND, 40,
+            FundType.FOREIGN_INVESTMENT_FUND, 40,
+            FundType.MONEY_MARKET_FUND, 20
+        ));
+        val request = "{\"amount\": 1000, \"currency\": \"PLN\", \"strategy\": \"house\"}";
+
+        try (PortfolioHttpServer customServer = PortfolioHttpServer.start(new InetSocketAddress("localhost", 0), FundUniverse.of(AVAILABLE_FUNDS),
+                Map.of("house", investmentStrategy), 8, Duration.ofMillis(100))) {
+
+            // Act
+            val response = post(customServer, "/portfolios", "application/json", request.getBytes(StandardCharsets.UTF_8));
+
+            // Assert
+            val expected = PortfolioGenerator.of(investmentStrategy, AVAILABLE_FUNDS).generatePortfolio(amountOfPLN(1000));
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(PortfolioJson.render(expected));
+        }
+    }
+
+    @Test
+    public void whenBinaryNameLengthExceedsTheRequest_badRequestShouldBeReturnedWithProperMessage() throws Exception {
+        // Arrange
+        val request = new byte[] { PortfolioHttpServer.REQUEST_VERSION, 'P', 'L', 'N', 0x01, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10 };
+
+        // Act
+        val response = post("/portfolios", "application/octet-stream", request);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"error\":\"truncated generation request\"}");
+    }
+
+    @Test
+    public void whenBinaryNumberOfRequestsOverflowsToNegative_badRequestShouldBeReturnedWithProperMessage() throws Exception {
+        // Arrange
+        val request = new byte[] { PortfolioHttpServer.REQUEST_VERSION, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01 };
+
+        // Act
+        val response = post("/portfolios/batch", "application/octet-stream", request);
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"error\":\"malformed number of requests -1\"}");
+    }
+
+    @Test
+    public void whenAllPermitsAreTaken_requestShouldBeRejectedWithRetryAfter() throws Exception {
+        // Arrange
+        val request = "{\"amount\": 100, \"currency\": \"PLN\", \"strategy\": \"BALANCED\"}".getBytes(StandardCharsets.UTF_8);
+        try (PortfolioHttpServer limitedServer = PortfolioHttpServer.start(new InetSocketAddress("localhost", 0), FundUniverse.of(AVAILABLE_FUNDS),
+                InvestmentStrategyLoader.builtInStrategies(), 1, Duration.ofMillis(10));
+             Socket blockedRequest = new Socket("localhost", limitedServer.getAddress().getPort())) {
+            blockedRequest.setSoTimeout((int) REQUEST_TIMEOUT.toMillis());
+            val headers = "POST /portfolios HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\nContent-Length: " + request.length + "\r\n\r\n";
+            blockedRequest.getOutputStream().write(headers.getBytes(StandardCharsets.US_ASCII));
+            blockedRequest.getOutputStream().flush();
+            assertThat(awaitHealth(limitedServer, "\"inFlight\":1")).contains("\"inFlight\":1");
+
+            // Act
+            val response = httpClient.send(
+                HttpRequest.newBuilder(uri(limitedServer, "/portfolios"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(request))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            blockedRequest.getOutputStream().write(request);
+            blockedRequest.getOutputStream().flush();
+
+            // Assert
+            assertThat(response.statusCode()).isEqualTo(503);
+            assertThat(response.headers().firstValue("Retry-After")).contains("1");
+            assertThat(response.body()).isEqualTo("{\"error\":\"too many concurrent requests\"}");
+            assertThat(new String(blockedRequest.getInputStream().readNBytes(12), StandardCharsets.US_ASCII)).isEqualTo("HTTP/1.1 200");
+            val counters = "\"inFlight\":0,\"maxConcurrentRequests\":1,\"served\":1,\"rejected\":1";
+            assertThat(awaitHealth(limitedServer, counters)).contains(counters);
+        }
+    }
+
+    @Test
+    public void whenHealthIsRequested_statusAndCountersShouldBeReturned() throws Exception {
+        // Arrange
+        post("/portfolios", "application/json", "{\"amount\": 100, \"currency\": \"PLN\", \"strategy\": \"BALANCED\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        val response = httpClient.send(HttpRequest.newBuilder(uri("/health")).timeout(REQUEST_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body())
+            .startsWith("{\"status\":\"UP\",\"funds\":4,\"inFlight\":0,\"maxConcurrentRequests\":8,\"served\":1,\"rejected\":0");
+    }
+
+    private HttpResponse<byte[]> post(String path, String contentType, byte[] body) throws Exception {
+        return post(server, path, contentType, body);
+    }
+
+    private HttpResponse<byte[]> post(PortfolioHttpServer server, String path, String contentType, byte[] body) throws Exception {
+        val request = HttpRequest.newBuilder(uri(server, path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private String awaitHealth(PortfolioHttpServer server, String expected) throws Exception {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String health;
+        do {
+            health = httpClient.send(HttpRequest.newBuilder(uri(server, "/health")).timeout(REQUEST_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofString()).body();
+        } while (!health.contains(expected) && System.nanoTime() < deadline);
+        return health;
+    }
+
+    private URI uri(String path) {
+        return uri(server, path);
+    }
+
+    private static URI uri(PortfolioHttpServer server, String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
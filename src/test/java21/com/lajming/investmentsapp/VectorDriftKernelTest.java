@@ -0,0 +1,41 @@
+package com.lajming.investmentsapp;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VectorDriftKernelTest {
+
+    private static final double[] TARGET_WEIGHTS = { 0.3, 0.6, 0.1 };
+
+    @Test
+    public void vectorizedOrScalarKernelShouldBeVectorizedWhenVectorModuleIsAvailable() {
+        assertThat(DriftKernel.vectorizedOrScalar()).isInstanceOf(VectorDriftKernel.class);
+    }
+
+    @Test
+    public void whenRangeIsNotAMultipleOfVectorLength_breachesShouldMatchScalarKernel() {
+        // Arrange
+        val random = new Random(7);
+        val amounts = new long[TARGET_WEIGHTS.length][10007];
+        for (val column : amounts) {
+            for (int row = 0; row < column.length; row++) {
+                column[row] = random.nextInt(10) == 0 ? 0 : random.nextInt(1000000);
+            }
+        }
+        val vectorRows = new int[10007];
+        val scalarRows = new int[10007];
+
+        // Act
+        val vectorBreaches = new VectorDriftKernel().scan(amounts, 3, 10006, TARGET_WEIGHTS, 0.2, vectorRows);
+        val scalarBreaches = ScalarDriftKernel.INSTANCE.scan(amounts, 3, 10006, TARGET_WEIGHTS, 0.2, scalarRows);
+
+        // Assert
+        assertThat(vectorBreaches).isGreaterThan(0).isEqualTo(scalarBreaches);
+        assertThat(Arrays.copyOf(vectorRows, vectorBreaches)).containsExactly(Arrays.copyOf(scalarRows, scalarBreaches));
+    }
+}